@@ -0,0 +1,104 @@
+package ru.kharevich.postservice.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.MediaType;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+import org.springframework.messaging.MessageHeaders;
+import ru.kharevich.postservice.dto.response.ActivityResponse;
+import ru.kharevich.postservice.kafka.ActivityDeserializer;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Deserialization of an activity record with the consumer settings of {@code application-dev.yml}:
+ * the type is resolved from the {@code __TypeId__} header through {@code spring.json.type.mapping}.
+ * {@link #cbor()} reads the same record written as CBOR through {@link ActivityDeserializer}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ActivityDeserializationBenchmark {
+
+    private static final String TOPIC = "activity-topic";
+
+    private static final String TYPE_MAPPING =
+            "activityResponse:ru.kharevich.postservice.dto.response.ActivityResponse";
+
+    private JsonDeserializer<Object> deserializer;
+
+    private Header[] typeHeaders;
+
+    private byte[] payload;
+
+    private ActivityDeserializer activityDeserializer;
+
+    private Header[] cborHeaders;
+
+    private byte[] cborPayload;
+
+    @Setup
+    public void setUp() throws JsonProcessingException {
+        Map<String, String> configs = Map.of(
+                JsonDeserializer.TRUSTED_PACKAGES, "*",
+                JsonDeserializer.TYPE_MAPPINGS, TYPE_MAPPING);
+        deserializer = new JsonDeserializer<>();
+        deserializer.configure(configs, false);
+        activityDeserializer = new ActivityDeserializer();
+        activityDeserializer.configure(configs, false);
+
+        ActivityResponse activity = new ActivityResponse(UUID.randomUUID(), 1_024, 96, 1_024L);
+        RecordHeaders headers = new RecordHeaders();
+        try (JsonSerializer<Object> serializer = new JsonSerializer<>()) {
+            serializer.configure(Map.of(JsonSerializer.TYPE_MAPPINGS, TYPE_MAPPING), false);
+            payload = serializer.serialize(TOPIC, headers, activity);
+        }
+        typeHeaders = headers.toArray();
+
+        cborPayload = new CBORMapper().writeValueAsBytes(activity);
+        cborHeaders = new RecordHeaders()
+                .add(MessageHeaders.CONTENT_TYPE, MediaType.APPLICATION_CBOR_VALUE.getBytes(StandardCharsets.US_ASCII))
+                .toArray();
+        System.out.printf("record bytes: json=%d, cbor=%d%n", payload.length, cborPayload.length);
+    }
+
+    @TearDown
+    public void tearDown() {
+        deserializer.close();
+        activityDeserializer.close();
+    }
+
+    /**
+     * Every record comes with its own headers; the deserializer removes the type header it consumed.
+     */
+    @Benchmark
+    public Object deserialize() {
+        return deserializer.deserialize(TOPIC, new RecordHeaders(typeHeaders.clone()), payload);
+    }
+
+    @Benchmark
+    public Object cbor() {
+        return activityDeserializer.deserialize(TOPIC, new RecordHeaders(cborHeaders), cborPayload);
+    }
+
+}
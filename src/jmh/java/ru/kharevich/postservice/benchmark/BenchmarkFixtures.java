@@ -0,0 +1,80 @@
+package ru.kharevich.postservice.benchmark;
+
+import ru.kharevich.postservice.dto.response.ImageDescriptor;
+import ru.kharevich.postservice.dto.response.ImageResponse;
+import ru.kharevich.postservice.dto.transferObject.FileTransferEntity;
+import ru.kharevich.postservice.dto.transferObject.PostView;
+import ru.kharevich.postservice.model.ImageType;
+import ru.kharevich.postservice.model.Post;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Deterministically shaped test data shared by the benchmarks.
+ */
+final class BenchmarkFixtures {
+
+    private BenchmarkFixtures() {
+    }
+
+    static Post post(int index) {
+        return Post.builder()
+                .id(UUID.randomUUID())
+                .text("Post number " + index + " with a sentence or two of text, as posts usually have.")
+                .author("author-" + index % 10)
+                .authorId(UUID.randomUUID())
+                .numberOfLikes(index * 3)
+                .numberOfComments(index)
+                .createdAt(LocalDateTime.now().minusMinutes(index))
+                .build();
+    }
+
+    static List<Post> posts(int count) {
+        List<Post> posts = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            posts.add(post(i));
+        }
+        return posts;
+    }
+
+    static List<PostView> views(int count) {
+        List<PostView> views = new ArrayList<>(count);
+        for (Post post : posts(count)) {
+            views.add(new PostView(post.getId(), post.getText(), post.getAuthor(), post.getAuthorId(),
+                    post.getNumberOfLikes(), post.getNumberOfComments(), post.getCreatedAt(), post.getUpdatedAt(),
+                    post.getAttachmentStatus()));
+        }
+        return views;
+    }
+
+    static List<byte[]> files(int count, int bytes) {
+        List<byte[]> files = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            byte[] file = new byte[bytes];
+            ThreadLocalRandom.current().nextBytes(file);
+            files.add(file);
+        }
+        return files;
+    }
+
+    static ImageResponse images(UUID parentId, int count, int bytes) {
+        List<FileTransferEntity> files = new ArrayList<>(count);
+        for (byte[] file : files(count, bytes)) {
+            files.add(new FileTransferEntity(file, "image-" + files.size() + ".png"));
+        }
+        return new ImageResponse(ImageType.POST_ATTACHMENT, files, parentId);
+    }
+
+    static List<ImageDescriptor> descriptors(UUID parentId, int count, int bytes) {
+        List<ImageDescriptor> descriptors = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            descriptors.add(ImageDescriptor.of(parentId, i, "image-" + i + ".png", bytes, "image/png"));
+        }
+        return descriptors;
+    }
+
+}
@@ -0,0 +1,166 @@
+package ru.kharevich.postservice.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import feign.Request;
+import feign.Response;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import ru.kharevich.postservice.activity.ActivityBuffer;
+import ru.kharevich.postservice.cache.PostCache;
+import ru.kharevich.postservice.clients.ImageClient;
+import ru.kharevich.postservice.clients.ImageStreamReader;
+import ru.kharevich.postservice.clients.ImageUploadClient;
+import ru.kharevich.postservice.config.properties.PostBatchProperties;
+import ru.kharevich.postservice.config.properties.PostStreamProperties;
+import ru.kharevich.postservice.dto.transferObject.PostFields;
+import ru.kharevich.postservice.dto.response.ImageResponse;
+import ru.kharevich.postservice.dto.response.PageableResponse;
+import ru.kharevich.postservice.dto.response.PostResponse;
+import ru.kharevich.postservice.dto.transferObject.PostView;
+import ru.kharevich.postservice.model.ImageMode;
+import ru.kharevich.postservice.outbox.ImageOutbox;
+import ru.kharevich.postservice.ranking.HotFeed;
+import ru.kharevich.postservice.repository.PostActivityRepository;
+import ru.kharevich.postservice.repository.PostRepository;
+import ru.kharevich.postservice.search.PostSearch;
+import ru.kharevich.postservice.service.impl.PostServiceImpl;
+import ru.kharevich.postservice.timeline.AuthorTimeline;
+import ru.kharevich.postservice.util.concurrent.ReadFanOut;
+import ru.kharevich.postservice.util.mapper.PageMapperImpl;
+import ru.kharevich.postservice.util.mapper.PostImageJoiner;
+import ru.kharevich.postservice.util.mapper.PostMapperImpl;
+import ru.kharevich.postservice.util.pagination.PostCursorCodec;
+import ru.kharevich.postservice.util.stream.PostStreamWriter;
+import ru.kharevich.postservice.util.validation.PostValidationService;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+/**
+ * {@code PostServiceImpl.getFeed} with the repository and the image service replaced by canned
+ * answers, i.e. everything the service itself does to assemble a page: joining images onto posts,
+ * mapping, and in reference mode streaming the descriptors out of the image service payload.
+ * The stubs are stub-only mocks, which do not record invocations; Mockito dispatch still adds a
+ * constant of a few microseconds per stubbed call.
+ * <p>
+ * {@link #writeFeed()} and {@link #streamFeed()} also serialize the page, once as a whole and once as
+ * newline-delimited JSON loaded chunk by chunk; the image stub answers only the requested parents.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FeedAssemblyBenchmark {
+
+    private static final Request REQUEST = Request.create(Request.HttpMethod.GET, "/parent/many",
+            Map.of(), null, StandardCharsets.UTF_8, null);
+
+    @Param({"20", "100"})
+    private int postsPerPage;
+
+    @Param({"16384"})
+    private int imageBytes;
+
+    @Param({"INLINE", "REFERENCE"})
+    private ImageMode imageMode;
+
+    @Param({"10"})
+    private int chunkSize;
+
+    private PostServiceImpl postService;
+
+    private ObjectMapper objectMapper;
+
+    @Setup
+    public void setUp() throws JsonProcessingException {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        List<PostView> posts = BenchmarkFixtures.views(postsPerPage);
+        List<ImageResponse> images = new ArrayList<>(postsPerPage);
+        for (PostView post : posts) {
+            images.add(BenchmarkFixtures.images(post.id(), 2, imageBytes));
+        }
+        Map<UUID, ImageResponse> imagesByParent = images.stream()
+                .collect(Collectors.toMap(ImageResponse::parentId, Function.identity()));
+        PageableResponse<ImageResponse> imagePage = new PageableResponse<>(images.size(), 1, 0, images.size(), images);
+        byte[] imagePageJson = objectMapper.writeValueAsBytes(imagePage);
+
+        PostRepository postRepository = mock(PostRepository.class, withSettings().stubOnly());
+        when(postRepository.findViewsBy(PageRequest.of(0, postsPerPage))).thenReturn(posts);
+        when(postRepository.count()).thenReturn(10_000L);
+        ImageClient imageClient = mock(ImageClient.class, withSettings().stubOnly());
+        when(imageClient.getImagesByParentId(anyList(), anyInt(), anyInt())).thenAnswer(invocation -> {
+            List<UUID> ids = invocation.getArgument(0);
+            List<ImageResponse> requested = ids.stream().map(imagesByParent::get).toList();
+            return new PageableResponse<>(requested.size(), 1, 0, requested.size(), requested);
+        });
+        when(imageClient.streamImagesByParentId(anyList(), anyInt(), anyInt())).thenAnswer(invocation ->
+                Response.builder().status(200).request(REQUEST).body(imagePageJson).build());
+
+        ReadFanOut readFanOut = new ReadFanOut(Runnable::run, new SimpleMeterRegistry());
+        postService = new PostServiceImpl(
+                postRepository,
+                imageClient,
+                mock(ImageUploadClient.class),
+                new PostMapperImpl(),
+                mock(PostValidationService.class),
+                new PageMapperImpl(),
+                new PostCursorCodec(),
+                new PostImageJoiner(),
+                new ImageStreamReader(objectMapper),
+                mock(PostCache.class),
+                mock(PostActivityRepository.class),
+                mock(ImageOutbox.class),
+                readFanOut,
+                new ActivityBuffer(new SimpleMeterRegistry()),
+                new PostBatchProperties(100),
+                new PostStreamWriter(objectMapper, readFanOut, new PostStreamProperties(chunkSize, 2)),
+                mock(AuthorTimeline.class),
+                mock(HotFeed.class),
+                mock(PostSearch.class));
+    }
+
+    @Benchmark
+    public PageableResponse<PostResponse> getFeed() {
+        return postService.getFeed(0, postsPerPage, imageMode);
+    }
+
+    @Benchmark
+    public void writeFeed() throws IOException {
+        objectMapper.writeValue(OutputStream.nullOutputStream(), postService.getFeed(0, postsPerPage, imageMode));
+    }
+
+    @Benchmark
+    public void streamFeed() throws IOException {
+        postService.streamFeed(0, postsPerPage, imageMode, PostFields.ALL).writeTo(OutputStream.nullOutputStream());
+    }
+
+}
@@ -0,0 +1,94 @@
+package ru.kharevich.postservice.benchmark;
+
+import jakarta.persistence.EntityManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.kharevich.postservice.benchmark.load.LocalApplication;
+import ru.kharevich.postservice.dto.transferObject.PostView;
+import ru.kharevich.postservice.model.Post;
+import ru.kharevich.postservice.repository.PostRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One feed page read from H2 in PostgreSQL mode. {@code entities} replays the previous read, managed
+ * {@link Post}s in a read-write transaction that is dirty checked and flushed on commit; {@code views}
+ * is {@code PostRepository.findViewsBy}, a constructor projection in a read-only transaction.
+ * Run with {@code -prof gc} to compare the allocation per page.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FeedQueryBenchmark {
+
+    private static final int STORED_POSTS = 2_000;
+
+    @Param({"20", "100"})
+    private int postsPerPage;
+
+    private ConfigurableApplicationContext application;
+    private PostRepository postRepository;
+    private EntityManager entityManager;
+    private TransactionTemplate readWrite;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        application = LocalApplication.start(Map.of(
+                "spring.main.web-application-type", "none",
+                "spring.kafka.listener.auto-startup", "false",
+                "post-service.cache.enabled", "false"));
+        postRepository = application.getBean(PostRepository.class);
+        entityManager = application.getBean(EntityManager.class);
+        readWrite = new TransactionTemplate(application.getBean(PlatformTransactionManager.class));
+        UUID authorId = UUID.randomUUID();
+        List<Post> posts = new ArrayList<>(STORED_POSTS);
+        for (int i = 0; i < STORED_POSTS; i++) {
+            Post post = BenchmarkFixtures.post(i);
+            post.setId(null);
+            post.setAuthorId(authorId);
+            posts.add(post);
+        }
+        postRepository.saveAll(posts);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        application.close();
+    }
+
+    @Benchmark
+    public List<Post> entities() {
+        return readWrite.execute(status -> entityManager
+                .createQuery("select p from Post p", Post.class)
+                .setMaxResults(postsPerPage)
+                .getResultList());
+    }
+
+    @Benchmark
+    public List<PostView> views() {
+        return postRepository.findViewsBy(PageRequest.of(0, postsPerPage));
+    }
+
+}
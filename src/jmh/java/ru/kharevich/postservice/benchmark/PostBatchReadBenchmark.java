@@ -0,0 +1,119 @@
+package ru.kharevich.postservice.benchmark;
+
+import com.sun.net.httpserver.HttpServer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.context.ConfigurableApplicationContext;
+import ru.kharevich.postservice.benchmark.load.LoadOptions;
+import ru.kharevich.postservice.benchmark.load.LocalApplication;
+import ru.kharevich.postservice.benchmark.load.StubImageService;
+import ru.kharevich.postservice.dto.response.PostBatchResponse;
+import ru.kharevich.postservice.dto.transferObject.PostFields;
+import ru.kharevich.postservice.model.ImageMode;
+import ru.kharevich.postservice.model.Post;
+import ru.kharevich.postservice.repository.PostRepository;
+import ru.kharevich.postservice.service.PostService;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rendering a list of {@code idsPerRequest} posts, e.g. notifications or bookmarks: {@code batch} is one
+ * {@code PostService.getByIds} call, {@code singleCalls} the former pattern of one {@code getById} per post.
+ * The service runs against H2 and {@link StubImageService} with {@value #IMAGE_LATENCY_MS} ms latency;
+ * the post cache is disabled so every call reaches both. One operation renders the whole list.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+public class PostBatchReadBenchmark {
+
+    private static final int STORED_POSTS = 500;
+
+    private static final String IMAGE_LATENCY_MS = "5";
+
+    @Param({"10", "50"})
+    private int idsPerRequest;
+
+    private HttpServer imageService;
+    private ConfigurableApplicationContext application;
+    private PostService postService;
+    private List<UUID> ids;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        imageService = StubImageService.start(0, new LoadOptions(Map.of(
+                "latency-ms", IMAGE_LATENCY_MS,
+                "image-bytes", "1024",
+                "images", "1")));
+        application = LocalApplication.start(Map.of(
+                "spring.main.web-application-type", "none",
+                "spring.kafka.listener.auto-startup", "false",
+                "post-service.cache.enabled", "false",
+                "spring.cloud.openfeign.client.config.image-client.url",
+                "http://localhost:" + imageService.getAddress().getPort() + "/api/v1/images"));
+        postService = application.getBean(PostService.class);
+        List<Post> posts = new ArrayList<>(STORED_POSTS);
+        for (int i = 0; i < STORED_POSTS; i++) {
+            Post post = BenchmarkFixtures.post(i);
+            post.setId(null);
+            posts.add(post);
+        }
+        ids = new ArrayList<>(application.getBean(PostRepository.class).saveAll(posts).stream().map(Post::getId).toList());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        application.close();
+        imageService.stop(0);
+    }
+
+    @Benchmark
+    public PostBatchResponse batch(Request request) {
+        return postService.getByIds(request.ids, ImageMode.INLINE, PostFields.ALL);
+    }
+
+    @Benchmark
+    public void singleCalls(Request request, Blackhole blackhole) {
+        for (UUID id : request.ids) {
+            blackhole.consume(postService.getById(id));
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Request {
+
+        private List<UUID> ids;
+
+        @Setup(Level.Invocation)
+        public void pick(PostBatchReadBenchmark benchmark) {
+            List<UUID> shuffled = new ArrayList<>(benchmark.ids);
+            Collections.shuffle(shuffled);
+            ids = shuffled.subList(0, benchmark.idsPerRequest);
+        }
+
+    }
+
+}
@@ -0,0 +1,86 @@
+package ru.kharevich.postservice.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.kharevich.postservice.dto.response.ImageResponse;
+import ru.kharevich.postservice.dto.response.PostResponse;
+import ru.kharevich.postservice.dto.transferObject.FileTransferEntity;
+import ru.kharevich.postservice.dto.transferObject.PostView;
+import ru.kharevich.postservice.model.ImageType;
+import ru.kharevich.postservice.util.mapper.PostImageJoiner;
+import ru.kharevich.postservice.util.mapper.PostMapper;
+import ru.kharevich.postservice.util.mapper.PostMapperImpl;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the hash join used by the service with the former per-post linear scan
+ * over the image page. Every third post has no images to exercise the missing-set path.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PostImageJoinBenchmark {
+
+    @Param({"10", "100", "1000"})
+    private int postsPerPage;
+
+    private final PostMapper postMapper = new PostMapperImpl();
+
+    private final PostImageJoiner postImageJoiner = new PostImageJoiner();
+
+    private List<PostView> posts;
+
+    private List<ImageResponse> images;
+
+    @Setup
+    public void setUp() {
+        posts = new ArrayList<>(postsPerPage);
+        images = new ArrayList<>(postsPerPage);
+        for (int i = 0; i < postsPerPage; i++) {
+            PostView post = new PostView(UUID.randomUUID(), "text " + i, "author", UUID.randomUUID(),
+                    null, null, LocalDateTime.now(), LocalDateTime.now(), null);
+            posts.add(post);
+            if (i % 3 != 0) {
+                images.add(new ImageResponse(ImageType.POST_ATTACHMENT,
+                        List.of(new FileTransferEntity(new byte[16], "image-" + i)), post.id()));
+            }
+        }
+        Collections.shuffle(images);
+    }
+
+    @Benchmark
+    public List<PostResponse> hashJoin() {
+        return postImageJoiner.join(posts, images, postMapper::toResponse);
+    }
+
+    @Benchmark
+    public List<PostResponse> linearScan() {
+        return posts.stream().map(post -> {
+            List<byte[]> files = images.stream()
+                    .filter(response -> response.parentId().equals(post.id()))
+                    .findFirst()
+                    .map(response -> response.files().stream().map(FileTransferEntity::file).toList())
+                    .orElse(List.of());
+            return postMapper.toResponse(post, files);
+        }).toList();
+    }
+
+}
@@ -0,0 +1,80 @@
+package ru.kharevich.postservice.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import ru.kharevich.postservice.dto.response.PageableResponse;
+import ru.kharevich.postservice.dto.response.PostResponse;
+import ru.kharevich.postservice.model.Post;
+import ru.kharevich.postservice.util.mapper.PageMapper;
+import ru.kharevich.postservice.util.mapper.PageMapperImpl;
+import ru.kharevich.postservice.util.mapper.PostMapper;
+import ru.kharevich.postservice.util.mapper.PostMapperImpl;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the generated mappers. {@code toResponse} copies the {@code List<byte[]>} of a post
+ * shallowly, so its cost should follow {@code imagesPerPost} and not {@code imageBytes}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PostMapperBenchmark {
+
+    @Param({"0", "4", "16"})
+    private int imagesPerPost;
+
+    @Param({"1024", "262144"})
+    private int imageBytes;
+
+    @Param({"20"})
+    private int postsPerPage;
+
+    private final PostMapper postMapper = new PostMapperImpl();
+
+    private final PageMapper pageMapper = new PageMapperImpl();
+
+    private Post post;
+
+    private List<byte[]> files;
+
+    private PageImpl<PostResponse> page;
+
+    @Setup
+    public void setUp() {
+        post = BenchmarkFixtures.post(0);
+        files = BenchmarkFixtures.files(imagesPerPost, imageBytes);
+        List<PostResponse> responses = new ArrayList<>(postsPerPage);
+        for (int i = 0; i < postsPerPage; i++) {
+            responses.add(postMapper.toResponse(BenchmarkFixtures.post(i), files));
+        }
+        page = new PageImpl<>(responses, PageRequest.of(0, postsPerPage), 10_000);
+    }
+
+    @Benchmark
+    public PostResponse postToResponse() {
+        return postMapper.toResponse(post, files);
+    }
+
+    @Benchmark
+    public PageableResponse<PostResponse> pageToResponse() {
+        return pageMapper.toResponse(page);
+    }
+
+}
@@ -0,0 +1,89 @@
+package ru.kharevich.postservice.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import ru.kharevich.postservice.dto.response.PageableResponse;
+import ru.kharevich.postservice.dto.response.PostResponse;
+import ru.kharevich.postservice.model.Post;
+import ru.kharevich.postservice.util.mapper.PostMapper;
+import ru.kharevich.postservice.util.mapper.PostMapperImpl;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson serialization of a feed page as written by the controllers. Inline pages embed every
+ * image as base64 in JSON and as byte strings in CBOR, reference pages only carry descriptors.
+ * The size of both pages in the chosen format is printed once per fork.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PostResponseSerializationBenchmark {
+
+    @Param({"0", "16384", "262144"})
+    private int imageBytes;
+
+    @Param({"2"})
+    private int imagesPerPost;
+
+    @Param({"20"})
+    private int postsPerPage;
+
+    @Param({"json", "cbor"})
+    private String format;
+
+    private final PostMapper postMapper = new PostMapperImpl();
+
+    private ObjectMapper objectMapper;
+
+    private PageableResponse<PostResponse> inlinePage;
+
+    private PageableResponse<PostResponse> referencePage;
+
+    @Setup
+    public void setUp() throws JsonProcessingException {
+        objectMapper = "cbor".equals(format)
+                ? Jackson2ObjectMapperBuilder.cbor().build()
+                : Jackson2ObjectMapperBuilder.json().build();
+        List<byte[]> files = BenchmarkFixtures.files(imagesPerPost, imageBytes);
+        List<PostResponse> inline = new ArrayList<>(postsPerPage);
+        List<PostResponse> reference = new ArrayList<>(postsPerPage);
+        for (Post post : BenchmarkFixtures.posts(postsPerPage)) {
+            inline.add(postMapper.toResponse(post, files));
+            reference.add(postMapper.toReferenceResponse(post,
+                    BenchmarkFixtures.descriptors(post.getId(), imagesPerPost, imageBytes)));
+        }
+        inlinePage = new PageableResponse<>(10_000, 500, 0, postsPerPage, inline);
+        referencePage = new PageableResponse<>(10_000, 500, 0, postsPerPage, reference);
+        System.out.printf("%s page bytes: inline=%d, reference=%d%n", format,
+                objectMapper.writeValueAsBytes(inlinePage).length, objectMapper.writeValueAsBytes(referencePage).length);
+    }
+
+    @Benchmark
+    public byte[] inlinePage() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(inlinePage);
+    }
+
+    @Benchmark
+    public byte[] referencePage() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(referencePage);
+    }
+
+}
@@ -0,0 +1,121 @@
+package ru.kharevich.postservice.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.kharevich.postservice.benchmark.load.LocalApplication;
+import ru.kharevich.postservice.dto.transferObject.PostView;
+import ru.kharevich.postservice.search.PostSearch;
+import ru.kharevich.postservice.search.PostSearchIndexer;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Search queries over a million posts. Text search needs PostgreSQL, so unlike the other database benchmarks
+ * this one runs against the database of {@code DB_URL}, {@code DB_USERNAME} and {@code DB_PASSWORD}, migrated
+ * by Liquibase. The posts are seeded and indexed once and reused by later runs.
+ * <p>
+ * Post texts are twelve words drawn from {@code w0} to {@code w9999} with a skew towards low numbers, so
+ * {@code w1} matches a large share of the posts and {@code w9000} only a few.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class PostSearchBenchmark {
+
+    private static final int STORED_POSTS = 1_000_000;
+
+    private static final String SEED_SQL = """
+            INSERT INTO post_schema.posts (id, text, author, author_id, created_at)
+            SELECT gen_random_uuid(),
+                   (SELECT string_agg('w' || floor(power(random(), 3) * 10000)::int, ' ')
+                    FROM generate_series(1, 12)
+                    WHERE i > 0),
+                   'author-' || i % 10000,
+                   md5('author-' || i % 10000)::uuid,
+                   now() - i * interval '1 second'
+            FROM generate_series(1, ?) i""";
+
+    private static final String ENQUEUE_ALL_SQL = """
+            INSERT INTO post_schema.post_search_queue (post_id, enqueued_at)
+            SELECT id, created_at
+            FROM post_schema.posts
+            ON CONFLICT (post_id) DO NOTHING""";
+
+    @Param({"w1", "w100", "w9000", "w1 w100", "\"w1 w2\""})
+    private String query;
+
+    @Param({"20"})
+    private int postsPerPage;
+
+    private ConfigurableApplicationContext application;
+    private PostSearch postSearch;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Map<String, String> env = System.getenv();
+        application = LocalApplication.start(Map.ofEntries(
+                Map.entry("spring.datasource.url", env.getOrDefault("DB_URL", "jdbc:postgresql://localhost:5435/posts")),
+                Map.entry("spring.datasource.driver-class-name", "org.postgresql.Driver"),
+                Map.entry("spring.datasource.username", env.getOrDefault("DB_USERNAME", "postgres")),
+                Map.entry("spring.datasource.password", env.getOrDefault("DB_PASSWORD", "password")),
+                Map.entry("spring.jpa.database", "postgresql"),
+                Map.entry("spring.jpa.database-platform", "org.hibernate.dialect.PostgreSQLDialect"),
+                Map.entry("spring.jpa.hibernate.ddl-auto", "none"),
+                Map.entry("spring.liquibase.enabled", "true"),
+                Map.entry("spring.sql.init.mode", "never"),
+                Map.entry("spring.main.web-application-type", "none"),
+                Map.entry("spring.kafka.listener.auto-startup", "false"),
+                Map.entry("post-service.cache.enabled", "false"),
+                Map.entry("post-service.search.enabled", "true"),
+                Map.entry("post-service.search.batch-size", "10000")));
+        postSearch = application.getBean(PostSearch.class);
+        JdbcTemplate jdbcTemplate = application.getBean(JdbcTemplate.class);
+        Long stored = jdbcTemplate.queryForObject("SELECT count(*) FROM post_schema.posts", Long.class);
+        if (stored == null || stored < STORED_POSTS) {
+            jdbcTemplate.update(SEED_SQL, STORED_POSTS - (stored == null ? 0 : stored));
+            jdbcTemplate.update(ENQUEUE_ALL_SQL);
+            jdbcTemplate.execute("ANALYZE post_schema.posts");
+        }
+        application.getBean(PostSearchIndexer.class).index();
+        jdbcTemplate.execute("ANALYZE post_schema.post_search_documents");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        application.close();
+    }
+
+    @Benchmark
+    public List<PostView> firstPage() {
+        return postSearch.find(query, 0, postsPerPage, true);
+    }
+
+    @Benchmark
+    public List<PostView> firstPageWithoutText() {
+        return postSearch.find(query, 0, postsPerPage, false);
+    }
+
+    @Benchmark
+    public long count() {
+        return postSearch.count(query);
+    }
+
+}
@@ -0,0 +1,140 @@
+package ru.kharevich.postservice.benchmark;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.dao.DataAccessException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.kharevich.postservice.benchmark.load.LocalApplication;
+import ru.kharevich.postservice.dto.request.PostRequest;
+import ru.kharevich.postservice.model.Post;
+import ru.kharevich.postservice.repository.PostRepository;
+import ru.kharevich.postservice.service.PostService;
+import ru.kharevich.postservice.util.mapper.PostMapper;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Concurrent edits of a small set of posts against H2 in PostgreSQL mode. {@code optimistic} is
+ * {@code PostService.update}: READ COMMITTED, version check and bounded retry. {@code serializable}
+ * replays the previous write path, the same load-and-modify in a SERIALIZABLE transaction without retry.
+ * Both report committed and failed writes per second next to the raw call rate; the fewer posts,
+ * the more the writers collide. H2 reports conflicts differently from PostgreSQL, so the numbers show
+ * the trend, not the production ratio.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(8)
+public class PostWriteContentionBenchmark {
+
+    private static final UUID AUTHOR_ID = UUID.randomUUID();
+
+    @Param({"4", "64"})
+    private int posts;
+
+    private ConfigurableApplicationContext application;
+    private PostService postService;
+    private PostRepository postRepository;
+    private PostMapper postMapper;
+    private TransactionTemplate serializable;
+    private List<UUID> ids;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        application = LocalApplication.start(Map.of(
+                "spring.main.web-application-type", "none",
+                "spring.kafka.listener.auto-startup", "false",
+                "post-service.cache.enabled", "false"));
+        postService = application.getBean(PostService.class);
+        postRepository = application.getBean(PostRepository.class);
+        postMapper = application.getBean(PostMapper.class);
+        serializable = new TransactionTemplate(application.getBean(PlatformTransactionManager.class));
+        serializable.setIsolationLevel(TransactionDefinition.ISOLATION_SERIALIZABLE);
+        ids = new ArrayList<>(posts);
+        for (int i = 0; i < posts; i++) {
+            ids.add(postRepository.save(Post.builder()
+                    .text("post " + i)
+                    .author("author")
+                    .authorId(AUTHOR_ID)
+                    .build()).getId());
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        application.close();
+    }
+
+    @Benchmark
+    public void optimistic(Outcomes outcomes) {
+        try {
+            postService.update(request(), pick());
+            outcomes.committed++;
+        } catch (DataAccessException e) {
+            outcomes.failed++;
+        }
+    }
+
+    @Benchmark
+    public void serializable(Outcomes outcomes) {
+        PostRequest request = request();
+        UUID id = pick();
+        try {
+            serializable.executeWithoutResult(status ->
+                    postMapper.updateEntityByRequest(request, postRepository.findById(id).orElseThrow()));
+            outcomes.committed++;
+        } catch (DataAccessException | TransactionException e) {
+            outcomes.failed++;
+        }
+    }
+
+    private UUID pick() {
+        return ids.get(ThreadLocalRandom.current().nextInt(ids.size()));
+    }
+
+    private PostRequest request() {
+        return new PostRequest("edited " + ThreadLocalRandom.current().nextLong(), "author", AUTHOR_ID);
+    }
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Outcomes {
+
+        public long committed;
+
+        public long failed;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            committed = 0;
+            failed = 0;
+        }
+
+    }
+
+}
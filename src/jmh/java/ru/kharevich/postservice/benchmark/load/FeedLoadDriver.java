@@ -0,0 +1,135 @@
+package ru.kharevich.postservice.benchmark.load;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Closed-loop load driver for {@code GET /api/v1/posts/feed}. Every client sends its next request as
+ * soon as the previous one completed; latencies of the measurement window are reported as throughput
+ * and percentiles, and written to {@code target/load-<label>.json}.
+ * <p>
+ * To compare execution modes, start the stub image service, run the application once with
+ * {@code VIRTUAL_THREADS_ENABLED=false} and once with {@code true} (adding
+ * {@code -Djdk.tracePinnedThreads=short} to report pinning), and run the driver against each:
+ * {@code mvn -Pbenchmark test-compile exec:exec@feed-load -Dload.args="--label virtual --concurrency 400"}
+ * <p>
+ * No comparison has been recorded yet: the throughput and p99 of the two modes are still outstanding and
+ * belong in the change that enables virtual threads by default, measured against PostgreSQL rather than
+ * the H2 harness.
+ * <p>
+ * {@code --accept} and {@code --gzip true} set the request's {@code Accept} and {@code Accept-Encoding};
+ * with {@code --first-byte true} the recorded latency ends at the first body byte instead of the last, e.g.
+ * {@code --accept application/x-ndjson --first-byte true} for the time to the first streamed post.
+ */
+public final class FeedLoadDriver {
+
+    private FeedLoadDriver() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadOptions options = LoadOptions.parse(args);
+        URI uri = URI.create(options.value("url", "http://localhost:8030/api/v1/posts/feed?size=20"));
+        int concurrency = options.intValue("concurrency", 200);
+        Duration warmup = options.durationValue("warmup", Duration.ofSeconds(10));
+        Duration duration = options.durationValue("duration", Duration.ofSeconds(30));
+        String label = options.value("label", "run");
+
+        HttpRequest.Builder request = HttpRequest.newBuilder(uri).timeout(Duration.ofSeconds(30)).GET();
+        String accept = options.value("accept", null);
+        if (accept != null) {
+            request.header("Accept", accept);
+        }
+        if (Boolean.parseBoolean(options.value("gzip", "false"))) {
+            request.header("Accept-Encoding", "gzip");
+        }
+        boolean firstByte = Boolean.parseBoolean(options.value("first-byte", "false"));
+
+        LoadResult result = run(request.build(), firstByte, concurrency, warmup, duration);
+        String json = result.toJson(label);
+        System.out.println(json);
+        Path output = Path.of("target", "load-" + label + ".json");
+        Files.createDirectories(output.getParent());
+        Files.writeString(output, json);
+    }
+
+    public static LoadResult run(HttpRequest request,
+                                 boolean firstByte,
+                                 int concurrency,
+                                 Duration warmup,
+                                 Duration duration) throws Exception {
+        HttpClient client = HttpClient.newBuilder()
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        long measureFrom = System.nanoTime() + warmup.toNanos();
+        long measureUntil = measureFrom + duration.toNanos();
+
+        List<Future<LatencySamples>> clients = new ArrayList<>(concurrency);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < concurrency; i++) {
+                clients.add(executor.submit(() -> drive(client, request, firstByte, measureFrom, measureUntil)));
+            }
+            List<LatencySamples> samples = new ArrayList<>(concurrency);
+            for (Future<LatencySamples> future : clients) {
+                samples.add(future.get());
+            }
+            return LatencySamples.merge(samples, duration);
+        }
+    }
+
+    private static LatencySamples drive(HttpClient client,
+                                        HttpRequest request,
+                                        boolean firstByte,
+                                        long measureFrom,
+                                        long measureUntil) {
+        LatencySamples samples = new LatencySamples();
+        while (true) {
+            long start = System.nanoTime();
+            if (start >= measureUntil) {
+                return samples;
+            }
+            boolean ok;
+            long end;
+            try {
+                HttpResponse<InputStream> response = client.send(request, HttpResponse.BodyHandlers.ofInputStream());
+                try (InputStream body = response.body()) {
+                    body.read();
+                    end = System.nanoTime();
+                    body.transferTo(OutputStream.nullOutputStream());
+                }
+                ok = response.statusCode() < 400;
+                if (!firstByte) {
+                    end = System.nanoTime();
+                }
+            } catch (IOException e) {
+                ok = false;
+                end = System.nanoTime();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return samples;
+            }
+            if (start < measureFrom || end > measureUntil) {
+                continue;
+            }
+            if (ok) {
+                samples.record(end - start);
+            } else {
+                samples.error();
+            }
+        }
+    }
+
+}
@@ -0,0 +1,45 @@
+package ru.kharevich.postservice.benchmark.load;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * Growable array of latencies in nanoseconds, confined to one load client; clients' samples are
+ * merged once the run is over.
+ */
+final class LatencySamples {
+
+    private long[] latencies = new long[1024];
+    private int count;
+    private long errors;
+
+    void record(long nanos) {
+        if (count == latencies.length) {
+            latencies = Arrays.copyOf(latencies, count * 2);
+        }
+        latencies[count++] = nanos;
+    }
+
+    void error() {
+        errors++;
+    }
+
+    static LoadResult merge(Collection<LatencySamples> samples, Duration duration) {
+        int total = 0;
+        long errors = 0;
+        for (LatencySamples sample : samples) {
+            total += sample.count;
+            errors += sample.errors;
+        }
+        long[] merged = new long[total];
+        int offset = 0;
+        for (LatencySamples sample : samples) {
+            System.arraycopy(sample.latencies, 0, merged, offset, sample.count);
+            offset += sample.count;
+        }
+        Arrays.sort(merged);
+        return new LoadResult(merged, errors, duration);
+    }
+
+}
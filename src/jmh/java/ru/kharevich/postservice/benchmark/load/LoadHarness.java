@@ -0,0 +1,323 @@
+package ru.kharevich.postservice.benchmark.load;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpServer;
+import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+import org.springframework.kafka.test.EmbeddedKafkaKraftBroker;
+import ru.kharevich.postservice.dto.response.ActivityResponse;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Self-contained capacity test: boots the service against H2 in PostgreSQL mode, an embedded Kafka
+ * broker and {@link StubImageService}, seeds posts through the API and drives a weighted mix of
+ * feed reads, author timelines, creates and activity bursts from closed-loop clients. Throughput
+ * and latency percentiles are reported per operation and written to {@code target/load-<label>.json}, the
+ * service's Prometheus scrape after the run to {@code target/load-<label>-metrics.txt}.
+ * <p>
+ * {@code mvn -Pbenchmark test-compile exec:exec@load-harness -Dload.args="--mix feed=60,author=25,create=5,activity=10
+ * --image-latency-ms 20 --image-error-rate 0.01 --virtual-threads true"}
+ * <p>
+ * Options: {@code concurrency, warmup, duration (seconds), mix, seed-posts, authors, image-mode,
+ * image-latency-ms, image-bytes, images, image-error-rate, activity-burst, partitions, consumers,
+ * virtual-threads, activity-mode, outbox, fields (feed fieldset), label}.
+ */
+public final class LoadHarness {
+
+    private static final String TOPIC = "activity-topic";
+    private static final String BOUNDARY = "load-harness-boundary";
+
+    private final LoadOptions options;
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final List<UUID> postIds = new ArrayList<>();
+    private final byte[] attachment;
+    private final AtomicLong activitySequence = new AtomicLong();
+    private URI postsUri;
+    private KafkaProducer<String, Object> producer;
+
+    private LoadHarness(LoadOptions options) {
+        this.options = options;
+        this.httpClient = HttpClient.newBuilder()
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        this.attachment = new byte[options.intValue("image-bytes", 16 * 1024)];
+        ThreadLocalRandom.current().nextBytes(attachment);
+    }
+
+    public static void main(String[] args) throws Exception {
+        new LoadHarness(LoadOptions.parse(args)).run();
+        System.exit(0);
+    }
+
+    private void run() throws Exception {
+        HttpServer imageService = StubImageService.start(0, new LoadOptions(Map.of(
+                "latency-ms", options.value("image-latency-ms", "20"),
+                "image-bytes", options.value("image-bytes", String.valueOf(16 * 1024)),
+                "images", options.value("images", "2"),
+                "error-rate", options.value("image-error-rate", "0"))));
+        EmbeddedKafkaKraftBroker kafka = new EmbeddedKafkaKraftBroker(1, options.intValue("partitions", 4), TOPIC);
+        kafka.afterPropertiesSet();
+        try (ConfigurableApplicationContext application = startApplication(
+                imageService.getAddress().getPort(), kafka.getBrokersAsString())) {
+            postsUri = URI.create("http://localhost:"
+                    + application.getEnvironment().getProperty("local.server.port") + "/api/v1/posts");
+            producer = createProducer(kafka.getBrokersAsString());
+            seed(options.intValue("seed-posts", 200));
+            report(drive());
+            scrapeMetrics(application.getEnvironment().getProperty("local.server.port"));
+            producer.close();
+        } finally {
+            kafka.destroy();
+            imageService.stop(0);
+        }
+    }
+
+    private ConfigurableApplicationContext startApplication(int imageServicePort, String brokers) {
+        return LocalApplication.start(Map.of(
+                "server.port", "0",
+                "spring.kafka.bootstrap-servers", brokers,
+                "spring.kafka.consumer.bootstrap-servers", brokers,
+                "spring.cloud.openfeign.client.config.image-client.url",
+                "http://localhost:" + imageServicePort + "/api/v1/images",
+                "spring.threads.virtual.enabled", options.value("virtual-threads", "false"),
+                "post-service.kafka.activity.mode", options.value("activity-mode", "single"),
+                "post-service.outbox.enabled", options.value("outbox", "false"),
+                "spring.kafka.listener.concurrency", options.value("consumers", "4")));
+    }
+
+    private KafkaProducer<String, Object> createProducer(String brokers) {
+        return new KafkaProducer<>(Map.of(
+                ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, brokers,
+                ProducerConfig.LINGER_MS_CONFIG, 5,
+                JsonSerializer.TYPE_MAPPINGS, "activityResponse:" + ActivityResponse.class.getName()),
+                new StringSerializer(), new JsonSerializer<>());
+    }
+
+    private void seed(int posts) throws Exception {
+        for (int i = 0; i < posts; i++) {
+            HttpResponse<byte[]> response = httpClient.send(createRequest(), HttpResponse.BodyHandlers.ofByteArray());
+            if (response.statusCode() >= 400) {
+                throw new IllegalStateException("seeding failed with status " + response.statusCode()
+                        + ": " + new String(response.body(), StandardCharsets.UTF_8));
+            }
+            postIds.add(UUID.fromString(objectMapper.readTree(response.body()).get("id").asText()));
+        }
+    }
+
+    private Map<Operation, LoadResult> drive() throws Exception {
+        int concurrency = options.intValue("concurrency", 64);
+        Duration warmup = options.durationValue("warmup", Duration.ofSeconds(10));
+        Duration duration = options.durationValue("duration", Duration.ofSeconds(30));
+        Map<Operation, Integer> mix = parseMix(options.value("mix", "feed=60,author=25,create=5,activity=10"));
+        long measureFrom = System.nanoTime() + warmup.toNanos();
+        long measureUntil = measureFrom + duration.toNanos();
+
+        List<Future<Map<Operation, LatencySamples>>> clients = new ArrayList<>(concurrency);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < concurrency; i++) {
+                clients.add(executor.submit(() -> client(mix, measureFrom, measureUntil)));
+            }
+            Map<Operation, List<LatencySamples>> samples = new EnumMap<>(Operation.class);
+            for (Future<Map<Operation, LatencySamples>> client : clients) {
+                client.get().forEach((operation, sample) ->
+                        samples.computeIfAbsent(operation, k -> new ArrayList<>()).add(sample));
+            }
+            Map<Operation, LoadResult> results = new EnumMap<>(Operation.class);
+            samples.forEach((operation, sample) -> results.put(operation, LatencySamples.merge(sample, duration)));
+            return results;
+        }
+    }
+
+    private Map<Operation, LatencySamples> client(Map<Operation, Integer> mix, long measureFrom, long measureUntil) {
+        Map<Operation, LatencySamples> samples = new EnumMap<>(Operation.class);
+        int totalWeight = mix.values().stream().mapToInt(Integer::intValue).sum();
+        while (true) {
+            Operation operation = pick(mix, ThreadLocalRandom.current().nextInt(totalWeight));
+            long start = System.nanoTime();
+            if (start >= measureUntil) {
+                return samples;
+            }
+            boolean ok = execute(operation);
+            long end = System.nanoTime();
+            if (start < measureFrom || end > measureUntil) {
+                continue;
+            }
+            LatencySamples sample = samples.computeIfAbsent(operation, k -> new LatencySamples());
+            if (ok) {
+                sample.record(end - start);
+            } else {
+                sample.error();
+            }
+        }
+    }
+
+    private boolean execute(Operation operation) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        String imageMode = options.value("image-mode", "inline");
+        String fields = options.value("fields", "");
+        try {
+            return switch (operation) {
+                case FEED -> get("feed?size=20&page_number=" + random.nextInt(5) + "&image_mode=" + imageMode
+                        + (fields.isEmpty() ? "" : "&fields=" + fields));
+                case AUTHOR -> get("author/" + author(random.nextInt(authors())) + "/cursor?size=20&image_mode=" + imageMode);
+                case CREATE -> httpClient.send(createRequest(), HttpResponse.BodyHandlers.discarding()).statusCode() < 400;
+                case ACTIVITY -> activityBurst(options.intValue("activity-burst", 50));
+            };
+        } catch (IOException e) {
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private boolean get(String path) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(postsUri + "/" + path)).timeout(Duration.ofSeconds(30)).GET().build();
+        return httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() < 400;
+    }
+
+    /**
+     * Sends likes and comments for random seeded posts and waits until the broker acknowledged them.
+     */
+    private boolean activityBurst(int records) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        List<Future<?>> sends = new ArrayList<>(records);
+        for (int i = 0; i < records; i++) {
+            UUID postId = postIds.get(random.nextInt(postIds.size()));
+            sends.add(producer.send(new ProducerRecord<>(TOPIC, postId.toString(),
+                    new ActivityResponse(postId, random.nextInt(1_000), random.nextInt(100),
+                            activitySequence.incrementAndGet()))));
+        }
+        try {
+            for (Future<?> send : sends) {
+                send.get();
+            }
+            return true;
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    private HttpRequest createRequest() throws IOException {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        String body = objectMapper.writeValueAsString(Map.of(
+                "text", "load harness post " + random.nextInt(),
+                "author", author(random.nextInt(authors())),
+                "authorId", UUID.randomUUID().toString()));
+        ByteArrayOutputStream multipart = new ByteArrayOutputStream(attachment.length + 1024);
+        multipart.write(("--" + BOUNDARY + "\r\n"
+                + "Content-Disposition: form-data; name=\"body\"\r\n"
+                + "Content-Type: application/json\r\n\r\n"
+                + body + "\r\n"
+                + "--" + BOUNDARY + "\r\n"
+                + "Content-Disposition: form-data; name=\"files\"; filename=\"image.png\"\r\n"
+                + "Content-Type: image/png\r\n\r\n").getBytes(StandardCharsets.UTF_8));
+        multipart.write(attachment);
+        multipart.write(("\r\n--" + BOUNDARY + "--\r\n").getBytes(StandardCharsets.UTF_8));
+        return HttpRequest.newBuilder(postsUri)
+                .timeout(Duration.ofSeconds(30))
+                .header("Content-Type", "multipart/form-data; boundary=" + BOUNDARY)
+                .POST(HttpRequest.BodyPublishers.ofByteArray(multipart.toByteArray()))
+                .build();
+    }
+
+    private void report(Map<Operation, LoadResult> results) throws IOException {
+        String label = options.value("label", "harness");
+        results.forEach((operation, result) -> System.out.println(result.toLine(operation.label())));
+        String json = results.entrySet().stream()
+                .map(entry -> entry.getValue().toJson(entry.getKey().label()))
+                .collect(Collectors.joining(",", "{\"label\":\"" + label + "\",\"operations\":[", "]}"));
+        Path output = Path.of("target", "load-" + label + ".json");
+        Files.createDirectories(output.getParent());
+        Files.writeString(output, json);
+    }
+
+    /**
+     * Keeps the service-side view of the run next to the client-side numbers.
+     */
+    private void scrapeMetrics(String port) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/actuator/prometheus"))
+                .GET()
+                .build();
+        HttpResponse<Path> response = httpClient.send(request, HttpResponse.BodyHandlers.ofFile(
+                Path.of("target", "load-" + options.value("label", "harness") + "-metrics.txt")));
+        if (response.statusCode() >= 400) {
+            System.err.println("metrics scrape failed with status " + response.statusCode());
+        }
+    }
+
+    private int authors() {
+        return options.intValue("authors", 20);
+    }
+
+    private static String author(int index) {
+        return "author-" + index;
+    }
+
+    private static Map<Operation, Integer> parseMix(String mix) {
+        Map<Operation, Integer> weights = new EnumMap<>(Operation.class);
+        for (String entry : mix.split(",")) {
+            String[] parts = entry.split("=");
+            int weight = Integer.parseInt(parts[1].trim());
+            if (weight > 0) {
+                weights.put(Operation.valueOf(parts[0].trim().toUpperCase()), weight);
+            }
+        }
+        return weights;
+    }
+
+    private static Operation pick(Map<Operation, Integer> mix, int roll) {
+        for (Map.Entry<Operation, Integer> entry : mix.entrySet()) {
+            roll -= entry.getValue();
+            if (roll < 0) {
+                return entry.getKey();
+            }
+        }
+        throw new IllegalStateException("empty workload mix");
+    }
+
+    private enum Operation {
+        FEED("feed"),
+        AUTHOR("author-timeline"),
+        CREATE("create"),
+        ACTIVITY("activity-burst");
+
+        private final String label;
+
+        Operation(String label) {
+            this.label = label;
+        }
+
+        String label() {
+            return label;
+        }
+    }
+
+}
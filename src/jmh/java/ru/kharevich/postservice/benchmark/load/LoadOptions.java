@@ -0,0 +1,37 @@
+package ru.kharevich.postservice.benchmark.load;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * {@code --name value} command line options of the load tools.
+ */
+public record LoadOptions(Map<String, String> values) {
+
+    public static LoadOptions parse(String[] args) {
+        Map<String, String> values = new HashMap<>();
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            if (!args[i].startsWith("--")) {
+                throw new IllegalArgumentException("expected --option but got " + args[i]);
+            }
+            values.put(args[i].substring(2), args[i + 1]);
+        }
+        return new LoadOptions(values);
+    }
+
+    public String value(String name, String defaultValue) {
+        return values.getOrDefault(name, defaultValue);
+    }
+
+    public int intValue(String name, int defaultValue) {
+        String value = values.get(name);
+        return value == null ? defaultValue : Integer.parseInt(value);
+    }
+
+    public Duration durationValue(String name, Duration defaultValue) {
+        String value = values.get(name);
+        return value == null ? defaultValue : Duration.ofSeconds(Long.parseLong(value.replace("s", "")));
+    }
+
+}
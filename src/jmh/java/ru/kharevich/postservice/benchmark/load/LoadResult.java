@@ -0,0 +1,37 @@
+package ru.kharevich.postservice.benchmark.load;
+
+import java.time.Duration;
+import java.util.Locale;
+
+/**
+ * Sorted latencies of one measurement window, reported as throughput and percentiles.
+ */
+public record LoadResult(long[] sortedLatencies, long errors, Duration duration) {
+
+    public double throughput() {
+        return sortedLatencies.length / (duration.toNanos() / 1e9);
+    }
+
+    public double percentileMillis(double percentile) {
+        if (sortedLatencies.length == 0) {
+            return Double.NaN;
+        }
+        int index = (int) Math.ceil(percentile / 100 * sortedLatencies.length) - 1;
+        return sortedLatencies[Math.max(0, index)] / 1e6;
+    }
+
+    public String toJson(String label) {
+        return String.format(Locale.ROOT,
+                "{\"label\":\"%s\",\"requests\":%d,\"errors\":%d,\"throughput\":%.1f,"
+                        + "\"p50Ms\":%.2f,\"p90Ms\":%.2f,\"p99Ms\":%.2f,\"maxMs\":%.2f}",
+                label, sortedLatencies.length, errors, throughput(),
+                percentileMillis(50), percentileMillis(90), percentileMillis(99), percentileMillis(100));
+    }
+
+    public String toLine(String label) {
+        return String.format(Locale.ROOT, "%-16s %8d req %6d err %9.1f req/s  p50 %8.2f  p90 %8.2f  p99 %8.2f  max %8.2f ms",
+                label, sortedLatencies.length, errors, throughput(),
+                percentileMillis(50), percentileMillis(90), percentileMillis(99), percentileMillis(100));
+    }
+
+}
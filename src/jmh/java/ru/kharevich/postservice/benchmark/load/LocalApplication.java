@@ -0,0 +1,57 @@
+package ru.kharevich.postservice.benchmark.load;
+
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import ru.kharevich.postservice.PostServiceApplication;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Boots the service against an in-memory H2 database in PostgreSQL mode. Liquibase is switched off
+ * and Hibernate creates the schema, so no external database is needed. Tables without an entity are
+ * created by their changelog scripts once Hibernate is done. Search needs PostgreSQL and is switched off.
+ * PostgreSQL's advisory locks are stood in for by {@link #advisoryXactLock(long)}, which does not lock.
+ */
+public final class LocalApplication {
+
+    private static final Map<String, String> DEFAULTS = Map.ofEntries(
+            Map.entry("spring.datasource.url", "jdbc:h2:mem:posts;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;"
+                    + "DEFAULT_NULL_ORDERING=HIGH;INIT=CREATE SCHEMA IF NOT EXISTS post_schema\\;"
+                    + "CREATE ALIAS IF NOT EXISTS pg_advisory_xact_lock FOR '"
+                    + LocalApplication.class.getName() + ".advisoryXactLock'"),
+            Map.entry("spring.datasource.driver-class-name", "org.h2.Driver"),
+            Map.entry("spring.datasource.username", "sa"),
+            Map.entry("spring.datasource.password", ""),
+            Map.entry("spring.jpa.database", "h2"),
+            Map.entry("spring.jpa.database-platform", "org.hibernate.dialect.H2Dialect"),
+            Map.entry("spring.jpa.defer-datasource-initialization", "true"),
+            Map.entry("spring.liquibase.enabled", "false"),
+            Map.entry("spring.sql.init.mode", "always"),
+            Map.entry("spring.sql.init.schema-locations",
+                    "classpath:db/changelog/v1/scripts/v1_create_author_timelines.sql"),
+            Map.entry("post-service.search.enabled", "false"),
+            Map.entry("logging.level.root", "WARN"));
+
+    private LocalApplication() {
+    }
+
+    /**
+     * Called by H2 in place of {@code pg_advisory_xact_lock}.
+     */
+    public static void advisoryXactLock(long key) {
+    }
+
+    /**
+     * Properties are passed as command line arguments, so they take precedence over the profile configuration.
+     */
+    public static ConfigurableApplicationContext start(Map<String, String> properties) {
+        Map<String, String> merged = new LinkedHashMap<>(DEFAULTS);
+        merged.putAll(properties);
+        return new SpringApplicationBuilder(PostServiceApplication.class)
+                .run(merged.entrySet().stream()
+                        .map(property -> "--" + property.getKey() + "=" + property.getValue())
+                        .toArray(String[]::new));
+    }
+
+}
@@ -0,0 +1,139 @@
+package ru.kharevich.postservice.benchmark.load;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import ru.kharevich.postservice.dto.response.ImageResponse;
+import ru.kharevich.postservice.dto.response.PageableResponse;
+import ru.kharevich.postservice.dto.transferObject.FileTransferEntity;
+import ru.kharevich.postservice.model.ImageType;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Stand-in for the image service that answers the two read endpoints used by {@code ImageClient}
+ * with a fixed latency and synthetic payloads. Uploads and deletes are acknowledged without a body.
+ * With {@code --error-rate} that share of requests fails with a 500.
+ * <p>
+ * {@code mvn -Pbenchmark test-compile exec:exec@stub-image-service -Dload.args="--latency-ms 20"}
+ */
+public final class StubImageService {
+
+    private static final String BASE_PATH = "/api/v1/images";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final LoadOptions options;
+    private final byte[] image;
+    private final double errorRate;
+
+    private StubImageService(LoadOptions options) {
+        this.options = options;
+        this.image = new byte[options.intValue("image-bytes", 16 * 1024)];
+        ThreadLocalRandom.current().nextBytes(image);
+        this.errorRate = Double.parseDouble(options.value("error-rate", "0"));
+    }
+
+    public static void main(String[] args) throws IOException {
+        LoadOptions options = LoadOptions.parse(args);
+        int port = options.intValue("port", 8010);
+        HttpServer server = start(port, options);
+        System.out.printf("stub image service listening on http://localhost:%d%s (latency %d ms, %d images of %d bytes)%n",
+                server.getAddress().getPort(), BASE_PATH, options.intValue("latency-ms", 20),
+                options.intValue("images", 2), options.intValue("image-bytes", 16 * 1024));
+    }
+
+    public static HttpServer start(int port, LoadOptions options) throws IOException {
+        StubImageService service = new StubImageService(options);
+        HttpServer server = HttpServer.create(new InetSocketAddress(port), 1024);
+        server.createContext(BASE_PATH, service::handle);
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        server.start();
+        return server;
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            exchange.getRequestBody().transferTo(OutputStream.nullOutputStream());
+            sleep(options.intValue("latency-ms", 20));
+            if (ThreadLocalRandom.current().nextDouble() < errorRate) {
+                exchange.sendResponseHeaders(500, -1);
+                return;
+            }
+            if (!"GET".equals(exchange.getRequestMethod())) {
+                exchange.sendResponseHeaders(200, -1);
+                return;
+            }
+            Map<String, List<String>> query = query(exchange.getRequestURI().getRawQuery());
+            String path = exchange.getRequestURI().getPath();
+            Object body;
+            if (path.endsWith("/parent/many")) {
+                List<ImageResponse> content = query.getOrDefault("ids", List.of()).stream()
+                        .map(id -> images(UUID.fromString(id)))
+                        .toList();
+                body = new PageableResponse<>(content.size(), 1, 0, content.size(), content);
+            } else if (path.endsWith("/parent")) {
+                body = images(UUID.fromString(query.get("id").getFirst()));
+            } else {
+                exchange.sendResponseHeaders(404, -1);
+                return;
+            }
+            byte[] json = objectMapper.writeValueAsBytes(body);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, json.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(json);
+            }
+        }
+    }
+
+    private ImageResponse images(UUID parentId) {
+        int count = options.intValue("images", 2);
+        List<FileTransferEntity> files = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            files.add(new FileTransferEntity(image, "image-" + i + ".png"));
+        }
+        return new ImageResponse(ImageType.POST_ATTACHMENT, files, parentId);
+    }
+
+    private static Map<String, List<String>> query(String rawQuery) {
+        Map<String, List<String>> params = new HashMap<>();
+        if (rawQuery == null) {
+            return params;
+        }
+        for (String pair : rawQuery.split("&")) {
+            int separator = pair.indexOf('=');
+            if (separator < 0) {
+                continue;
+            }
+            String name = URLDecoder.decode(pair.substring(0, separator), StandardCharsets.UTF_8);
+            String value = URLDecoder.decode(pair.substring(separator + 1), StandardCharsets.UTF_8);
+            for (String item : value.split(",")) {
+                params.computeIfAbsent(name, k -> new ArrayList<>()).add(item);
+            }
+        }
+        return params;
+    }
+
+    private static void sleep(int millis) {
+        if (millis <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+}
@@ -0,0 +1,151 @@
+package ru.kharevich.postservice.activity;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.stereotype.Component;
+import ru.kharevich.postservice.dto.response.ActivityResponse;
+import ru.kharevich.postservice.dto.response.PostResponse;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Activity counters received but not written to the database yet, together with the acknowledgments of the
+ * records they came from. Events carry absolute counters, so each post keeps only its newest event;
+ * consumer threads merge into a concurrent map and only contend on the same post.
+ * <p>
+ * {@link #drain()} hands everything buffered so far to the writer. Drained counters stay visible to
+ * {@link #overlay(PostResponse)} until the writer reports them as {@link #written() written}; on failure
+ * they are {@link #restore(Drain) restored}, so readers never see counters go back while a write is in flight.
+ * The buffer stays empty unless the activity consumer runs in buffered mode.
+ */
+@Component
+public class ActivityBuffer {
+
+    private final ReadWriteLock drainLock = new ReentrantReadWriteLock();
+    private volatile Map<UUID, ActivityResponse> pending = new ConcurrentHashMap<>();
+    private volatile Queue<Acknowledgment> acknowledgments = new ConcurrentLinkedQueue<>();
+    private volatile Map<UUID, ActivityResponse> inFlight = Map.of();
+    private final AtomicLong changes = new AtomicLong();
+
+    public ActivityBuffer(MeterRegistry meterRegistry) {
+        Gauge.builder("activity.buffer.size", this, ActivityBuffer::size)
+                .description("Posts with buffered activity counters")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Buffers the events of a batch; the acknowledgment is released only once they are written.
+     */
+    public void add(Collection<ActivityResponse> activities, Acknowledgment acknowledgment) {
+        drainLock.readLock().lock();
+        try {
+            for (ActivityResponse activity : activities) {
+                if (activity != null && activity.postId() != null) {
+                    pending.merge(activity.postId(), activity, ActivityResponse::newer);
+                }
+            }
+            acknowledgments.add(acknowledgment);
+            changes.incrementAndGet();
+        } finally {
+            drainLock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        return pending.size();
+    }
+
+    public Drain drain() {
+        drainLock.writeLock().lock();
+        try {
+            Drain drain = new Drain(pending, new ArrayList<>(acknowledgments));
+            inFlight = pending;
+            pending = new ConcurrentHashMap<>();
+            acknowledgments = new ConcurrentLinkedQueue<>();
+            return drain;
+        } finally {
+            drainLock.writeLock().unlock();
+        }
+    }
+
+    public void written() {
+        inFlight = Map.of();
+    }
+
+    /**
+     * Puts a drain that could not be written back in front of everything buffered since.
+     */
+    public void restore(Drain drain) {
+        drainLock.writeLock().lock();
+        try {
+            drain.activities().forEach((postId, activity) -> pending.merge(postId, activity, ActivityResponse::newer));
+            Queue<Acknowledgment> restored = new ConcurrentLinkedQueue<>(drain.acknowledgments());
+            restored.addAll(acknowledgments);
+            acknowledgments = restored;
+            inFlight = Map.of();
+            changes.incrementAndGet();
+        } finally {
+            drainLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Zero when nothing is buffered or being written, otherwise a value that changes with every buffered batch.
+     * Responses {@link #overlay(PostResponse) overlaid} with different buffered counters get different stamps.
+     */
+    public long stamp() {
+        return pending.isEmpty() && inFlight.isEmpty() ? 0 : changes.get();
+    }
+
+    /**
+     * Replaces the counters of a post read from the database with buffered ones, if there are any.
+     */
+    public PostResponse overlay(PostResponse post) {
+        if (post == null || (pending.isEmpty() && inFlight.isEmpty())) {
+            return post;
+        }
+        ActivityResponse activity = pending.get(post.id());
+        if (activity == null) {
+            activity = inFlight.get(post.id());
+        }
+        if (activity == null) {
+            return post;
+        }
+        return new PostResponse(post.id(), post.text(), post.author(), post.authorId(),
+                activity.numberOfLikes() == null ? post.numberOfLikes() : activity.numberOfLikes(),
+                activity.numberOfComments() == null ? post.numberOfComments() : activity.numberOfComments(),
+                post.createdAt(), post.updatedAt(), post.attachmentStatus(), post.files(), post.images(),
+                post.imagesUnavailable());
+    }
+
+    public List<PostResponse> overlay(List<PostResponse> posts) {
+        if (pending.isEmpty() && inFlight.isEmpty()) {
+            return posts;
+        }
+        return posts.stream().map(this::overlay).toList();
+    }
+
+    /**
+     * @param activities Newest buffered event per post
+     * @param acknowledgments Acknowledgments of all records the events were taken from, oldest first
+     */
+    public record Drain(Map<UUID, ActivityResponse> activities, List<Acknowledgment> acknowledgments) {
+
+        public boolean isEmpty() {
+            return activities.isEmpty() && acknowledgments.isEmpty();
+        }
+
+    }
+
+}
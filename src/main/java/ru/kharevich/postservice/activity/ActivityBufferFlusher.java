@@ -0,0 +1,91 @@
+package ru.kharevich.postservice.activity;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import ru.kharevich.postservice.config.properties.ActivityConsumerProperties;
+import ru.kharevich.postservice.service.PostService;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Writes the {@link ActivityBuffer} to the database every {@code flushInterval}, or as soon as it holds
+ * {@code flushThreshold} posts, in one batched statement. The Kafka offsets of the buffered records are
+ * acknowledged only after the write committed; after a crash the records are redelivered and, being
+ * versioned, applied again without moving counters backwards.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "post-service.kafka.activity.mode", havingValue = "buffered")
+public class ActivityBufferFlusher implements DisposableBean {
+
+    private final ActivityBuffer activityBuffer;
+    private final PostService postService;
+    private final ActivityConsumerProperties properties;
+    private final Timer flushTimer;
+    private final Counter flushFailures;
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    public ActivityBufferFlusher(ActivityBuffer activityBuffer,
+                                 PostService postService,
+                                 ActivityConsumerProperties properties,
+                                 MeterRegistry meterRegistry) {
+        this.activityBuffer = activityBuffer;
+        this.postService = postService;
+        this.properties = properties;
+        this.flushTimer = Timer.builder("activity.buffer.flush")
+                .description("Time spent writing the buffered activity counters")
+                .register(meterRegistry);
+        this.flushFailures = Counter.builder("activity.buffer.flush.failures")
+                .description("Flushes that failed and were kept for the next attempt")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${post-service.kafka.activity.flush-interval:1s}")
+    public void flush() {
+        flushLock.lock();
+        try {
+            ActivityBuffer.Drain drain = activityBuffer.drain();
+            if (drain.isEmpty()) {
+                return;
+            }
+            try {
+                if (!drain.activities().isEmpty()) {
+                    flushTimer.record(() -> postService.updateActivities(drain.activities().values()));
+                }
+            } catch (RuntimeException e) {
+                activityBuffer.restore(drain);
+                flushFailures.increment();
+                log.warn("Failed to write {} buffered activity counters, keeping them for the next flush",
+                        drain.activities().size(), e);
+                return;
+            }
+            activityBuffer.written();
+            drain.acknowledgments().forEach(Acknowledgment::acknowledge);
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * Writes synchronously on the consumer thread once the buffer is full, which also holds the consumer
+     * back while the database falls behind.
+     */
+    public void flushIfFull() {
+        if (activityBuffer.size() >= properties.flushThreshold()) {
+            flush();
+        }
+    }
+
+    @Override
+    public void destroy() {
+        flush();
+    }
+
+}
@@ -0,0 +1,22 @@
+package ru.kharevich.postservice.cache;
+
+import ru.kharevich.postservice.dto.response.PostResponse;
+
+import java.util.Optional;
+
+public class NoOpPostCacheTier implements PostCacheTier {
+
+    @Override
+    public Optional<PostResponse> get(PostCacheKey key) {
+        return Optional.empty();
+    }
+
+    @Override
+    public void put(PostCacheKey key, PostResponse value) {
+    }
+
+    @Override
+    public void evict(PostCacheKey key) {
+    }
+
+}
@@ -0,0 +1,168 @@
+package ru.kharevich.postservice.cache;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.kharevich.postservice.config.properties.PostCacheProperties;
+import ru.kharevich.postservice.dto.response.PostResponse;
+import ru.kharevich.postservice.model.ImageMode;
+
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+
+/**
+ * Read-through cache for single posts. The bounded in-process tier is consulted first,
+ * then the pluggable {@link PostCacheTier}, and only then the loader.
+ * <p>
+ * The local tier holds futures, so a miss only installs a placeholder under the map lock and the
+ * loader runs outside of it. Loading inside {@code Cache.get(key, mappingFunction)} would hold a
+ * {@code ConcurrentHashMap} bin monitor across blocking I/O and pin virtual threads.
+ */
+@Component
+public class PostCache {
+
+    private static final long ENTRY_OVERHEAD_BYTES = 512;
+
+    private final PostCacheProperties properties;
+    private final PostCacheTier secondaryTier;
+    private final AsyncCache<PostCacheKey, PostResponse> localTier;
+    private final Counter secondaryHits;
+    private final Counter secondaryMisses;
+
+    public PostCache(PostCacheProperties properties, PostCacheTier secondaryTier, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.secondaryTier = secondaryTier;
+        this.localTier = buildLocalTier(properties);
+        CaffeineCacheMetrics.monitor(meterRegistry, localTier, "posts.local");
+        this.secondaryHits = Counter.builder("post.cache.secondary.requests")
+                .tag("result", "hit")
+                .register(meterRegistry);
+        this.secondaryMisses = Counter.builder("post.cache.secondary.requests")
+                .tag("result", "miss")
+                .register(meterRegistry);
+    }
+
+    public PostResponse get(UUID id, ImageMode imageMode, Supplier<PostResponse> loader) {
+        if (!properties.enabled()) {
+            return loader.get();
+        }
+        PostCacheKey key = new PostCacheKey(id, imageMode);
+        CompletableFuture<PostResponse> placeholder = new CompletableFuture<>();
+        CompletableFuture<PostResponse> existing = localTier.asMap().putIfAbsent(key, placeholder);
+        if (existing != null) {
+            return await(existing);
+        }
+        PostResponse loaded;
+        try {
+            loaded = load(key, loader);
+        } catch (RuntimeException | Error e) {
+            placeholder.completeExceptionally(e);
+            throw e;
+        }
+        placeholder.complete(loaded);
+        if (isDegraded(loaded)) {
+            localTier.asMap().remove(key, placeholder);
+        }
+        return loaded;
+    }
+
+    /**
+     * Evicts right away and, inside a transaction, once more after commit, so a read that
+     * repopulated the cache from the not yet committed state does not survive the write.
+     */
+    public void evict(UUID id) {
+        evictNow(id);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evictNow(id);
+                }
+            });
+        }
+    }
+
+    private PostResponse load(PostCacheKey key, Supplier<PostResponse> loader) {
+        Optional<PostResponse> shared = secondaryTier.get(key);
+        if (shared.isPresent()) {
+            secondaryHits.increment();
+            return shared.get();
+        }
+        secondaryMisses.increment();
+        PostResponse loaded = loader.get();
+        if (!isDegraded(loaded)) {
+            secondaryTier.put(key, loaded);
+        }
+        return loaded;
+    }
+
+    /**
+     * Responses built without the image service are handed to concurrent waiters but not kept.
+     */
+    private static boolean isDegraded(PostResponse response) {
+        return Boolean.TRUE.equals(response.imagesUnavailable());
+    }
+
+    /**
+     * Failed loads are removed from the cache by Caffeine; waiters get the loader's own exception.
+     */
+    private PostResponse await(CompletableFuture<PostResponse> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private void evictNow(UUID id) {
+        for (ImageMode imageMode : ImageMode.values()) {
+            PostCacheKey key = new PostCacheKey(id, imageMode);
+            localTier.synchronous().invalidate(key);
+            secondaryTier.evict(key);
+        }
+    }
+
+    /**
+     * Every entry weighs at least {@code maximumWeight / maximumSize}, which caps the entry count
+     * while still bounding the total payload size.
+     */
+    private static AsyncCache<PostCacheKey, PostResponse> buildLocalTier(PostCacheProperties properties) {
+        long maximumWeight = properties.maximumWeight().toBytes();
+        long minimumEntryWeight = Math.max(1, maximumWeight / Math.max(1, properties.maximumSize()));
+        return Caffeine.newBuilder()
+                .expireAfterWrite(properties.ttl())
+                .maximumWeight(maximumWeight)
+                .<PostCacheKey, PostResponse>weigher((key, value) ->
+                        (int) Math.min(Integer.MAX_VALUE, Math.max(minimumEntryWeight, weigh(value))))
+                .recordStats()
+                .buildAsync();
+    }
+
+    private static long weigh(PostResponse response) {
+        long weight = ENTRY_OVERHEAD_BYTES;
+        if (response.text() != null) {
+            weight += response.text().length();
+        }
+        if (response.files() != null) {
+            for (byte[] file : response.files()) {
+                weight += file.length;
+            }
+        }
+        if (response.images() != null) {
+            weight += (long) response.images().size() * ENTRY_OVERHEAD_BYTES;
+        }
+        return weight;
+    }
+
+}
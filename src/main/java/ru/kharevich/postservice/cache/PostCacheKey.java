@@ -0,0 +1,14 @@
+package ru.kharevich.postservice.cache;
+
+import ru.kharevich.postservice.model.ImageMode;
+
+import java.util.UUID;
+
+public record PostCacheKey(
+
+        UUID id,
+
+        ImageMode imageMode
+
+) {
+}
@@ -0,0 +1,19 @@
+package ru.kharevich.postservice.cache;
+
+import ru.kharevich.postservice.dto.response.PostResponse;
+
+import java.util.Optional;
+
+/**
+ * Second, shared cache tier consulted after the in-process one. Implementations
+ * (Redis, Hazelcast, ...) can be plugged in by declaring a bean of this type.
+ */
+public interface PostCacheTier {
+
+    Optional<PostResponse> get(PostCacheKey key);
+
+    void put(PostCacheKey key, PostResponse value);
+
+    void evict(PostCacheKey key);
+
+}
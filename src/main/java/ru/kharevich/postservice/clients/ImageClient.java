@@ -1,14 +1,11 @@
 package ru.kharevich.postservice.clients;
 
+import feign.Response;
 import jakarta.validation.constraints.Min;
 import org.springframework.cloud.openfeign.FeignClient;
-import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
-import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestParam;
-import org.springframework.web.bind.annotation.RequestPart;
-import org.springframework.web.multipart.MultipartFile;
 import ru.kharevich.postservice.config.FeignConfig;
 import ru.kharevich.postservice.controller.exception.ImageServiceErrorDecoder;
 import ru.kharevich.postservice.dto.response.ImageResponse;
@@ -19,16 +16,16 @@ import java.util.UUID;
 
 @FeignClient(
         name = "image-client",
+        qualifiers = ImageClient.FEIGN_QUALIFIER,
+        primary = false,
         configuration = {ImageServiceErrorDecoder.class, FeignConfig.class}
 )
 public interface ImageClient {
 
-
-    @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
-    ImageResponse uploadImage(
-            @RequestPart("imageType") String imageType,
-            @RequestPart("parentEntityId") String parentEntityId,
-            @RequestPart("file") List<MultipartFile> file);
+    /**
+     * Qualifier of the plain Feign client; unqualified injection points get {@link ResilientImageClient}.
+     */
+    String FEIGN_QUALIFIER = "feignImageClient";
 
     @GetMapping("/parent")
     ImageResponse getImageByParentId(@RequestParam UUID id);
@@ -38,6 +35,22 @@ public interface ImageClient {
                                                         @RequestParam(defaultValue = "0") @Min(0) int page_number,
                                                         @RequestParam(defaultValue = "10") int size);
 
+    /**
+     * Same as {@link #getImageByParentId(UUID)} but leaves the body undecoded, so it can be
+     * read as a stream. The caller is responsible for closing the response.
+     */
+    @GetMapping("/parent")
+    Response streamImageByParentId(@RequestParam UUID id);
+
+    /**
+     * Same as {@link #getImagesByParentId(List, int, int)} but leaves the body undecoded, so it can be
+     * read as a stream. The caller is responsible for closing the response.
+     */
+    @GetMapping("/parent/many")
+    Response streamImagesByParentId(@RequestParam List<UUID> ids,
+                                    @RequestParam(defaultValue = "0") @Min(0) int page_number,
+                                    @RequestParam(defaultValue = "10") int size);
+
     @DeleteMapping("/parent")
     void deleteImageByParentId(UUID id);
 
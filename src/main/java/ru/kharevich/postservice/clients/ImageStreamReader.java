@@ -0,0 +1,231 @@
+package ru.kharevich.postservice.clients;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import feign.Response;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.kharevich.postservice.controller.exception.ImageServiceErrorDecoder;
+import ru.kharevich.postservice.dto.response.ImageDescriptor;
+import ru.kharevich.postservice.exception.ImageNotFoundException;
+import ru.kharevich.postservice.exception.ImageServiceInternalError;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URLConnection;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static ru.kharevich.postservice.util.constants.PostServiceResponseMessages.ERROR_IN_IMAGE_SERVICE_MESSAGE;
+import static ru.kharevich.postservice.util.constants.PostServiceResponseMessages.IMAGE_NOT_FOUND_MESSAGE;
+
+/**
+ * Reads image service responses token by token. Base64 image payloads are never materialized:
+ * they are either only counted (descriptors) or decoded straight into the target stream.
+ */
+@Component
+@RequiredArgsConstructor
+public class ImageStreamReader {
+
+    private final ObjectMapper objectMapper;
+
+    private final ImageServiceErrorDecoder errorDecoder = new ImageServiceErrorDecoder();
+
+    /**
+     * Reads descriptors from a {@code PageableResponse<ImageResponse>} body, grouped by parent id.
+     */
+    public Map<UUID, List<ImageDescriptor>> readDescriptors(Response response) {
+        try (response) {
+            if (response.status() == HttpStatus.NOT_FOUND.value() || response.body() == null) {
+                return Map.of();
+            }
+            checkStatus(response);
+            Map<UUID, List<ImageDescriptor>> descriptors = new HashMap<>();
+            try (JsonParser parser = objectMapper.getFactory().createParser(response.body().asInputStream())) {
+                expect(parser.nextToken(), JsonToken.START_OBJECT);
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String field = parser.currentName();
+                    JsonToken value = parser.nextToken();
+                    if ("content".equals(field) && value == JsonToken.START_ARRAY) {
+                        while (parser.nextToken() == JsonToken.START_OBJECT) {
+                            readImageResponse(parser, descriptors);
+                        }
+                    } else {
+                        parser.skipChildren();
+                    }
+                }
+            }
+            return descriptors;
+        } catch (IOException e) {
+            throw new ImageServiceInternalError(ERROR_IN_IMAGE_SERVICE_MESSAGE);
+        }
+    }
+
+    /**
+     * Reads descriptors of a single {@code ImageResponse} body.
+     */
+    public List<ImageDescriptor> readDescriptors(UUID parentId, Response response) {
+        try (response) {
+            if (response.status() == HttpStatus.NOT_FOUND.value() || response.body() == null) {
+                return List.of();
+            }
+            checkStatus(response);
+            Map<UUID, List<ImageDescriptor>> descriptors = new HashMap<>();
+            try (JsonParser parser = objectMapper.getFactory().createParser(response.body().asInputStream())) {
+                expect(parser.nextToken(), JsonToken.START_OBJECT);
+                readImageResponse(parser, descriptors);
+            }
+            return descriptors.getOrDefault(parentId, List.of());
+        } catch (IOException e) {
+            throw new ImageServiceInternalError(ERROR_IN_IMAGE_SERVICE_MESSAGE);
+        }
+    }
+
+    /**
+     * Positions the parser on the requested image before anything is written, so a missing image
+     * still results in a 404 instead of an empty 200. The returned body owns and closes the response.
+     */
+    public StreamingResponseBody openImage(int imageId, Response response) {
+        if (response.status() == HttpStatus.NOT_FOUND.value() || response.body() == null) {
+            response.close();
+            throw new ImageNotFoundException(IMAGE_NOT_FOUND_MESSAGE);
+        }
+        JsonParser parser = null;
+        try {
+            checkStatus(response);
+            parser = objectMapper.getFactory().createParser(response.body().asInputStream());
+            if (!positionAtFile(parser, imageId)) {
+                throw new ImageNotFoundException(IMAGE_NOT_FOUND_MESSAGE);
+            }
+        } catch (IOException e) {
+            closeQuietly(parser, response);
+            throw new ImageServiceInternalError(ERROR_IN_IMAGE_SERVICE_MESSAGE);
+        } catch (RuntimeException e) {
+            closeQuietly(parser, response);
+            throw e;
+        }
+        JsonParser positioned = parser;
+        return outputStream -> {
+            try (response; positioned) {
+                positioned.readBinaryValue(outputStream);
+                outputStream.flush();
+            }
+        };
+    }
+
+    public static String guessContentType(String name) {
+        String contentType = name == null ? null : URLConnection.guessContentTypeFromName(name);
+        return contentType == null ? MediaType.APPLICATION_OCTET_STREAM_VALUE : contentType;
+    }
+
+    private void readImageResponse(JsonParser parser, Map<UUID, List<ImageDescriptor>> descriptors) throws IOException {
+        UUID parentId = null;
+        List<String> names = new ArrayList<>();
+        List<Long> sizes = new ArrayList<>();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            if ("parentId".equals(field) && value == JsonToken.VALUE_STRING) {
+                parentId = UUID.fromString(parser.getText());
+            } else if ("files".equals(field) && value == JsonToken.START_ARRAY) {
+                while (parser.nextToken() == JsonToken.START_OBJECT) {
+                    readFile(parser, names, sizes);
+                }
+            } else {
+                parser.skipChildren();
+            }
+        }
+        if (parentId == null) {
+            return;
+        }
+        List<ImageDescriptor> parentDescriptors = descriptors.computeIfAbsent(parentId, id -> new ArrayList<>());
+        for (int i = 0; i < names.size(); i++) {
+            int id = parentDescriptors.size();
+            String name = names.get(i);
+            parentDescriptors.add(ImageDescriptor.of(parentId, id, name, sizes.get(i), guessContentType(name)));
+        }
+    }
+
+    private void readFile(JsonParser parser, List<String> names, List<Long> sizes) throws IOException {
+        String name = null;
+        long size = 0;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            if ("file".equals(field) && value == JsonToken.VALUE_STRING) {
+                size = parser.readBinaryValue(OutputStream.nullOutputStream());
+            } else if ("name".equals(field) && value == JsonToken.VALUE_STRING) {
+                name = parser.getText();
+            } else {
+                parser.skipChildren();
+            }
+        }
+        names.add(name);
+        sizes.add(size);
+    }
+
+    private boolean positionAtFile(JsonParser parser, int imageId) throws IOException {
+        expect(parser.nextToken(), JsonToken.START_OBJECT);
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            if (!"files".equals(field) || value != JsonToken.START_ARRAY) {
+                parser.skipChildren();
+                continue;
+            }
+            int index = 0;
+            while (parser.nextToken() == JsonToken.START_OBJECT) {
+                if (index++ != imageId) {
+                    parser.skipChildren();
+                    continue;
+                }
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String fileField = parser.currentName();
+                    JsonToken fileValue = parser.nextToken();
+                    if ("file".equals(fileField) && fileValue == JsonToken.VALUE_STRING) {
+                        return true;
+                    }
+                    parser.skipChildren();
+                }
+                return false;
+            }
+            return false;
+        }
+        return false;
+    }
+
+    private void checkStatus(Response response) {
+        if (response.status() >= HttpStatus.BAD_REQUEST.value()) {
+            Exception exception = errorDecoder.decode("ImageClient#stream", response);
+            if (exception instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new ImageServiceInternalError(ERROR_IN_IMAGE_SERVICE_MESSAGE);
+        }
+    }
+
+    private void expect(JsonToken actual, JsonToken expected) throws IOException {
+        if (actual != expected) {
+            throw new IOException("unexpected token " + actual + ", expected " + expected);
+        }
+    }
+
+    private void closeQuietly(JsonParser parser, Response response) {
+        if (parser != null) {
+            try {
+                parser.close();
+            } catch (IOException ignored) {
+                // the response is closed below anyway
+            }
+        }
+        response.close();
+    }
+
+}
@@ -0,0 +1,115 @@
+package ru.kharevich.postservice.clients;
+
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.timelimiter.TimeLimiterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.http.client.ClientHttpRequestFactoryBuilder;
+import org.springframework.boot.http.client.ClientHttpRequestFactorySettings;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.MultipartBodyBuilder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.multipart.MultipartFile;
+import ru.kharevich.postservice.exception.ImageUploadException;
+import ru.kharevich.postservice.model.ImageType;
+
+import java.net.ConnectException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static ru.kharevich.postservice.util.constants.PostServiceResponseMessages.ERROR_IN_IMAGE_SERVICE_MESSAGE;
+
+/**
+ * Uploads post attachments to the image service. Unlike Feign, which encodes the whole multipart
+ * body into a byte array, every part is written from {@link MultipartFile#getResource()}, so the
+ * bytes flow from the (possibly disk backed) upload straight into the outgoing request.
+ * <p>
+ * Connections are opened within the connect timeout of the Feign image client, and the image service has
+ * the timeout of the {@code image-client-upload} time limiter to answer once the body is sent.
+ */
+@Component
+public class ImageUploadClient {
+
+    private static final Set<Integer> NOT_PROCESSED_STATUSES = Set.of(429, 503);
+
+    private final RestClient restClient;
+    private final ResilientImageClient resilientImageClient;
+
+    public ImageUploadClient(RestClient.Builder restClientBuilder,
+                             @Value("${spring.cloud.openfeign.client.config.image-client.url}") String imageServiceUrl,
+                             @Value("${spring.cloud.openfeign.client.config.image-client.connect-timeout:1000}")
+                             long connectTimeoutMillis,
+                             TimeLimiterRegistry timeLimiterRegistry,
+                             ResilientImageClient resilientImageClient) {
+        ClientHttpRequestFactorySettings settings = ClientHttpRequestFactorySettings.defaults()
+                .withConnectTimeout(Duration.ofMillis(connectTimeoutMillis))
+                .withReadTimeout(timeLimiterRegistry.timeLimiter(ResilientImageClient.INSTANCE + "-upload")
+                        .getTimeLimiterConfig()
+                        .getTimeoutDuration());
+        this.restClient = restClientBuilder
+                .baseUrl(imageServiceUrl)
+                .requestFactory(ClientHttpRequestFactoryBuilder.detect().build(settings))
+                .build();
+        this.resilientImageClient = resilientImageClient;
+    }
+
+    public void upload(UUID parentId, List<MultipartFile> files) {
+        MultipartBodyBuilder body = newBody(parentId);
+        for (MultipartFile file : files) {
+            addFile(body, file.getResource(), file.getContentType());
+        }
+        send(body);
+    }
+
+    public void upload(UUID parentId, Resource file, String contentType) {
+        MultipartBodyBuilder body = newBody(parentId);
+        addFile(body, file, contentType);
+        send(body);
+    }
+
+    private MultipartBodyBuilder newBody(UUID parentId) {
+        MultipartBodyBuilder body = new MultipartBodyBuilder();
+        body.part("imageType", ImageType.POST_ATTACHMENT.toString());
+        body.part("parentEntityId", parentId.toString());
+        return body;
+    }
+
+    private void addFile(MultipartBodyBuilder body, Resource file, String contentType) {
+        MultipartBodyBuilder.PartBuilder part = body.part("file", file);
+        if (contentType != null) {
+            part.contentType(MediaType.parseMediaType(contentType));
+        }
+    }
+
+    /**
+     * An upload is retryable only if it was rejected locally, the connection could not be opened,
+     * or the image service answered that it did not process the request.
+     */
+    private void send(MultipartBodyBuilder body) {
+        try {
+            resilientImageClient.executeOnce(() -> restClient.post()
+                    .contentType(MediaType.MULTIPART_FORM_DATA)
+                    .body(body.build())
+                    .retrieve()
+                    .onStatus(HttpStatusCode::isError, (request, response) -> {
+                        throw new ImageUploadException(ERROR_IN_IMAGE_SERVICE_MESSAGE,
+                                NOT_PROCESSED_STATUSES.contains(response.getStatusCode().value()));
+                    })
+                    .toBodilessEntity());
+        } catch (CallNotPermittedException | BulkheadFullException e) {
+            throw new ImageUploadException(ERROR_IN_IMAGE_SERVICE_MESSAGE, true);
+        } catch (ResourceAccessException e) {
+            throw new ImageUploadException(ERROR_IN_IMAGE_SERVICE_MESSAGE, e.getCause() instanceof ConnectException);
+        } catch (RestClientException e) {
+            throw new ImageUploadException(ERROR_IN_IMAGE_SERVICE_MESSAGE, false);
+        }
+    }
+
+}
@@ -0,0 +1,232 @@
+package ru.kharevich.postservice.clients;
+
+import feign.FeignException;
+import feign.Response;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.bulkhead.ThreadPoolBulkhead;
+import io.github.resilience4j.bulkhead.ThreadPoolBulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.retry.Retry;
+import io.github.resilience4j.retry.RetryRegistry;
+import io.github.resilience4j.timelimiter.TimeLimiter;
+import io.github.resilience4j.timelimiter.TimeLimiterRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.persistence.EntityNotFoundException;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Primary;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import ru.kharevich.postservice.dto.response.ImageResponse;
+import ru.kharevich.postservice.dto.response.PageableResponse;
+import ru.kharevich.postservice.exception.ImageServiceInternalError;
+import ru.kharevich.postservice.exception.ImageServiceTimeoutException;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+import static ru.kharevich.postservice.util.constants.PostServiceResponseMessages.ERROR_IN_IMAGE_SERVICE_MESSAGE;
+
+/**
+ * {@link ImageClient} used by the rest of the service. Every call to the Feign client passes a
+ * per-method time limiter, the shared {@code image-client} bulkhead and circuit breaker, and, for
+ * idempotent methods only, the {@code image-client} retry. Rejected, timed out and failed calls
+ * surface as {@link ImageServiceInternalError}. Each method is timed in {@code image.client.requests},
+ * tagged with the method and the outcome of the call including retries.
+ * <p>
+ * Time limited calls run on the bounded pool of the {@code image-client} thread pool bulkhead. A call that finds
+ * the pool full is rejected like one the semaphore bulkhead turns away; it never runs on the caller, where the
+ * time limiter could not interrupt the wait.
+ */
+@Primary
+@Component
+public class ResilientImageClient implements ImageClient, DisposableBean {
+
+    public static final String INSTANCE = "image-client";
+
+    private static final String REQUESTS_TIMER = "image.client.requests";
+
+    private final ImageClient delegate;
+    private final CircuitBreaker circuitBreaker;
+    private final Bulkhead bulkhead;
+    private final Retry retry;
+    private final TimeLimiter getTimeLimiter;
+    private final TimeLimiter getManyTimeLimiter;
+    private final TimeLimiter deleteTimeLimiter;
+    private final ThreadPoolBulkhead limiterPool;
+    private final MeterRegistry meterRegistry;
+
+    public ResilientImageClient(@Qualifier(ImageClient.FEIGN_QUALIFIER) ImageClient delegate,
+                                CircuitBreakerRegistry circuitBreakerRegistry,
+                                BulkheadRegistry bulkheadRegistry,
+                                RetryRegistry retryRegistry,
+                                TimeLimiterRegistry timeLimiterRegistry,
+                                ThreadPoolBulkheadRegistry threadPoolBulkheadRegistry,
+                                MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.circuitBreaker = circuitBreakerRegistry.circuitBreaker(INSTANCE);
+        this.bulkhead = bulkheadRegistry.bulkhead(INSTANCE);
+        this.retry = retryRegistry.retry(INSTANCE);
+        this.getTimeLimiter = timeLimiterRegistry.timeLimiter(INSTANCE + "-get");
+        this.getManyTimeLimiter = timeLimiterRegistry.timeLimiter(INSTANCE + "-get-many");
+        this.deleteTimeLimiter = timeLimiterRegistry.timeLimiter(INSTANCE + "-delete");
+        this.limiterPool = threadPoolBulkheadRegistry.bulkhead(INSTANCE);
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public ImageResponse getImageByParentId(UUID id) {
+        return execute("getImageByParentId", getTimeLimiter, true, () -> delegate.getImageByParentId(id));
+    }
+
+    @Override
+    public PageableResponse<ImageResponse> getImagesByParentId(List<UUID> ids, int page_number, int size) {
+        return execute("getImagesByParentId", getManyTimeLimiter, true,
+                () -> delegate.getImagesByParentId(ids, page_number, size));
+    }
+
+    /**
+     * The time limit covers the response headers; the body is read by the caller afterwards.
+     */
+    @Override
+    public Response streamImageByParentId(UUID id) {
+        return execute("streamImageByParentId", getTimeLimiter, true,
+                () -> checkStatus(delegate.streamImageByParentId(id)));
+    }
+
+    @Override
+    public Response streamImagesByParentId(List<UUID> ids, int page_number, int size) {
+        return execute("streamImagesByParentId", getManyTimeLimiter, true,
+                () -> checkStatus(delegate.streamImagesByParentId(ids, page_number, size)));
+    }
+
+    @Override
+    public void deleteImageByParentId(UUID id) {
+        execute("deleteImageByParentId", deleteTimeLimiter, true, () -> {
+            delegate.deleteImageByParentId(id);
+            return null;
+        });
+    }
+
+    /**
+     * Runs a call that is not idempotent: it is guarded by the bulkhead and the circuit breaker but never retried.
+     */
+    public <T> T executeOnce(Supplier<T> call) {
+        return decorate(call).get();
+    }
+
+    @Override
+    public void destroy() throws Exception {
+        limiterPool.close();
+    }
+
+    private <T> T execute(String method, TimeLimiter timeLimiter, boolean idempotent, Supplier<T> call) {
+        Supplier<T> decorated = decorate(() -> limit(timeLimiter, call));
+        if (idempotent) {
+            decorated = Retry.decorateSupplier(retry, decorated);
+        }
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "error";
+        try {
+            T result = decorated.get();
+            outcome = "success";
+            return result;
+        } catch (CallNotPermittedException | BulkheadFullException e) {
+            outcome = "rejected";
+            throw new ImageServiceInternalError(ERROR_IN_IMAGE_SERVICE_MESSAGE);
+        } catch (ImageServiceTimeoutException e) {
+            outcome = "timeout";
+            throw e;
+        } catch (EntityNotFoundException e) {
+            outcome = "not_found";
+            throw e;
+        } finally {
+            sample.stop(Timer.builder(REQUESTS_TIMER)
+                    .tag("method", method)
+                    .tag("outcome", outcome)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry));
+        }
+    }
+
+    private <T> Supplier<T> decorate(Supplier<T> call) {
+        return CircuitBreaker.decorateSupplier(circuitBreaker, Bulkhead.decorateSupplier(bulkhead, call));
+    }
+
+    private <T> T limit(TimeLimiter timeLimiter, Supplier<T> call) {
+        Handoff handoff = new Handoff();
+        try {
+            return timeLimiter.executeFutureSupplier(
+                    () -> limiterPool.executeSupplier(() -> handoff.offer(call.get())).toCompletableFuture());
+        } catch (TimeoutException e) {
+            handoff.abandon();
+            throw new ImageServiceTimeoutException(ERROR_IN_IMAGE_SERVICE_MESSAGE);
+        } catch (FeignException e) {
+            throw new ImageServiceInternalError(ERROR_IN_IMAGE_SERVICE_MESSAGE);
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            handoff.abandon();
+            throw new ImageServiceInternalError(ERROR_IN_IMAGE_SERVICE_MESSAGE);
+        }
+    }
+
+    /**
+     * Feign hands a {@link Response} return value over as is, without its error decoder. A server error is
+     * turned into a failure here, so that it reaches the retry and the circuit breaker.
+     */
+    private static Response checkStatus(Response response) {
+        if (response.status() >= HttpStatus.INTERNAL_SERVER_ERROR.value()) {
+            response.close();
+            throw new ImageServiceInternalError(ERROR_IN_IMAGE_SERVICE_MESSAGE);
+        }
+        return response;
+    }
+
+    /**
+     * Passes the result of a limited call to its caller. A result that arrives after the caller stopped
+     * waiting is closed, so a late {@link Response} does not keep its connection.
+     */
+    private static final class Handoff {
+
+        private static final Object ABANDONED = new Object();
+
+        private final AtomicReference<Object> result = new AtomicReference<>();
+
+        private <T> T offer(T value) {
+            if (result.compareAndExchange(null, value) == ABANDONED) {
+                closeQuietly(value);
+            }
+            return value;
+        }
+
+        private void abandon() {
+            Object value = result.getAndSet(ABANDONED);
+            if (value != null) {
+                closeQuietly(value);
+            }
+        }
+
+        private static void closeQuietly(Object value) {
+            if (value instanceof Closeable closeable) {
+                try {
+                    closeable.close();
+                } catch (IOException ignored) {
+                    // nobody reads the result anymore
+                }
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,18 @@
+package ru.kharevich.postservice.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import ru.kharevich.postservice.cache.NoOpPostCacheTier;
+import ru.kharevich.postservice.cache.PostCacheTier;
+
+@Configuration
+public class CacheConfig {
+
+    @Bean
+    @ConditionalOnMissingBean(PostCacheTier.class)
+    public PostCacheTier secondaryPostCacheTier() {
+        return new NoOpPostCacheTier();
+    }
+
+}
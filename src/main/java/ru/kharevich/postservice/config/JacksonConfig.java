@@ -0,0 +1,63 @@
+package ru.kharevich.postservice.config;
+
+import com.fasterxml.jackson.annotation.JsonFilter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import org.springframework.boot.autoconfigure.jackson.Jackson2ObjectMapperBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import ru.kharevich.postservice.dto.response.PostResponse;
+
+import java.util.List;
+
+/**
+ * Posts written by the web layer go through the {@value #POST_FIELDS_FILTER} filter. It writes every
+ * property unless a response narrows it to the requested fieldset.
+ */
+@Configuration
+public class JacksonConfig {
+
+    public static final String POST_FIELDS_FILTER = "postFields";
+
+    @Bean
+    public Jackson2ObjectMapperBuilderCustomizer postFieldsFilterCustomizer() {
+        return builder -> builder
+                .mixIn(PostResponse.class, PostFieldsMixIn.class)
+                .filters(new SimpleFilterProvider()
+                        .addFilter(POST_FIELDS_FILTER, SimpleBeanPropertyFilter.serializeAll()));
+    }
+
+    /**
+     * Also writes {@code application/x-ndjson}: a single JSON document is a valid one-line stream, so errors
+     * raised by the streaming endpoints are sent as such instead of failing content negotiation.
+     */
+    @Bean
+    public MappingJackson2HttpMessageConverter mappingJackson2HttpMessageConverter(ObjectMapper objectMapper) {
+        MappingJackson2HttpMessageConverter converter = new MappingJackson2HttpMessageConverter(objectMapper);
+        converter.setSupportedMediaTypes(List.of(MediaType.APPLICATION_JSON,
+                new MediaType("application", "*+json"),
+                MediaType.APPLICATION_NDJSON));
+        return converter;
+    }
+
+    /**
+     * Answers {@code Accept: application/cbor}. Images are written as CBOR byte strings instead of base64
+     * text. The mapper comes from the customized builder, so fieldsets and the JSON settings apply as well.
+     * It replaces the default CBOR converter in place, after the JSON one, so JSON stays the default.
+     */
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory()).build());
+    }
+
+    @JsonFilter(POST_FIELDS_FILTER)
+    interface PostFieldsMixIn {
+    }
+
+}
@@ -0,0 +1,32 @@
+package ru.kharevich.postservice.config.properties;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import ru.kharevich.postservice.model.ActivityConsumerMode;
+
+import java.time.Duration;
+
+/**
+ * @param mode How activity-topic is consumed: record by record, in batches written synchronously,
+ *             or buffered in memory and written behind
+ * @param flushInterval Maximum time buffered counters wait before they are written, buffered mode only
+ * @param flushThreshold Number of buffered posts that triggers a write before the interval elapsed, buffered mode only
+ * @param logSampleRate Share of consumed records that are logged, between 0 and 1
+ */
+@ConfigurationProperties("post-service.kafka.activity")
+public record ActivityConsumerProperties(
+
+        @DefaultValue("single")
+        ActivityConsumerMode mode,
+
+        @DefaultValue("1s")
+        Duration flushInterval,
+
+        @DefaultValue("5000")
+        int flushThreshold,
+
+        @DefaultValue("0.01")
+        double logSampleRate
+
+) {
+}
@@ -0,0 +1,30 @@
+package ru.kharevich.postservice.config.properties;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * @param capacity Number of posts the hot feed ranks; pages past it are empty
+ * @param commentWeight Number of likes a comment counts for
+ * @param decay Age after which a post needs ten times the activity to keep its rank
+ * @param refreshInterval Interval at which the ranking is reloaded from the posts table
+ */
+@ConfigurationProperties("post-service.hot-feed")
+public record HotFeedProperties(
+
+        @DefaultValue("1000")
+        int capacity,
+
+        @DefaultValue("2")
+        double commentWeight,
+
+        @DefaultValue("12h")
+        Duration decay,
+
+        @DefaultValue("1m")
+        Duration refreshInterval
+
+) {
+}
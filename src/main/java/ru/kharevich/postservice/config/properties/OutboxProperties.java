@@ -0,0 +1,38 @@
+package ru.kharevich.postservice.config.properties;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * @param enabled Whether created posts hand their images over to the outbox instead of uploading them in the request
+ * @param batchSize Maximum number of entries claimed per poll
+ * @param maxConcurrency Maximum number of uploads running at the same time
+ * @param maxAttempts Number of attempts after which an entry is marked as failed
+ * @param initialBackoff Delay before the first retry, doubled on every further attempt
+ * @param lease Time after which an entry claimed by a crashed dispatcher is picked up again
+ */
+@ConfigurationProperties("post-service.outbox")
+public record OutboxProperties(
+
+        @DefaultValue("false")
+        boolean enabled,
+
+        @DefaultValue("20")
+        int batchSize,
+
+        @DefaultValue("4")
+        int maxConcurrency,
+
+        @DefaultValue("5")
+        int maxAttempts,
+
+        @DefaultValue("1s")
+        Duration initialBackoff,
+
+        @DefaultValue("5m")
+        Duration lease
+
+) {
+}
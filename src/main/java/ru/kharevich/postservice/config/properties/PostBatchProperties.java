@@ -0,0 +1,16 @@
+package ru.kharevich.postservice.config.properties;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * @param maxIds Maximum number of ids a single batch read may ask for
+ */
+@ConfigurationProperties("post-service.batch")
+public record PostBatchProperties(
+
+        @DefaultValue("100")
+        int maxIds
+
+) {
+}
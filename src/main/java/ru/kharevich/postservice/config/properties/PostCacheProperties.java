@@ -0,0 +1,31 @@
+package ru.kharevich.postservice.config.properties;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+/**
+ * @param enabled Whether post reads go through the cache
+ * @param ttl Upper bound for how long a cached post, including its counters, may be served
+ * @param maximumSize Maximum number of posts kept in the local tier
+ * @param maximumWeight Maximum total size of image payloads kept in the local tier
+ */
+@ConfigurationProperties("post-service.cache")
+public record PostCacheProperties(
+
+        @DefaultValue("true")
+        boolean enabled,
+
+        @DefaultValue("30s")
+        Duration ttl,
+
+        @DefaultValue("10000")
+        long maximumSize,
+
+        @DefaultValue("256MB")
+        DataSize maximumWeight
+
+) {
+}
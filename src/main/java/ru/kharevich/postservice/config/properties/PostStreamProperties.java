@@ -0,0 +1,20 @@
+package ru.kharevich.postservice.config.properties;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * @param chunkSize Number of posts of a streamed page whose images are fetched with one image service call
+ * @param prefetch  Number of chunks loaded ahead of the one being written, at least one
+ */
+@ConfigurationProperties("post-service.stream")
+public record PostStreamProperties(
+
+        @DefaultValue("10")
+        int chunkSize,
+
+        @DefaultValue("2")
+        int prefetch
+
+) {
+}
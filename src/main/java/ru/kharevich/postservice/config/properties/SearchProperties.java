@@ -0,0 +1,30 @@
+package ru.kharevich.postservice.config.properties;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * @param enabled Whether posts are indexed and can be searched. Needs the PostgreSQL search tables
+ * @param textSearchConfig PostgreSQL text search configuration used for indexing and queries
+ * @param batchSize Maximum number of posts indexed per statement
+ * @param pollInterval Interval at which the search queue is drained
+ */
+@ConfigurationProperties("post-service.search")
+public record SearchProperties(
+
+        @DefaultValue("true")
+        boolean enabled,
+
+        @DefaultValue("simple")
+        String textSearchConfig,
+
+        @DefaultValue("500")
+        int batchSize,
+
+        @DefaultValue("1s")
+        Duration pollInterval
+
+) {
+}
@@ -0,0 +1,31 @@
+package ru.kharevich.postservice.config.properties;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * @param maxSize Number of newest posts kept per author; older pages are read from the posts table.
+ *                The migration backfills the same number of posts
+ * @param hotEnabled Whether timelines are also kept in memory
+ * @param hotTtl Upper bound for how long an in-memory timeline may be served
+ * @param hotMaximumPosts Maximum number of post ids kept in memory, summed over all authors
+ */
+@ConfigurationProperties("post-service.timeline")
+public record TimelineProperties(
+
+        @DefaultValue("1000")
+        int maxSize,
+
+        @DefaultValue("true")
+        boolean hotEnabled,
+
+        @DefaultValue("30s")
+        Duration hotTtl,
+
+        @DefaultValue("1000000")
+        long hotMaximumPosts
+
+) {
+}
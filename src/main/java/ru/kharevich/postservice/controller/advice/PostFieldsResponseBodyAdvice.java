@@ -0,0 +1,55 @@
+package ru.kharevich.postservice.controller.advice;
+
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.MappingJacksonValue;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.AbstractMappingJacksonResponseBodyAdvice;
+import ru.kharevich.postservice.controller.impl.PostControllerImpl;
+import ru.kharevich.postservice.dto.transferObject.PostFields;
+
+import java.util.Arrays;
+
+import static ru.kharevich.postservice.config.JacksonConfig.POST_FIELDS_FILTER;
+
+/**
+ * Writes only the requested properties of the posts returned by endpoints taking a {@code fields} parameter.
+ * The fieldset was already validated by the controller.
+ */
+@RestControllerAdvice(assignableTypes = PostControllerImpl.class)
+public class PostFieldsResponseBodyAdvice extends AbstractMappingJacksonResponseBodyAdvice {
+
+    private static final String FIELDS_PARAMETER = "fields";
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return super.supports(returnType, converterType)
+                && returnType.getMethod() != null
+                && Arrays.stream(returnType.getMethod().getParameters())
+                .anyMatch(parameter -> FIELDS_PARAMETER.equals(parameter.getName()));
+    }
+
+    @Override
+    protected void beforeBodyWriteInternal(MappingJacksonValue bodyContainer,
+                                           MediaType contentType,
+                                           MethodParameter returnType,
+                                           ServerHttpRequest request,
+                                           ServerHttpResponse response) {
+        if (!(request instanceof ServletServerHttpRequest servletRequest)) {
+            return;
+        }
+        String fields = servletRequest.getServletRequest().getParameter(FIELDS_PARAMETER);
+        if (fields == null || fields.isBlank()) {
+            return;
+        }
+        bodyContainer.setFilters(new SimpleFilterProvider().addFilter(POST_FIELDS_FILTER,
+                SimpleBeanPropertyFilter.filterOutAllExcept(PostFields.of(fields).properties())));
+    }
+
+}
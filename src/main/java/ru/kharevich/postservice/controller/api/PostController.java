@@ -2,12 +2,21 @@ package ru.kharevich.postservice.controller.api;
 
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RequestPart;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.kharevich.postservice.dto.request.PostBatchRequest;
 import ru.kharevich.postservice.dto.request.PostRequest;
+import ru.kharevich.postservice.dto.response.AttachmentStatusResponse;
+import ru.kharevich.postservice.dto.response.CursorPageableResponse;
 import ru.kharevich.postservice.dto.response.PageableResponse;
+import ru.kharevich.postservice.dto.response.PostBatchResponse;
 import ru.kharevich.postservice.dto.response.PostResponse;
 import ru.kharevich.postservice.util.annotations.NotEmptyFiles;
 
@@ -24,11 +33,78 @@ public interface PostController {
     PostResponse update(@Valid PostRequest request, @PathVariable UUID id);
 
     PageableResponse<PostResponse> getFeed(@RequestParam(defaultValue = "0") @Min(0) int page_number,
-                                           @RequestParam(defaultValue = "20") int size);
+                                           @RequestParam(defaultValue = "20") int size,
+                                           @RequestParam(required = false) String image_mode,
+                                           @RequestParam(required = false) String fields,
+                                           @RequestHeader(required = false) String accept,
+                                           WebRequest webRequest);
 
-    PostResponse getById(@Valid UUID id);
+    PageableResponse<PostResponse> getHotFeed(@RequestParam(defaultValue = "0") @Min(0) int page_number,
+                                              @RequestParam(defaultValue = "20") int size,
+                                              @RequestParam(required = false) String image_mode,
+                                              @RequestParam(required = false) String fields,
+                                              @RequestHeader(required = false) String accept,
+                                              WebRequest webRequest);
+
+    ResponseEntity<StreamingResponseBody> streamFeed(@RequestParam(defaultValue = "0") @Min(0) int page_number,
+                                                     @RequestParam(defaultValue = "20") int size,
+                                                     @RequestParam(required = false) String image_mode,
+                                                     @RequestParam(required = false) String fields);
+
+    PostResponse getById(@Valid UUID id,
+                         @RequestParam(required = false) String image_mode,
+                         @RequestParam(required = false) String fields,
+                         @RequestHeader(required = false) String accept,
+                         WebRequest webRequest);
+
+    PostBatchResponse getByIds(@Valid PostBatchRequest request,
+                               @RequestParam(required = false) String image_mode,
+                               @RequestParam(required = false) String fields,
+                               @RequestHeader(required = false) String accept);
+
+    AttachmentStatusResponse getAttachmentStatus(@PathVariable UUID id);
+
+    ResponseEntity<StreamingResponseBody> getImage(@PathVariable UUID id, @PathVariable @Min(0) int imageId);
 
     PageableResponse<PostResponse> getPostsByAuthor(@RequestParam(defaultValue = "0") @Min(0) int page_number,
-                                                    @RequestParam(defaultValue = "20") int size, @PathVariable String author);
+                                                    @RequestParam(defaultValue = "20") int size, @PathVariable String author,
+                                                    @RequestParam(required = false) String image_mode,
+                                                    @RequestParam(required = false) String fields,
+                                                    @RequestHeader(required = false) String accept,
+                                                    WebRequest webRequest);
+
+    PageableResponse<PostResponse> getPostsByAuthorId(@RequestParam(defaultValue = "0") @Min(0) int page_number,
+                                                      @RequestParam(defaultValue = "20") int size,
+                                                      @PathVariable UUID authorId,
+                                                      @RequestParam(required = false) String image_mode,
+                                                      @RequestParam(required = false) String fields,
+                                                      @RequestHeader(required = false) String accept,
+                                                      WebRequest webRequest);
+
+    void rebuildAuthorTimeline(@PathVariable UUID authorId);
+
+    PageableResponse<PostResponse> search(@RequestParam @NotBlank String query,
+                                          @RequestParam(defaultValue = "0") @Min(0) int page_number,
+                                          @RequestParam(defaultValue = "20") int size,
+                                          @RequestParam(required = false) String image_mode,
+                                          @RequestParam(required = false) String fields,
+                                          @RequestHeader(required = false) String accept);
+
+    ResponseEntity<StreamingResponseBody> streamPostsByAuthor(@RequestParam(defaultValue = "0") @Min(0) int page_number,
+                                                              @RequestParam(defaultValue = "20") int size,
+                                                              @PathVariable String author,
+                                                              @RequestParam(required = false) String image_mode,
+                                                              @RequestParam(required = false) String fields);
+
+    CursorPageableResponse<PostResponse> getFeedByCursor(@RequestParam(required = false) String cursor,
+                                                         @RequestParam(defaultValue = "20") @Min(1) int size,
+                                                         @RequestParam(required = false) String image_mode,
+                                                         @RequestHeader(required = false) String accept);
+
+    CursorPageableResponse<PostResponse> getPostsByAuthorByCursor(@RequestParam(required = false) String cursor,
+                                                                  @RequestParam(defaultValue = "20") @Min(1) int size,
+                                                                  @PathVariable String author,
+                                                                  @RequestParam(required = false) String image_mode,
+                                                                  @RequestHeader(required = false) String accept);
 
 }
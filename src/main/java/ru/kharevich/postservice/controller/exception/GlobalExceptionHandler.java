@@ -2,23 +2,32 @@ package ru.kharevich.postservice.controller.exception;
 
 
 import jakarta.validation.ConstraintViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 import ru.kharevich.postservice.dto.transferObject.ErrorMessage;
+import ru.kharevich.postservice.exception.BatchTooLargeException;
+import ru.kharevich.postservice.exception.ImageNotFoundException;
 import ru.kharevich.postservice.exception.ImageServiceInternalError;
+import ru.kharevich.postservice.exception.InvalidCursorException;
+import ru.kharevich.postservice.exception.InvalidFieldsException;
+import ru.kharevich.postservice.exception.InvalidImageModeException;
 import ru.kharevich.postservice.exception.PostNotFoundException;
 import ru.kharevich.postservice.exception.PostServiceInternalError;
 
 import java.time.LocalDateTime;
 
+import static ru.kharevich.postservice.util.constants.PostServiceResponseMessages.POST_WRITE_CONFLICT_MESSAGE;
+
 @RestControllerAdvice
 public class GlobalExceptionHandler {
 
     @ExceptionHandler({
-            PostNotFoundException.class
+            PostNotFoundException.class,
+            ImageNotFoundException.class
     })
     public ResponseEntity<ErrorMessage> handleNotFound(RuntimeException exception) {
         return ResponseEntity
@@ -42,9 +51,27 @@ public class GlobalExceptionHandler {
                         .build());
     }
 
+    /**
+     * Reached only when the write kept conflicting after its retries.
+     */
+    @ExceptionHandler({
+            OptimisticLockingFailureException.class
+    })
+    public ResponseEntity<ErrorMessage> handleConflict(RuntimeException exception) {
+        return ResponseEntity
+                .status(HttpStatus.CONFLICT)
+                .body(ErrorMessage.builder()
+                        .message(POST_WRITE_CONFLICT_MESSAGE)
+                        .timestamp(LocalDateTime.now())
+                        .build());
+    }
 
     @ExceptionHandler({
-            ConstraintViolationException.class
+            ConstraintViolationException.class,
+            InvalidCursorException.class,
+            InvalidFieldsException.class,
+            InvalidImageModeException.class,
+            BatchTooLargeException.class
     })
     public ResponseEntity<ErrorMessage> handleBadRequest(RuntimeException exception) {
         return ResponseEntity
@@ -1,30 +1,50 @@
 package ru.kharevich.postservice.controller.impl;
 
+import jakarta.validation.Valid;
 import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RequestPart;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import ru.kharevich.postservice.controller.api.PostController;
+import ru.kharevich.postservice.dto.request.PostBatchRequest;
 import ru.kharevich.postservice.dto.request.PostRequest;
+import ru.kharevich.postservice.dto.response.AttachmentStatusResponse;
+import ru.kharevich.postservice.dto.response.CursorPageableResponse;
 import ru.kharevich.postservice.dto.response.PageableResponse;
+import ru.kharevich.postservice.dto.response.PostBatchResponse;
 import ru.kharevich.postservice.dto.response.PostResponse;
+import ru.kharevich.postservice.dto.transferObject.PostFields;
+import ru.kharevich.postservice.exception.InvalidImageModeException;
+import ru.kharevich.postservice.model.ImageMode;
 import ru.kharevich.postservice.service.PostService;
 import ru.kharevich.postservice.util.annotations.NotEmptyFiles;
 
 import java.util.List;
 import java.util.UUID;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import static ru.kharevich.postservice.util.constants.PostServiceMediaTypes.IMAGE_REFERENCE_JSON_VALUE;
+import static ru.kharevich.postservice.util.constants.PostServiceResponseMessages.INVALID_IMAGE_MODE_MESSAGE;
 
 @RestController
 @RequiredArgsConstructor
@@ -55,22 +75,210 @@ public class PostControllerImpl implements PostController {
     }
 
     @GetMapping("feed")
-    @ResponseStatus(HttpStatus.OK)
     public PageableResponse<PostResponse> getFeed(@RequestParam(defaultValue = "0") @Min(0) int page_number,
-                                                  @RequestParam(defaultValue = "10") int size) {
-        return postService.getFeed(page_number, size);
+                                                  @RequestParam(defaultValue = "10") int size,
+                                                  @RequestParam(required = false) String image_mode,
+                                                  @RequestParam(required = false) String fields,
+                                                  @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+                                                  WebRequest webRequest) {
+        ImageMode imageMode = resolveImageMode(image_mode, accept);
+        PostFields postFields = PostFields.of(fields);
+        return readConditionally(webRequest, () -> postService.getFeedETag(page_number, size, imageMode),
+                () -> postService.getFeed(page_number, size, imageMode, postFields),
+                page -> postService.getETag(page.content(), imageMode));
+    }
+
+    @GetMapping("feed/hot")
+    public PageableResponse<PostResponse> getHotFeed(@RequestParam(defaultValue = "0") @Min(0) int page_number,
+                                                     @RequestParam(defaultValue = "10") int size,
+                                                     @RequestParam(required = false) String image_mode,
+                                                     @RequestParam(required = false) String fields,
+                                                     @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+                                                     WebRequest webRequest) {
+        ImageMode imageMode = resolveImageMode(image_mode, accept);
+        PostFields postFields = PostFields.of(fields);
+        return readConditionally(webRequest, () -> postService.getHotFeedETag(page_number, size, imageMode),
+                () -> postService.getHotFeed(page_number, size, imageMode, postFields),
+                page -> postService.getETag(page.content(), imageMode));
+    }
+
+    /**
+     * Chosen with {@code Accept: application/x-ndjson}. Every post is written on its own line as soon as its
+     * images arrived, so the first posts leave before the rest of the page is assembled.
+     */
+    @GetMapping(value = "feed", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamFeed(@RequestParam(defaultValue = "0") @Min(0) int page_number,
+                                                            @RequestParam(defaultValue = "10") int size,
+                                                            @RequestParam(required = false) String image_mode,
+                                                            @RequestParam(required = false) String fields) {
+        StreamingResponseBody body = postService.streamFeed(page_number, size, resolveImageMode(image_mode, null),
+                PostFields.of(fields));
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
+    @GetMapping("feed/cursor")
+    @ResponseStatus(HttpStatus.OK)
+    public CursorPageableResponse<PostResponse> getFeedByCursor(@RequestParam(required = false) String cursor,
+                                                                @RequestParam(defaultValue = "10") @Min(1) int size,
+                                                                @RequestParam(required = false) String image_mode,
+                                                                @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        return postService.getFeedByCursor(cursor, size, resolveImageMode(image_mode, accept));
     }
 
+    /**
+     * Answered with 304 before any image is fetched when {@code If-None-Match} carries the current tag.
+     * Conditional reads declare no {@code @ResponseStatus}, it would overwrite the 304.
+     */
     @GetMapping("{id}")
+    public PostResponse getById(@PathVariable UUID id,
+                                @RequestParam(required = false) String image_mode,
+                                @RequestParam(required = false) String fields,
+                                @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+                                WebRequest webRequest) {
+        ImageMode imageMode = resolveImageMode(image_mode, accept);
+        PostFields postFields = PostFields.of(fields);
+        return readConditionally(webRequest, () -> postService.getETag(id, imageMode),
+                () -> postService.getById(id, imageMode, postFields),
+                post -> postService.getETag(List.of(post), imageMode));
+    }
+
+    @PostMapping("batch")
+    @ResponseStatus(HttpStatus.OK)
+    public PostBatchResponse getByIds(@RequestBody @Valid PostBatchRequest request,
+                                      @RequestParam(required = false) String image_mode,
+                                      @RequestParam(required = false) String fields,
+                                      @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        return postService.getByIds(request.ids(), resolveImageMode(image_mode, accept), PostFields.of(fields));
+    }
+
+    @GetMapping("{id}/attachments")
     @ResponseStatus(HttpStatus.OK)
-    public PostResponse getById(@PathVariable UUID id) {
-        return postService.getById(id);
+    public AttachmentStatusResponse getAttachmentStatus(@PathVariable UUID id) {
+        return postService.getAttachmentStatus(id);
+    }
+
+    @GetMapping("{id}/images/{imageId}")
+    public ResponseEntity<StreamingResponseBody> getImage(@PathVariable UUID id, @PathVariable @Min(0) int imageId) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .body(postService.getImageContent(id, imageId));
     }
 
     @GetMapping("author/{author}")
+    public PageableResponse<PostResponse> getPostsByAuthor(int page_number,
+                                                           int size,
+                                                           @PathVariable String author,
+                                                           @RequestParam(required = false) String image_mode,
+                                                           @RequestParam(required = false) String fields,
+                                                           @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+                                                           WebRequest webRequest) {
+        ImageMode imageMode = resolveImageMode(image_mode, accept);
+        PostFields postFields = PostFields.of(fields);
+        return readConditionally(webRequest,
+                () -> postService.getPostsByAuthorETag(page_number, size, author, imageMode),
+                () -> postService.getPostsByAuthor(page_number, size, author, imageMode, postFields),
+                page -> postService.getETag(page.content(), imageMode));
+    }
+
+    /**
+     * Served from the author's timeline, see {@link PostService#getPostsByAuthorId}. Prefer it over
+     * {@code author/{author}}, which matches the display name and always reads the posts table.
+     */
+    @GetMapping("authors/{authorId}")
+    public PageableResponse<PostResponse> getPostsByAuthorId(@RequestParam(defaultValue = "0") @Min(0) int page_number,
+                                                             @RequestParam(defaultValue = "10") int size,
+                                                             @PathVariable UUID authorId,
+                                                             @RequestParam(required = false) String image_mode,
+                                                             @RequestParam(required = false) String fields,
+                                                             @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+                                                             WebRequest webRequest) {
+        ImageMode imageMode = resolveImageMode(image_mode, accept);
+        PostFields postFields = PostFields.of(fields);
+        return readConditionally(webRequest,
+                () -> postService.getPostsByAuthorIdETag(page_number, size, authorId, imageMode),
+                () -> postService.getPostsByAuthorId(page_number, size, authorId, imageMode, postFields),
+                page -> postService.getETag(page.content(), imageMode));
+    }
+
+    @PostMapping("authors/{authorId}/timeline/rebuild")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public void rebuildAuthorTimeline(@PathVariable UUID authorId) {
+        postService.rebuildAuthorTimeline(authorId);
+    }
+
+    /**
+     * Not conditional: indexing does not change the tags of the posts, a revalidated result would miss newly indexed posts.
+     */
+    @GetMapping("search")
+    @ResponseStatus(HttpStatus.OK)
+    public PageableResponse<PostResponse> search(@RequestParam @NotBlank String query,
+                                                 @RequestParam(defaultValue = "0") @Min(0) int page_number,
+                                                 @RequestParam(defaultValue = "10") int size,
+                                                 @RequestParam(required = false) String image_mode,
+                                                 @RequestParam(required = false) String fields,
+                                                 @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        return postService.search(query, page_number, size, resolveImageMode(image_mode, accept), PostFields.of(fields));
+    }
+
+    @GetMapping(value = "author/{author}", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamPostsByAuthor(@RequestParam(defaultValue = "0") @Min(0) int page_number,
+                                                                     @RequestParam(defaultValue = "10") int size,
+                                                                     @PathVariable String author,
+                                                                     @RequestParam(required = false) String image_mode,
+                                                                     @RequestParam(required = false) String fields) {
+        StreamingResponseBody body = postService.streamPostsByAuthor(page_number, size, author,
+                resolveImageMode(image_mode, null), PostFields.of(fields));
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
+    @GetMapping("author/{author}/cursor")
     @ResponseStatus(HttpStatus.OK)
-    public PageableResponse<PostResponse> getPostsByAuthor(int page_number, int size, @PathVariable String author) {
-        return postService.getPostsByAuthor(page_number, size, author);
+    public CursorPageableResponse<PostResponse> getPostsByAuthorByCursor(@RequestParam(required = false) String cursor,
+                                                                         @RequestParam(defaultValue = "10") @Min(1) int size,
+                                                                         @PathVariable String author,
+                                                                         @RequestParam(required = false) String image_mode,
+                                                                         @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        return postService.getPostsByAuthorByCursor(cursor, size, author, resolveImageMode(image_mode, accept));
+    }
+
+    /**
+     * The current tag is only looked up when {@code If-None-Match} carries one to compare against. Otherwise the
+     * tag is derived from the posts just read, so an unconditional read issues no query for it.
+     */
+    private <T> T readConditionally(WebRequest webRequest,
+                                    Supplier<String> currentETag,
+                                    Supplier<T> read,
+                                    Function<T, String> servedETag) {
+        String eTag = webRequest.getHeader(HttpHeaders.IF_NONE_MATCH) == null ? null : currentETag.get();
+        if (eTag != null && webRequest.checkNotModified(eTag)) {
+            return null;
+        }
+        T response = read.get();
+        if (eTag == null) {
+            webRequest.checkNotModified(servedETag.apply(response));
+        }
+        return response;
+    }
+
+    /**
+     * An explicit {@code image_mode} parameter wins over the {@code Accept} header.
+     */
+    private ImageMode resolveImageMode(String imageMode, String accept) {
+        if (imageMode != null) {
+            ImageMode mode = ImageMode.fromParameter(imageMode);
+            if (mode == null) {
+                throw new InvalidImageModeException(INVALID_IMAGE_MODE_MESSAGE);
+            }
+            return mode;
+        }
+        if (accept != null && accept.contains(IMAGE_REFERENCE_JSON_VALUE)) {
+            return ImageMode.REFERENCE;
+        }
+        return ImageMode.INLINE;
     }
 
 }
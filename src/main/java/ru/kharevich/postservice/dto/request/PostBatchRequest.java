@@ -0,0 +1,13 @@
+package ru.kharevich.postservice.dto.request;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+
+import java.util.List;
+import java.util.UUID;
+
+public record PostBatchRequest(
+        @NotEmpty(message = "at least one post id is required")
+        List<@NotNull UUID> ids
+) {
+}
@@ -6,11 +6,29 @@ import java.util.UUID;
  * @param postId Post ID
  * @param numberOfLikes Total number of likes for the post
  * @param numberOfComments Total number of comments for the post
+ * @param version Sequence number of the counters of the post, increasing with every change. Events with
+ *                a version not above the applied one are ignored; events without a version are always applied
  */
 public record ActivityResponse(
+
         UUID postId,
 
         Integer numberOfLikes,
 
-        Integer numberOfComments
-) {}
+        Integer numberOfComments,
+
+        Long version
+) {
+
+    /**
+     * The newer of two events of the same post: the one with the higher version, or the received one when
+     * either of them is not versioned.
+     */
+    public static ActivityResponse newer(ActivityResponse applied, ActivityResponse received) {
+        if (applied.version() != null && received.version() != null && received.version() < applied.version()) {
+            return applied;
+        }
+        return received;
+    }
+
+}
@@ -0,0 +1,24 @@
+package ru.kharevich.postservice.dto.response;
+
+import ru.kharevich.postservice.model.AttachmentStatus;
+
+import java.util.UUID;
+
+/**
+ * @param postId Post ID
+ * @param status Overall state of the post attachments
+ * @param pendingImages Number of images still waiting to be uploaded
+ * @param failedImages Number of images that could not be uploaded
+ */
+public record AttachmentStatusResponse(
+
+        UUID postId,
+
+        AttachmentStatus status,
+
+        long pendingImages,
+
+        long failedImages
+
+) {
+}
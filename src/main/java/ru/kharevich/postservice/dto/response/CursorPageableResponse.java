@@ -0,0 +1,20 @@
+package ru.kharevich.postservice.dto.response;
+
+
+import java.util.List;
+
+/**
+ * @param pageSize Requested page size
+ * @param nextCursor Opaque cursor for the next page, null when there are no more posts
+ * @param content Posts of the current page
+ */
+public record CursorPageableResponse<T>(
+
+        int pageSize,
+
+        String nextCursor,
+
+        List<T> content
+
+) {
+}
@@ -0,0 +1,32 @@
+package ru.kharevich.postservice.dto.response;
+
+import java.util.UUID;
+
+/**
+ * @param id Position of the image among the attachments of its post
+ * @param name Original file name
+ * @param size Size of the image in bytes
+ * @param contentType Content type of the image
+ * @param url Relative url the image bytes can be fetched from
+ */
+public record ImageDescriptor(
+
+        int id,
+
+        String name,
+
+        long size,
+
+        String contentType,
+
+        String url
+
+) {
+
+    private static final String IMAGE_URL_TEMPLATE = "/api/v1/posts/%s/images/%d";
+
+    public static ImageDescriptor of(UUID postId, int id, String name, long size, String contentType) {
+        return new ImageDescriptor(id, name, size, contentType, IMAGE_URL_TEMPLATE.formatted(postId, id));
+    }
+
+}
@@ -0,0 +1,17 @@
+package ru.kharevich.postservice.dto.response;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * @param posts Found posts in the order their ids were requested
+ * @param missing Requested ids without a post, in request order
+ */
+public record PostBatchResponse(
+
+        List<PostResponse> posts,
+
+        List<UUID> missing
+
+) {
+}
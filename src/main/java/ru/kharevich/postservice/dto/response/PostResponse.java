@@ -1,9 +1,18 @@
 package ru.kharevich.postservice.dto.response;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import ru.kharevich.postservice.model.AttachmentStatus;
+
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
 
+/**
+ * Depending on the requested {@link ru.kharevich.postservice.model.ImageMode} either
+ * {@code files} (inlined bytes) or {@code images} (descriptors) is filled, the other one is omitted.
+ * {@code updatedAt} is not written, it only feeds the entity tag of the response.
+ */
 public record PostResponse(
 
         UUID id,
@@ -20,7 +29,19 @@ public record PostResponse(
 
         LocalDateTime createdAt,
 
-        List<byte[]> files
+        @JsonIgnore
+        LocalDateTime updatedAt,
+
+        AttachmentStatus attachmentStatus,
+
+        @JsonInclude(JsonInclude.Include.NON_NULL)
+        List<byte[]> files,
+
+        @JsonInclude(JsonInclude.Include.NON_NULL)
+        List<ImageDescriptor> images,
+
+        @JsonInclude(JsonInclude.Include.NON_NULL)
+        Boolean imagesUnavailable
 
 ) {
 }
@@ -0,0 +1,13 @@
+package ru.kharevich.postservice.dto.transferObject;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+public record PostCursor(
+
+        LocalDateTime createdAt,
+
+        UUID id
+
+) {
+}
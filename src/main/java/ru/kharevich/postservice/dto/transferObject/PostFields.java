@@ -0,0 +1,63 @@
+package ru.kharevich.postservice.dto.transferObject;
+
+import ru.kharevich.postservice.exception.InvalidFieldsException;
+import ru.kharevich.postservice.model.PostField;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.Set;
+
+import static ru.kharevich.postservice.util.constants.PostServiceResponseMessages.INVALID_FIELDS_MESSAGE;
+
+/**
+ * Sparse fieldset of a post read, parsed from a comma separated {@code fields} parameter.
+ * {@code imagesUnavailable} is not requested on its own, it is written whenever an image field is.
+ */
+public record PostFields(
+
+        Set<PostField> fields
+
+) {
+
+    public static final PostFields ALL = new PostFields(EnumSet.allOf(PostField.class));
+
+    private static final String IMAGES_UNAVAILABLE_PROPERTY = "imagesUnavailable";
+
+    public PostFields {
+        fields = Collections.unmodifiableSet(EnumSet.copyOf(fields));
+    }
+
+    public static PostFields of(String fields) {
+        if (fields == null || fields.isBlank()) {
+            return ALL;
+        }
+        Set<PostField> requested = EnumSet.noneOf(PostField.class);
+        for (String property : fields.split(",")) {
+            PostField field = PostField.fromProperty(property.trim());
+            if (field == null) {
+                throw new InvalidFieldsException(INVALID_FIELDS_MESSAGE);
+            }
+            requested.add(field);
+        }
+        return new PostFields(requested);
+    }
+
+    public boolean includes(PostField field) {
+        return fields.contains(field);
+    }
+
+    public boolean includesImages() {
+        return includes(PostField.FILES) || includes(PostField.IMAGES);
+    }
+
+    public Set<String> properties() {
+        Set<String> properties = new HashSet<>();
+        fields.forEach(field -> properties.add(field.getProperty()));
+        if (includesImages()) {
+            properties.add(IMAGES_UNAVAILABLE_PROPERTY);
+        }
+        return properties;
+    }
+
+}
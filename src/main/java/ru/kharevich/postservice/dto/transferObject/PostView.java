@@ -0,0 +1,33 @@
+package ru.kharevich.postservice.dto.transferObject;
+
+import ru.kharevich.postservice.model.AttachmentStatus;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Read-only row of {@code posts} selected with a constructor expression. Unlike a {@link ru.kharevich.postservice.model.Post}
+ * it never enters the persistence context, so reads pay neither for the entity snapshot nor for dirty checking.
+ */
+public record PostView(
+
+        UUID id,
+
+        String text,
+
+        String author,
+
+        UUID authorId,
+
+        Integer numberOfLikes,
+
+        Integer numberOfComments,
+
+        LocalDateTime createdAt,
+
+        LocalDateTime updatedAt,
+
+        AttachmentStatus attachmentStatus
+
+) {
+}
@@ -0,0 +1,7 @@
+package ru.kharevich.postservice.exception;
+
+public class BatchTooLargeException extends RuntimeException {
+    public BatchTooLargeException(String message) {
+        super(message);
+    }
+}
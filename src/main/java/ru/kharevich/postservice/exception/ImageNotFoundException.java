@@ -0,0 +1,7 @@
+package ru.kharevich.postservice.exception;
+
+public class ImageNotFoundException extends RuntimeException {
+    public ImageNotFoundException(String message) {
+        super(message);
+    }
+}
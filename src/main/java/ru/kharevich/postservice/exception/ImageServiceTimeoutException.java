@@ -0,0 +1,10 @@
+package ru.kharevich.postservice.exception;
+
+/**
+ * The image service did not answer within the time limit of the called method.
+ */
+public class ImageServiceTimeoutException extends ImageServiceInternalError {
+    public ImageServiceTimeoutException(String message) {
+        super(message);
+    }
+}
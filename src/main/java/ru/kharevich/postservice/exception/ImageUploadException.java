@@ -0,0 +1,19 @@
+package ru.kharevich.postservice.exception;
+
+import lombok.Getter;
+
+/**
+ * Failed upload to the image service. Uploads are not idempotent, so {@code retryable} is only set
+ * when the request is known not to have been processed.
+ */
+@Getter
+public class ImageUploadException extends ImageServiceInternalError {
+
+    private final boolean retryable;
+
+    public ImageUploadException(String message, boolean retryable) {
+        super(message);
+        this.retryable = retryable;
+    }
+
+}
@@ -0,0 +1,7 @@
+package ru.kharevich.postservice.exception;
+
+public class InvalidFieldsException extends RuntimeException {
+    public InvalidFieldsException(String message) {
+        super(message);
+    }
+}
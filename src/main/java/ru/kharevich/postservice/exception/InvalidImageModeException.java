@@ -0,0 +1,7 @@
+package ru.kharevich.postservice.exception;
+
+public class InvalidImageModeException extends RuntimeException {
+    public InvalidImageModeException(String message) {
+        super(message);
+    }
+}
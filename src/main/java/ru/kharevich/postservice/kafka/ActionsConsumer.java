@@ -1,23 +1,60 @@
 package ru.kharevich.postservice.kafka;
 
-import lombok.RequiredArgsConstructor;
-import org.springframework.beans.factory.annotation.Value;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.kafka.annotation.KafkaListener;
-import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Service;
+import ru.kharevich.postservice.config.properties.ActivityConsumerProperties;
 import ru.kharevich.postservice.dto.response.ActivityResponse;
 import ru.kharevich.postservice.service.PostService;
 
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Applies activity records one by one. Only a sample of the records is logged, so the listener does not
+ * pay for log I/O on every message; {@code activity.lag} and {@code activity.processing} cover all of them.
+ */
+@Slf4j
 @Service
-@RequiredArgsConstructor
+@ConditionalOnProperty(name = "post-service.kafka.activity.mode", havingValue = "single", matchIfMissing = true)
 public class ActionsConsumer {
 
     private final PostService postService;
+    private final Timer lag;
+    private final Timer processing;
+    private final double logSampleRate;
+
+    public ActionsConsumer(PostService postService, MeterRegistry meterRegistry, ActivityConsumerProperties properties) {
+        this.postService = postService;
+        this.lag = Timer.builder("activity.lag")
+                .description("Age of an activity record when it is processed")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.processing = Timer.builder("activity.processing")
+                .description("Time spent applying an activity record")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.logSampleRate = properties.logSampleRate();
+    }
 
-    @KafkaListener(topics = "activity-topic",groupId = "activity-group")
-    public void consumeSupplyRequests(ActivityResponse message) {
-        postService.updateActivity(message);
-        System.out.println("got message" + message);
+    @KafkaListener(topics = "activity-topic", groupId = "activity-group")
+    public void consumeSupplyRequests(ConsumerRecord<String, ActivityResponse> record) {
+        lag.record(Duration.ofMillis(Math.max(0, System.currentTimeMillis() - record.timestamp())));
+        ActivityResponse message = record.value();
+        processing.record(() -> postService.updateActivity(message));
+        if (log.isInfoEnabled() && ThreadLocalRandom.current().nextDouble() < logSampleRate) {
+            log.atInfo()
+                    .addKeyValue("postId", message.postId())
+                    .addKeyValue("numberOfLikes", message.numberOfLikes())
+                    .addKeyValue("numberOfComments", message.numberOfComments())
+                    .addKeyValue("partition", record.partition())
+                    .addKeyValue("offset", record.offset())
+                    .log("Applied activity for post {}", message.postId());
+        }
     }
 
-}
\ No newline at end of file
+}
@@ -0,0 +1,64 @@
+package ru.kharevich.postservice.kafka;
+
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.serialization.Deserializer;
+import org.springframework.http.MediaType;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+import org.springframework.messaging.MessageHeaders;
+import ru.kharevich.postservice.dto.response.ActivityResponse;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * Reads activity records written as CBOR when they carry a {@code contentType: application/cbor} header,
+ * through a reader bound to {@link ActivityResponse} that skips type resolution. Every other record is
+ * handed to a {@link JsonDeserializer} configured with the consumer properties, so JSON producers keep working.
+ */
+public class ActivityDeserializer implements Deserializer<Object> {
+
+    private static final byte[] CBOR = MediaType.APPLICATION_CBOR_VALUE.getBytes(StandardCharsets.US_ASCII);
+
+    private final ObjectReader cborReader = new CBORMapper().readerFor(ActivityResponse.class);
+
+    private final JsonDeserializer<Object> jsonDeserializer = new JsonDeserializer<>();
+
+    @Override
+    public void configure(Map<String, ?> configs, boolean isKey) {
+        jsonDeserializer.configure(configs, isKey);
+    }
+
+    @Override
+    public Object deserialize(String topic, byte[] data) {
+        return jsonDeserializer.deserialize(topic, data);
+    }
+
+    @Override
+    public Object deserialize(String topic, Headers headers, byte[] data) {
+        if (data == null || !isCbor(headers)) {
+            return jsonDeserializer.deserialize(topic, headers, data);
+        }
+        try {
+            return cborReader.readValue(data);
+        } catch (IOException e) {
+            throw new SerializationException("Can't deserialize CBOR activity record from topic " + topic, e);
+        }
+    }
+
+    @Override
+    public void close() {
+        jsonDeserializer.close();
+    }
+
+    private static boolean isCbor(Headers headers) {
+        Header contentType = headers.lastHeader(MessageHeaders.CONTENT_TYPE);
+        return contentType != null && Arrays.equals(contentType.value(), CBOR);
+    }
+
+}
@@ -0,0 +1,78 @@
+package ru.kharevich.postservice.kafka;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Service;
+import ru.kharevich.postservice.dto.response.ActivityResponse;
+import ru.kharevich.postservice.service.PostService;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+@Service
+@ConditionalOnProperty(name = "post-service.kafka.activity.mode", havingValue = "batch")
+public class BatchActionsConsumer {
+
+    private final PostService postService;
+    private final DistributionSummary batchSize;
+    private final DistributionSummary coalescedBatchSize;
+    private final Timer batchLag;
+
+    public BatchActionsConsumer(PostService postService, MeterRegistry meterRegistry) {
+        this.postService = postService;
+        this.batchSize = DistributionSummary.builder("activity.batch.size")
+                .description("Records received per activity batch")
+                .register(meterRegistry);
+        this.coalescedBatchSize = DistributionSummary.builder("activity.batch.coalesced.size")
+                .description("Distinct posts written per activity batch")
+                .register(meterRegistry);
+        this.batchLag = Timer.builder("activity.batch.lag")
+                .description("Age of the oldest record of a batch when it is processed")
+                .register(meterRegistry);
+    }
+
+    @KafkaListener(topics = "activity-topic", groupId = "activity-group",
+            containerFactory = "batchActivityListenerContainerFactory", batch = "true")
+    public void consumeSupplyRequests(List<ConsumerRecord<String, ActivityResponse>> records) {
+        if (records.isEmpty()) {
+            return;
+        }
+        batchSize.record(records.size());
+        batchLag.record(Duration.ofMillis(Math.max(0, System.currentTimeMillis() - oldestTimestamp(records))));
+        Collection<ActivityResponse> latest = coalesce(records);
+        coalescedBatchSize.record(latest.size());
+        postService.updateActivities(latest);
+    }
+
+    /**
+     * Activity events carry absolute counters, so only the newest event per post within the batch matters:
+     * the one with the highest version, or the last one received when the events are not versioned.
+     */
+    static Collection<ActivityResponse> coalesce(List<ConsumerRecord<String, ActivityResponse>> records) {
+        Map<UUID, ActivityResponse> latest = new LinkedHashMap<>();
+        for (ConsumerRecord<String, ActivityResponse> record : records) {
+            ActivityResponse activity = record.value();
+            if (activity != null && activity.postId() != null) {
+                latest.merge(activity.postId(), activity, ActivityResponse::newer);
+            }
+        }
+        return latest.values();
+    }
+
+    private long oldestTimestamp(List<ConsumerRecord<String, ActivityResponse>> records) {
+        long oldest = Long.MAX_VALUE;
+        for (ConsumerRecord<String, ActivityResponse> record : records) {
+            oldest = Math.min(oldest, record.timestamp());
+        }
+        return oldest;
+    }
+
+}
@@ -0,0 +1,58 @@
+package ru.kharevich.postservice.kafka;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.stereotype.Service;
+import ru.kharevich.postservice.activity.ActivityBuffer;
+import ru.kharevich.postservice.activity.ActivityBufferFlusher;
+import ru.kharevich.postservice.dto.response.ActivityResponse;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Hands activity batches to the {@link ActivityBuffer} instead of writing them. The acknowledgment travels
+ * with the buffered counters and is released by {@link ActivityBufferFlusher} once they are written.
+ */
+@Service
+@ConditionalOnProperty(name = "post-service.kafka.activity.mode", havingValue = "buffered")
+public class BufferedActionsConsumer {
+
+    private final ActivityBuffer activityBuffer;
+    private final ActivityBufferFlusher activityBufferFlusher;
+    private final Timer batchLag;
+
+    public BufferedActionsConsumer(ActivityBuffer activityBuffer,
+                                   ActivityBufferFlusher activityBufferFlusher,
+                                   MeterRegistry meterRegistry) {
+        this.activityBuffer = activityBuffer;
+        this.activityBufferFlusher = activityBufferFlusher;
+        this.batchLag = Timer.builder("activity.batch.lag")
+                .description("Age of the oldest record of a batch when it is processed")
+                .register(meterRegistry);
+    }
+
+    @KafkaListener(topics = "activity-topic", groupId = "activity-group",
+            containerFactory = "bufferedActivityListenerContainerFactory", batch = "true")
+    public void consumeSupplyRequests(List<ConsumerRecord<String, ActivityResponse>> records,
+                                      Acknowledgment acknowledgment) {
+        if (records.isEmpty()) {
+            return;
+        }
+        List<ActivityResponse> activities = new ArrayList<>(records.size());
+        long oldest = Long.MAX_VALUE;
+        for (ConsumerRecord<String, ActivityResponse> record : records) {
+            activities.add(record.value());
+            oldest = Math.min(oldest, record.timestamp());
+        }
+        batchLag.record(Duration.ofMillis(Math.max(0, System.currentTimeMillis() - oldest)));
+        activityBuffer.add(activities, acknowledgment);
+        activityBufferFlusher.flushIfFull();
+    }
+
+}
@@ -0,0 +1,7 @@
+package ru.kharevich.postservice.model;
+
+public enum AttachmentStatus {
+    PENDING,
+    ATTACHED,
+    FAILED
+}
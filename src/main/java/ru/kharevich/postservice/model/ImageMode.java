@@ -0,0 +1,18 @@
+package ru.kharevich.postservice.model;
+
+import java.util.Arrays;
+
+public enum ImageMode {
+    INLINE,
+    REFERENCE;
+
+    /**
+     * @return the mode named by an {@code image_mode} parameter in any case, {@code null} when there is none
+     */
+    public static ImageMode fromParameter(String parameter) {
+        return Arrays.stream(values())
+                .filter(mode -> mode.name().equalsIgnoreCase(parameter))
+                .findFirst()
+                .orElse(null);
+    }
+}
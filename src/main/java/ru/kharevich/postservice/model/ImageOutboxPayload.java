@@ -0,0 +1,47 @@
+package ru.kharevich.postservice.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.Id;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.MapsId;
+import jakarta.persistence.OneToOne;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+import java.util.UUID;
+
+/**
+ * Bytes of an {@link ImageOutboxEntry}, kept apart so that claiming entries does not read them. Written in
+ * the same transaction as the entry and removed with it by the database.
+ */
+@Entity
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Builder
+@Setter
+@Table(name = "image_outbox_payloads")
+public class ImageOutboxPayload {
+
+    @Id
+    @Column(name = "entry_id")
+    private UUID entryId;
+
+    @MapsId
+    @OneToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "entry_id")
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private ImageOutboxEntry entry;
+
+    @Column(name = "content", nullable = false)
+    private byte[] content;
+
+}
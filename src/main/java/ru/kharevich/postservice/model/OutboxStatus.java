@@ -0,0 +1,7 @@
+package ru.kharevich.postservice.model;
+
+public enum OutboxStatus {
+    PENDING,
+    IN_PROGRESS,
+    FAILED
+}
@@ -2,21 +2,31 @@ package ru.kharevich.postservice.model;
 
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.DynamicUpdate;
+import org.hibernate.annotations.UpdateTimestamp;
 
 import java.time.LocalDateTime;
 import java.util.UUID;
 
+/**
+ * Edits are guarded by {@link #version}. Updates only write the changed columns, so an edit of the text
+ * and a concurrent counter update, which does not bump the version, never overwrite each other.
+ */
 @Entity
+@DynamicUpdate
 @AllArgsConstructor
 @NoArgsConstructor
 @Getter
@@ -50,4 +60,27 @@ public class Post {
     @CreationTimestamp
     private LocalDateTime createdAt;
 
+    /**
+     * Moved forward by every write, counter and attachment status updates included. Post ETags are derived from it.
+     */
+    @Column(name = "updated_at", nullable = false)
+    @UpdateTimestamp
+    private LocalDateTime updatedAt;
+
+    @Column(name = "attachment_status", nullable = false)
+    @Enumerated(EnumType.STRING)
+    @Builder.Default
+    private AttachmentStatus attachmentStatus = AttachmentStatus.ATTACHED;
+
+    /**
+     * Version of the last applied activity event. Written only by the counter updates, never by the entity.
+     */
+    @Column(name = "activity_version", nullable = false, updatable = false)
+    @Builder.Default
+    private Long activityVersion = 0L;
+
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
 }
\ No newline at end of file
@@ -0,0 +1,37 @@
+package ru.kharevich.postservice.model;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Properties of {@link ru.kharevich.postservice.dto.response.PostResponse} a client can ask for with {@code fields}.
+ */
+@Getter
+@RequiredArgsConstructor
+public enum PostField {
+    ID("id"),
+    TEXT("text"),
+    AUTHOR("author"),
+    AUTHOR_ID("authorId"),
+    NUMBER_OF_LIKES("numberOfLikes"),
+    NUMBER_OF_COMMENTS("numberOfComments"),
+    CREATED_AT("createdAt"),
+    ATTACHMENT_STATUS("attachmentStatus"),
+    FILES("files"),
+    IMAGES("images");
+
+    private static final Map<String, PostField> BY_PROPERTY = Arrays.stream(values())
+            .collect(Collectors.toUnmodifiableMap(PostField::getProperty, Function.identity()));
+
+    private final String property;
+
+    public static PostField fromProperty(String property) {
+        return BY_PROPERTY.get(property);
+    }
+
+}
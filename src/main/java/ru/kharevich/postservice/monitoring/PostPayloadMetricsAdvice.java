@@ -0,0 +1,83 @@
+package ru.kharevich.postservice.monitoring;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.MappingJacksonValue;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+import ru.kharevich.postservice.controller.impl.PostControllerImpl;
+import ru.kharevich.postservice.dto.response.CursorPageableResponse;
+import ru.kharevich.postservice.dto.response.PageableResponse;
+import ru.kharevich.postservice.dto.response.PostBatchResponse;
+import ru.kharevich.postservice.dto.response.PostResponse;
+
+import java.util.List;
+
+/**
+ * Records the size of the inlined {@link PostResponse#files()} of every post written by the controller in
+ * {@code post.response.files.size}, cache hits included. Posts served with image references are not recorded.
+ */
+@RestControllerAdvice(assignableTypes = PostControllerImpl.class)
+public class PostPayloadMetricsAdvice implements ResponseBodyAdvice<Object> {
+
+    private final DistributionSummary filesSize;
+
+    public PostPayloadMetricsAdvice(MeterRegistry meterRegistry) {
+        this.filesSize = DistributionSummary.builder("post.response.files.size")
+                .description("Inlined image bytes per returned post")
+                .baseUnit("bytes")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body,
+                                  MethodParameter returnType,
+                                  MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request,
+                                  ServerHttpResponse response) {
+        switch (body instanceof MappingJacksonValue container ? container.getValue() : body) {
+            case PostResponse post -> record(post);
+            case PageableResponse<?> page -> record(page.content());
+            case CursorPageableResponse<?> page -> record(page.content());
+            case PostBatchResponse batch -> record(batch.posts());
+            case null, default -> {
+            }
+        }
+        return body;
+    }
+
+    private void record(List<?> content) {
+        if (content == null) {
+            return;
+        }
+        for (Object item : content) {
+            if (item instanceof PostResponse post) {
+                record(post);
+            }
+        }
+    }
+
+    private void record(PostResponse post) {
+        if (post.files() == null) {
+            return;
+        }
+        long bytes = 0;
+        for (byte[] file : post.files()) {
+            bytes += file.length;
+        }
+        filesSize.record(bytes);
+    }
+
+}
@@ -0,0 +1,96 @@
+package ru.kharevich.postservice.outbox;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.multipart.MultipartFile;
+import ru.kharevich.postservice.config.properties.OutboxProperties;
+import ru.kharevich.postservice.dto.response.AttachmentStatusResponse;
+import ru.kharevich.postservice.exception.PostServiceInternalError;
+import ru.kharevich.postservice.model.ImageOutboxEntry;
+import ru.kharevich.postservice.model.ImageOutboxPayload;
+import ru.kharevich.postservice.model.OutboxStatus;
+import ru.kharevich.postservice.model.Post;
+import ru.kharevich.postservice.repository.ImageOutboxPayloadRepository;
+import ru.kharevich.postservice.repository.ImageOutboxRepository;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static ru.kharevich.postservice.util.constants.PostServiceResponseMessages.IMAGE_PARSE_ERROR_MESSAGE;
+
+/**
+ * Hands attachments of a new post over to {@link ImageOutboxDispatcher}. The outbox rows and the bytes of
+ * the files are written in the caller's transaction, together with the post, so whichever instance claims
+ * an entry can upload it.
+ */
+@Component
+@RequiredArgsConstructor
+public class ImageOutbox {
+
+    private static final Set<OutboxStatus> UNFINISHED_STATUSES = Set.of(OutboxStatus.PENDING, OutboxStatus.IN_PROGRESS);
+
+    private final OutboxProperties properties;
+    private final ImageOutboxRepository imageOutboxRepository;
+    private final ImageOutboxPayloadRepository imageOutboxPayloadRepository;
+
+    public boolean isEnabled() {
+        return properties.enabled();
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enqueue(UUID postId, List<MultipartFile> files) {
+        LocalDateTime now = LocalDateTime.now();
+        List<ImageOutboxPayload> payloads = new ArrayList<>(files.size());
+        try {
+            for (MultipartFile file : files) {
+                ImageOutboxEntry entry = imageOutboxRepository.save(ImageOutboxEntry.builder()
+                        .postId(postId)
+                        .fileName(fileName(file))
+                        .contentType(file.getContentType())
+                        .nextAttemptAt(now)
+                        .build());
+                payloads.add(ImageOutboxPayload.builder()
+                        .entry(entry)
+                        .content(file.getBytes())
+                        .build());
+            }
+        } catch (IOException e) {
+            throw new PostServiceInternalError(IMAGE_PARSE_ERROR_MESSAGE);
+        }
+        imageOutboxPayloadRepository.saveAll(payloads);
+    }
+
+    /**
+     * Drops pending uploads of a deleted post together with their bytes.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void discard(UUID postId) {
+        imageOutboxRepository.deleteByPostId(postId);
+    }
+
+    public AttachmentStatusResponse getStatus(Post post) {
+        return new AttachmentStatusResponse(
+                post.getId(),
+                post.getAttachmentStatus(),
+                imageOutboxRepository.countByPostIdAndStatusIn(post.getId(), UNFINISHED_STATUSES),
+                imageOutboxRepository.countByPostIdAndStatusIn(post.getId(), Set.of(OutboxStatus.FAILED))
+        );
+    }
+
+    private String fileName(MultipartFile file) {
+        String originalName = file.getOriginalFilename();
+        if (originalName == null || originalName.isBlank()) {
+            return "file";
+        }
+        Path name = Path.of(originalName).getFileName();
+        return name == null ? "file" : name.toString();
+    }
+
+}
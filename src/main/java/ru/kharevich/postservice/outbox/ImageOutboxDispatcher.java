@@ -0,0 +1,198 @@
+package ru.kharevich.postservice.outbox;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.core.env.Environment;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.kharevich.postservice.cache.PostCache;
+import ru.kharevich.postservice.clients.ImageUploadClient;
+import ru.kharevich.postservice.config.properties.OutboxProperties;
+import ru.kharevich.postservice.exception.ImageUploadException;
+import ru.kharevich.postservice.model.AttachmentStatus;
+import ru.kharevich.postservice.model.ImageOutboxEntry;
+import ru.kharevich.postservice.model.ImageOutboxPayload;
+import ru.kharevich.postservice.model.OutboxStatus;
+import ru.kharevich.postservice.repository.ImageOutboxPayloadRepository;
+import ru.kharevich.postservice.repository.ImageOutboxRepository;
+import ru.kharevich.postservice.repository.PostRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+
+import static ru.kharevich.postservice.util.constants.PostServiceResponseMessages.OUTBOX_PAYLOAD_MISSING_MESSAGE;
+
+/**
+ * Drains the image outbox in the background. Entries are claimed in a short transaction, uploaded
+ * outside of any transaction with at most {@code maxConcurrency} uploads in flight, and retried with
+ * exponential backoff until {@code maxAttempts} is reached. Only failures known to have left the image
+ * service untouched are retried. With virtual threads enabled every upload
+ * gets its own virtual thread and only the semaphore bounds the concurrency.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "post-service.outbox.enabled", havingValue = "true")
+public class ImageOutboxDispatcher implements DisposableBean {
+
+    private static final Set<OutboxStatus> CLAIMABLE_STATUSES = Set.of(OutboxStatus.PENDING, OutboxStatus.IN_PROGRESS);
+    private static final Set<OutboxStatus> REMAINING_STATUSES = Set.of(OutboxStatus.values());
+    private static final int MAX_ERROR_LENGTH = 255;
+
+    private final OutboxProperties properties;
+    private final ImageOutboxRepository imageOutboxRepository;
+    private final ImageOutboxPayloadRepository imageOutboxPayloadRepository;
+    private final PostRepository postRepository;
+    private final ImageUploadClient imageUploadClient;
+    private final PostCache postCache;
+    private final TransactionTemplate transactionTemplate;
+    private final Semaphore uploadPermits;
+    private final ExecutorService uploadExecutor;
+
+    public ImageOutboxDispatcher(OutboxProperties properties,
+                                 ImageOutboxRepository imageOutboxRepository,
+                                 ImageOutboxPayloadRepository imageOutboxPayloadRepository,
+                                 PostRepository postRepository,
+                                 ImageUploadClient imageUploadClient,
+                                 PostCache postCache,
+                                 TransactionTemplate transactionTemplate,
+                                 Environment environment) {
+        this.properties = properties;
+        this.imageOutboxRepository = imageOutboxRepository;
+        this.imageOutboxPayloadRepository = imageOutboxPayloadRepository;
+        this.postRepository = postRepository;
+        this.imageUploadClient = imageUploadClient;
+        this.postCache = postCache;
+        this.transactionTemplate = transactionTemplate;
+        this.uploadPermits = new Semaphore(properties.maxConcurrency());
+        this.uploadExecutor = Threading.VIRTUAL.isActive(environment)
+                ? Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("outbox-upload-", 0).factory())
+                : Executors.newFixedThreadPool(properties.maxConcurrency());
+    }
+
+    @Scheduled(fixedDelayString = "${post-service.outbox.poll-interval:1s}")
+    public void dispatch() {
+        int available = Math.min(uploadPermits.availablePermits(), properties.batchSize());
+        if (available == 0) {
+            return;
+        }
+        List<ImageOutboxEntry> claimed = transactionTemplate.execute(status -> claim(available));
+        if (claimed == null) {
+            return;
+        }
+        for (ImageOutboxEntry entry : claimed) {
+            uploadPermits.acquireUninterruptibly();
+            uploadExecutor.execute(() -> {
+                try {
+                    upload(entry);
+                } finally {
+                    uploadPermits.release();
+                }
+            });
+        }
+    }
+
+    @Override
+    public void destroy() {
+        uploadExecutor.shutdown();
+    }
+
+    /**
+     * Claimed entries get a lease instead of a lock, so entries of a crashed dispatcher become due again.
+     */
+    private List<ImageOutboxEntry> claim(int limit) {
+        LocalDateTime now = LocalDateTime.now();
+        List<ImageOutboxEntry> due = imageOutboxRepository.findDueForUpdate(CLAIMABLE_STATUSES, now, Limit.of(limit));
+        for (ImageOutboxEntry entry : due) {
+            entry.setStatus(OutboxStatus.IN_PROGRESS);
+            entry.setAttempts(entry.getAttempts() + 1);
+            entry.setNextAttemptAt(now.plus(properties.lease()));
+        }
+        return due;
+    }
+
+    /**
+     * An entry without bytes, e.g. one written before they were stored in the database, cannot be uploaded.
+     */
+    private void upload(ImageOutboxEntry entry) {
+        try {
+            ImageOutboxPayload payload = imageOutboxPayloadRepository.findById(entry.getId())
+                    .orElseThrow(() -> new ImageUploadException(OUTBOX_PAYLOAD_MISSING_MESSAGE, false));
+            imageUploadClient.upload(entry.getPostId(), new OutboxFileResource(payload.getContent(),
+                    entry.getFileName()), entry.getContentType());
+        } catch (RuntimeException e) {
+            log.warn("Upload of outbox entry {} for post {} failed on attempt {}",
+                    entry.getId(), entry.getPostId(), entry.getAttempts(), e);
+            transactionTemplate.executeWithoutResult(status -> onFailure(entry, e));
+            return;
+        }
+        transactionTemplate.executeWithoutResult(status -> onSuccess(entry));
+    }
+
+    private void onSuccess(ImageOutboxEntry entry) {
+        imageOutboxRepository.deleteById(entry.getId());
+        if (imageOutboxRepository.countByPostIdAndStatusIn(entry.getPostId(), REMAINING_STATUSES) == 0) {
+            postRepository.updateAttachmentStatus(entry.getPostId(), AttachmentStatus.ATTACHED);
+        }
+        postCache.evict(entry.getPostId());
+    }
+
+    private void onFailure(ImageOutboxEntry claimed, RuntimeException error) {
+        imageOutboxRepository.findById(claimed.getId()).ifPresent(entry -> {
+            entry.setLastError(truncate(error.getMessage()));
+            if (!isRetryable(error) || entry.getAttempts() >= properties.maxAttempts()) {
+                entry.setStatus(OutboxStatus.FAILED);
+                postRepository.updateAttachmentStatus(entry.getPostId(), AttachmentStatus.FAILED);
+                postCache.evict(entry.getPostId());
+                return;
+            }
+            Duration backoff = properties.initialBackoff().multipliedBy(1L << Math.min(entry.getAttempts() - 1, 16));
+            entry.setStatus(OutboxStatus.PENDING);
+            entry.setNextAttemptAt(LocalDateTime.now().plus(backoff));
+        });
+    }
+
+    /**
+     * Uploads are not idempotent: a failure after the image service may have stored the file is not
+     * retried, since a retry could attach the image twice.
+     */
+    private boolean isRetryable(RuntimeException error) {
+        return error instanceof ImageUploadException uploadException && uploadException.isRetryable();
+    }
+
+    private String truncate(String message) {
+        if (message == null || message.length() <= MAX_ERROR_LENGTH) {
+            return message;
+        }
+        return message.substring(0, MAX_ERROR_LENGTH);
+    }
+
+    /**
+     * Bytes of an outbox entry, sent under the original file name.
+     */
+    private static final class OutboxFileResource extends ByteArrayResource {
+
+        private final String fileName;
+
+        private OutboxFileResource(byte[] content, String fileName) {
+            super(content);
+            this.fileName = fileName;
+        }
+
+        @Override
+        public String getFilename() {
+            return fileName;
+        }
+
+    }
+
+}
@@ -0,0 +1,226 @@
+package ru.kharevich.postservice.ranking;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.kharevich.postservice.config.properties.HotFeedProperties;
+import ru.kharevich.postservice.dto.response.ActivityResponse;
+import ru.kharevich.postservice.dto.transferObject.PostView;
+import ru.kharevich.postservice.model.Post;
+import ru.kharevich.postservice.repository.PostRepository;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * The {@code capacity} highest scored posts, kept in memory so that the hot feed is served without sorting
+ * the posts table. A post scores {@code log10(max(1, likes + commentWeight * comments)) + createdAt / decay}:
+ * every {@code decay} a post needs ten times the activity to hold its rank. The score does not depend on the
+ * current time, so it only moves with the counters of the post and a single skip list ordered by score takes
+ * the place of per-period buckets.
+ * <p>
+ * Created posts and applied activity events update the ranking once their transaction committed. Writers
+ * are serialized, readers walk the skip list without locking. Activity partitions are spread over all
+ * instances, so each instance sees a part of the events only; the ranking is reloaded from the posts table
+ * every {@code refreshInterval}, which also picks up posts created by other instances.
+ */
+@Slf4j
+@Component
+public class HotFeed {
+
+    private static final Comparator<Entry> RANK = Comparator.comparingDouble(Entry::score).reversed()
+            .thenComparing(Entry::postId);
+
+    private final HotFeedProperties properties;
+    private final PostRepository postRepository;
+    private final double decaySeconds;
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private volatile Ranking ranking = new Ranking();
+
+    public HotFeed(HotFeedProperties properties, PostRepository postRepository, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.postRepository = postRepository;
+        this.decaySeconds = properties.decay().toSeconds();
+        Gauge.builder("hot.feed.size", this, HotFeed::size)
+                .description("Posts ranked by the hot feed")
+                .register(meterRegistry);
+    }
+
+    public double score(int likes, int comments, LocalDateTime createdAt) {
+        double activity = Math.max(1, likes + properties.commentWeight() * comments);
+        double createdAtSeconds = createdAt.toEpochSecond(ZoneOffset.UTC) + createdAt.getNano() / 1e9;
+        return Math.log10(activity) + createdAtSeconds / decaySeconds;
+    }
+
+    public void add(Post post) {
+        Entry entry = entry(post.getId(), post.getNumberOfLikes(), post.getNumberOfComments(), post.getCreatedAt());
+        afterCommit(() -> put(entry));
+    }
+
+    public void remove(UUID postId) {
+        afterCommit(() -> {
+            writeLock.lock();
+            try {
+                Entry entry = ranking.entries.remove(postId);
+                if (entry != null) {
+                    ranking.ranked.remove(entry);
+                }
+            } finally {
+                writeLock.unlock();
+            }
+        });
+    }
+
+    /**
+     * Re-scores the posts of events written to the database; a {@code null} counter keeps the ranked value.
+     * Posts that are not ranked yet are read from the posts table, but only those that could still make it:
+     * even created right now, their counters have to beat the lowest ranked post.
+     */
+    public void record(Collection<ActivityResponse> applied) {
+        Ranking current = ranking;
+        double threshold = current.threshold(properties.capacity());
+        LocalDateTime now = LocalDateTime.now();
+        List<Entry> updates = new ArrayList<>(applied.size());
+        List<UUID> candidates = new ArrayList<>();
+        for (ActivityResponse activity : applied) {
+            Entry entry = current.entries.get(activity.postId());
+            if (entry != null) {
+                updates.add(entry(entry.postId(),
+                        activity.numberOfLikes() == null ? entry.likes() : activity.numberOfLikes(),
+                        activity.numberOfComments() == null ? entry.comments() : activity.numberOfComments(),
+                        entry.createdAt()));
+            } else if (activity.numberOfLikes() == null || activity.numberOfComments() == null
+                    || score(activity.numberOfLikes(), activity.numberOfComments(), now) > threshold) {
+                candidates.add(activity.postId());
+            }
+        }
+        if (!candidates.isEmpty()) {
+            for (PostView post : postRepository.findSummariesByIdIn(candidates)) {
+                updates.add(entry(post.id(), post.numberOfLikes(), post.numberOfComments(), post.createdAt()));
+            }
+        }
+        if (!updates.isEmpty()) {
+            afterCommit(() -> updates.forEach(this::put));
+        }
+    }
+
+    /**
+     * Replaces the ranking with the highest scored posts of the posts table. Events applied while the
+     * table is read may be missed until the next reload.
+     */
+    @Scheduled(fixedDelayString = "${post-service.hot-feed.refresh-interval:1m}")
+    public void refresh() {
+        List<PostView> posts = postRepository.findHottest(properties.commentWeight(), decaySeconds,
+                Limit.of(properties.capacity()));
+        Ranking refreshed = new Ranking();
+        for (PostView post : posts) {
+            Entry entry = entry(post.id(), post.numberOfLikes(), post.numberOfComments(), post.createdAt());
+            refreshed.entries.put(entry.postId(), entry);
+            refreshed.ranked.add(entry);
+        }
+        writeLock.lock();
+        try {
+            ranking = refreshed;
+        } finally {
+            writeLock.unlock();
+        }
+        log.debug("Reloaded the hot feed with {} posts", posts.size());
+    }
+
+    /**
+     * @return post ids of the page, highest scored first
+     */
+    public List<UUID> findPostIds(long offset, int limit) {
+        if (offset >= properties.capacity()) {
+            return List.of();
+        }
+        return ranking.ranked.stream()
+                .skip(offset)
+                .limit(limit)
+                .map(Entry::postId)
+                .toList();
+    }
+
+    public int size() {
+        return ranking.entries.size();
+    }
+
+    private Entry entry(UUID postId, Integer likes, Integer comments, LocalDateTime createdAt) {
+        int likesValue = likes == null ? 0 : likes;
+        int commentsValue = comments == null ? 0 : comments;
+        LocalDateTime created = createdAt == null ? LocalDateTime.now() : createdAt;
+        return new Entry(postId, likesValue, commentsValue, created, score(likesValue, commentsValue, created));
+    }
+
+    /**
+     * Ranks the post, replacing its previous entry, and drops the lowest ranked posts past the capacity.
+     */
+    private void put(Entry entry) {
+        writeLock.lock();
+        try {
+            Ranking current = ranking;
+            Entry previous = current.entries.put(entry.postId(), entry);
+            if (previous != null) {
+                current.ranked.remove(previous);
+            }
+            current.ranked.add(entry);
+            while (current.entries.size() > properties.capacity()) {
+                Entry lowest = current.ranked.pollLast();
+                current.entries.remove(lowest.postId());
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private record Entry(UUID postId, int likes, int comments, LocalDateTime createdAt, double score) {
+    }
+
+    private static final class Ranking {
+
+        private final NavigableSet<Entry> ranked = new ConcurrentSkipListSet<>(RANK);
+        private final Map<UUID, Entry> entries = new ConcurrentHashMap<>();
+
+        /**
+         * Score a post has to beat to be ranked, or negative infinity while there is room left.
+         */
+        private double threshold(int capacity) {
+            if (entries.size() < capacity) {
+                return Double.NEGATIVE_INFINITY;
+            }
+            Iterator<Entry> lowest = ranked.descendingIterator();
+            return lowest.hasNext() ? lowest.next().score() : Double.NEGATIVE_INFINITY;
+        }
+
+    }
+
+}
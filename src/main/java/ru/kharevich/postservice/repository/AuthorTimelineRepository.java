@@ -0,0 +1,132 @@
+package ru.kharevich.postservice.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Per-author lists of the newest post ids, kept in {@code post_schema.author_timelines}. Every author keeps at
+ * most {@code maxSize} entries, always the newest posts, so an entry missing from a full timeline is older than
+ * all of its entries. Statements run in the caller's transaction, next to the post write they follow.
+ * <p>
+ * Writes take a transaction scoped advisory lock per author first, so concurrent writes of one author see
+ * each other's committed entries and cannot both leave the timeline short.
+ */
+@Repository
+@RequiredArgsConstructor
+public class AuthorTimelineRepository {
+
+    private static final String LOCK_SQL = """
+            SELECT pg_advisory_xact_lock(?)""";
+
+    private static final String INSERT_SQL = """
+            INSERT INTO post_schema.author_timelines (author_id, post_id, created_at)
+            VALUES (?, ?, ?)""";
+
+    private static final String TRIM_SQL = """
+            DELETE FROM post_schema.author_timelines
+            WHERE author_id = ? AND post_id IN (
+                SELECT post_id
+                FROM post_schema.author_timelines
+                WHERE author_id = ?
+                ORDER BY created_at DESC, post_id DESC
+                OFFSET ?)""";
+
+    private static final String DELETE_SQL = """
+            DELETE FROM post_schema.author_timelines
+            WHERE author_id = ? AND post_id = ?""";
+
+    private static final String DELETE_ALL_SQL = """
+            DELETE FROM post_schema.author_timelines
+            WHERE author_id = ?""";
+
+    private static final String COUNT_SQL = """
+            SELECT count(*)
+            FROM post_schema.author_timelines
+            WHERE author_id = ?""";
+
+    /**
+     * Adds the newest posts of the author that the timeline does not hold yet.
+     */
+    private static final String FILL_SQL = """
+            INSERT INTO post_schema.author_timelines (author_id, post_id, created_at)
+            SELECT p.author_id, p.id, p.created_at
+            FROM post_schema.posts p
+            WHERE p.author_id = ? AND NOT EXISTS (
+                SELECT 1
+                FROM post_schema.author_timelines t
+                WHERE t.author_id = p.author_id AND t.post_id = p.id)
+            ORDER BY p.created_at DESC, p.id DESC
+            LIMIT ?""";
+
+    private static final String SELECT_PAGE_SQL = """
+            SELECT post_id
+            FROM post_schema.author_timelines
+            WHERE author_id = ?
+            ORDER BY created_at DESC, post_id DESC
+            LIMIT ? OFFSET ?""";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Adds the post and drops the entries pushed past {@code maxSize}.
+     */
+    public void append(UUID authorId, UUID postId, LocalDateTime createdAt, int maxSize) {
+        lock(authorId);
+        jdbcTemplate.update(INSERT_SQL, authorId, postId, createdAt);
+        jdbcTemplate.update(TRIM_SQL, authorId, authorId, maxSize);
+    }
+
+    /**
+     * Removes the post and tops the timeline up to {@code maxSize} with the next older posts, so it keeps
+     * covering the newest {@code maxSize} posts. A timeline left short by an earlier failure is repaired too.
+     *
+     * @return whether the timeline held the post
+     */
+    public boolean remove(UUID authorId, UUID postId, int maxSize) {
+        lock(authorId);
+        if (jdbcTemplate.update(DELETE_SQL, authorId, postId) == 0) {
+            return false;
+        }
+        long missing = maxSize - count(authorId);
+        if (missing > 0) {
+            jdbcTemplate.update(FILL_SQL, authorId, missing);
+        }
+        return true;
+    }
+
+    /**
+     * Replaces the timeline with the newest {@code maxSize} posts of the author.
+     *
+     * @return number of entries written
+     */
+    public int rebuild(UUID authorId, int maxSize) {
+        lock(authorId);
+        jdbcTemplate.update(DELETE_ALL_SQL, authorId);
+        return jdbcTemplate.update(FILL_SQL, authorId, maxSize);
+    }
+
+    public long count(UUID authorId) {
+        Long count = jdbcTemplate.queryForObject(COUNT_SQL, Long.class, authorId);
+        return count == null ? 0 : count;
+    }
+
+    /**
+     * @return post ids newest first
+     */
+    public List<UUID> findPostIds(UUID authorId, long offset, int limit) {
+        return jdbcTemplate.queryForList(SELECT_PAGE_SQL, UUID.class, authorId, limit, offset);
+    }
+
+    /**
+     * Held until the transaction ends. Authors whose ids fold to the same key merely wait for each other.
+     */
+    private void lock(UUID authorId) {
+        jdbcTemplate.queryForList(LOCK_SQL, authorId.getMostSignificantBits() ^ authorId.getLeastSignificantBits());
+    }
+
+}
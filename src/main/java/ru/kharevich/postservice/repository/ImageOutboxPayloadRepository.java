@@ -0,0 +1,9 @@
+package ru.kharevich.postservice.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import ru.kharevich.postservice.model.ImageOutboxPayload;
+
+import java.util.UUID;
+
+public interface ImageOutboxPayloadRepository extends JpaRepository<ImageOutboxPayload, UUID> {
+}
@@ -0,0 +1,39 @@
+package ru.kharevich.postservice.repository;
+
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import ru.kharevich.postservice.model.ImageOutboxEntry;
+import ru.kharevich.postservice.model.OutboxStatus;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+public interface ImageOutboxRepository extends JpaRepository<ImageOutboxEntry, UUID> {
+
+    /**
+     * Rows locked by another dispatcher are skipped ({@code FOR UPDATE SKIP LOCKED}), so several
+     * instances can drain the outbox concurrently.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("""
+            select e from ImageOutboxEntry e
+            where e.status in :statuses and e.nextAttemptAt <= :now
+            order by e.nextAttemptAt""")
+    List<ImageOutboxEntry> findDueForUpdate(Collection<OutboxStatus> statuses, LocalDateTime now, Limit limit);
+
+    long countByPostIdAndStatusIn(UUID postId, Collection<OutboxStatus> statuses);
+
+    @Modifying
+    @Query("delete from ImageOutboxEntry e where e.postId = :postId")
+    int deleteByPostId(UUID postId);
+
+}
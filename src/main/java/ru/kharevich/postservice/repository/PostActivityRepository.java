@@ -0,0 +1,72 @@
+package ru.kharevich.postservice.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import ru.kharevich.postservice.dto.response.ActivityResponse;
+
+import java.sql.Statement;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Writes activity counters with plain JDBC, skipping the entity load and dirty checking
+ * the JPA path needs for every single event. A versioned event is written only when its version
+ * is above the applied one, so redelivered and reordered events never move the counters backwards
+ * and the topic can be consumed by any number of partitions and instances.
+ * {@code updated_at} is taken from the application clock, the same one the entity writes use.
+ */
+@Repository
+@RequiredArgsConstructor
+public class PostActivityRepository {
+
+    private static final String UPDATE_COUNTERS_SQL = """
+            UPDATE post_schema.posts
+            SET number_of_likes = COALESCE(?, number_of_likes),
+                number_of_comments = COALESCE(?, number_of_comments),
+                activity_version = COALESCE(?, activity_version),
+                updated_at = ?
+            WHERE id = ? AND (CAST(? AS BIGINT) IS NULL OR activity_version < ?)""";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * @return number of posts whose counters were written; missing posts and outdated events are not counted
+     */
+    public int updateCounters(Collection<ActivityResponse> activities) {
+        return applyCounters(activities).size();
+    }
+
+    /**
+     * @return the events that were written, i.e. without those of missing posts and outdated ones
+     */
+    public List<ActivityResponse> applyCounters(Collection<ActivityResponse> activities) {
+        LocalDateTime updatedAt = LocalDateTime.now();
+        int[][] updated = jdbcTemplate.batchUpdate(UPDATE_COUNTERS_SQL, activities, activities.size(),
+                (statement, activity) -> {
+                    statement.setObject(1, activity.numberOfLikes(), Types.INTEGER);
+                    statement.setObject(2, activity.numberOfComments(), Types.INTEGER);
+                    statement.setObject(3, activity.version(), Types.BIGINT);
+                    statement.setObject(4, updatedAt);
+                    statement.setObject(5, activity.postId());
+                    statement.setObject(6, activity.version(), Types.BIGINT);
+                    statement.setObject(7, activity.version(), Types.BIGINT);
+                });
+        List<ActivityResponse> applied = new ArrayList<>(activities.size());
+        Iterator<ActivityResponse> iterator = activities.iterator();
+        for (int[] batch : updated) {
+            for (int rows : batch) {
+                ActivityResponse activity = iterator.next();
+                if (rows > 0 || rows == Statement.SUCCESS_NO_INFO) {
+                    applied.add(activity);
+                }
+            }
+        }
+        return applied;
+    }
+
+}
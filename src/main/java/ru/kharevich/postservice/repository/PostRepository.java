@@ -1,15 +1,116 @@
 package ru.kharevich.postservice.repository;
 
-import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
+import ru.kharevich.postservice.dto.transferObject.PostView;
+import ru.kharevich.postservice.model.AttachmentStatus;
 import ru.kharevich.postservice.model.Post;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
+/**
+ * Query methods declared here run in read-only transactions, i.e. with Hibernate's flush mode set to manual
+ * and entities loaded read-only. Reads that only map posts to responses select {@link PostView}s.
+ */
+@Transactional(readOnly = true)
 public interface PostRepository extends JpaRepository<Post, UUID> {
 
-    Page<Post> findAll(Pageable pageable);
+    String SELECT_VIEW = """
+            select new ru.kharevich.postservice.dto.transferObject.PostView(
+                p.id, p.text, p.author, p.authorId, p.numberOfLikes, p.numberOfComments, p.createdAt, p.updatedAt,
+                p.attachmentStatus)
+            from Post p""";
+
+    /**
+     * {@link #SELECT_VIEW} without the text, the only column whose width is not fixed.
+     */
+    String SELECT_SUMMARY = """
+            select new ru.kharevich.postservice.dto.transferObject.PostView(
+                p.id, cast(null as String), p.author, p.authorId, p.numberOfLikes, p.numberOfComments, p.createdAt,
+                p.updatedAt, p.attachmentStatus)
+            from Post p""";
+
+    @Query(SELECT_VIEW + " where p.id = :id")
+    Optional<PostView> findViewById(UUID id);
+
+    /**
+     * Page content without the count query, which callers run separately. Ordered like the cursor feed, so a
+     * page and its tag read from {@link #findSummariesBy} list the same posts.
+     */
+    @Query(SELECT_VIEW + " order by p.createdAt desc, p.id desc")
+    List<PostView> findViewsBy(Pageable pageable);
+
+    @Query(SELECT_VIEW + " where p.author = :author order by p.createdAt desc, p.id desc")
+    List<PostView> findViewsByAuthor(String author, Pageable pageable);
+
+    @Query(SELECT_SUMMARY + " where p.id = :id")
+    Optional<PostView> findSummaryById(UUID id);
+
+    @Query(SELECT_SUMMARY + " order by p.createdAt desc, p.id desc")
+    List<PostView> findSummariesBy(Pageable pageable);
+
+    @Query(SELECT_SUMMARY + " where p.author = :author order by p.createdAt desc, p.id desc")
+    List<PostView> findSummariesByAuthor(String author, Pageable pageable);
+
+    @Query(SELECT_VIEW + " where p.id in :ids")
+    List<PostView> findViewsByIdIn(Collection<UUID> ids);
+
+    @Query(SELECT_SUMMARY + " where p.id in :ids")
+    List<PostView> findSummariesByIdIn(Collection<UUID> ids);
+
+    long countByAuthor(String author);
+
+    /**
+     * Author pages past the timeline bound, served by the {@code (author_id, created_at, id)} index.
+     */
+    @Query(SELECT_VIEW + " where p.authorId = :authorId order by p.createdAt desc, p.id desc")
+    List<PostView> findViewsByAuthorId(UUID authorId, Pageable pageable);
+
+    @Query(SELECT_SUMMARY + " where p.authorId = :authorId order by p.createdAt desc, p.id desc")
+    List<PostView> findSummariesByAuthorId(UUID authorId, Pageable pageable);
+
+    long countByAuthorId(UUID authorId);
+
+    @Query(SELECT_VIEW + " order by p.createdAt desc, p.id desc")
+    List<PostView> findFeedFirstPage(Limit limit);
+
+    @Query(SELECT_VIEW + """
+             where (p.createdAt, p.id) < (:createdAt, :id)
+            order by p.createdAt desc, p.id desc""")
+    List<PostView> findFeedPageAfter(LocalDateTime createdAt, UUID id, Limit limit);
+
+    @Query(SELECT_VIEW + " where p.author = :author order by p.createdAt desc, p.id desc")
+    List<PostView> findByAuthorFirstPage(String author, Limit limit);
+
+    @Query(SELECT_VIEW + """
+             where p.author = :author and (p.createdAt, p.id) < (:createdAt, :id)
+            order by p.createdAt desc, p.id desc""")
+    List<PostView> findByAuthorPageAfter(String author, LocalDateTime createdAt, UUID id, Limit limit);
+
+    /**
+     * Highest scored posts of the hot feed, scored the way {@link ru.kharevich.postservice.ranking.HotFeed} does.
+     * Sorts the whole table, so it only runs when the ranking is reloaded.
+     */
+    @Query(SELECT_SUMMARY + """
+             order by log10(greatest(1, p.numberOfLikes + :commentWeight * p.numberOfComments))
+                + extract(epoch from p.createdAt) / :decaySeconds desc, p.id""")
+    List<PostView> findHottest(double commentWeight, double decaySeconds, Limit limit);
+
+    default int updateAttachmentStatus(UUID id, AttachmentStatus status) {
+        return updateAttachmentStatus(id, status, LocalDateTime.now());
+    }
+
+    @Modifying
+    @Transactional
+    @Query("update Post p set p.attachmentStatus = :status, p.updatedAt = :updatedAt where p.id = :id")
+    int updateAttachmentStatus(UUID id, AttachmentStatus status, LocalDateTime updatedAt);
 
-    Page<Post> findByAuthor(String author, Pageable pageable);
 }
@@ -0,0 +1,124 @@
+package ru.kharevich.postservice.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+import ru.kharevich.postservice.dto.transferObject.PostView;
+import ru.kharevich.postservice.model.AttachmentStatus;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Full-text documents of the posts in {@code post_schema.post_search_documents}, weighted author first and
+ * text second and covered by a GIN index. Posts waiting to be (re)indexed are listed in
+ * {@code post_schema.post_search_queue}; the queue is written in the caller's transaction, the documents
+ * are built from it in the background.
+ */
+@Repository
+@RequiredArgsConstructor
+public class PostSearchRepository {
+
+    private static final String ENQUEUE_SQL = """
+            INSERT INTO post_schema.post_search_queue (post_id, enqueued_at)
+            VALUES (?, ?)
+            ON CONFLICT (post_id) DO NOTHING""";
+
+    private static final String DELETE_SQL = """
+            DELETE FROM post_schema.post_search_documents
+            WHERE post_id = ?""";
+
+    private static final String DEQUEUE_SQL = """
+            DELETE FROM post_schema.post_search_queue
+            WHERE post_id = ?""";
+
+    /**
+     * Takes the oldest queued posts and writes their documents in one statement. Queue rows locked by another
+     * indexer are skipped; posts deleted in the meantime leave no document behind.
+     */
+    private static final String INDEX_SQL = """
+            WITH claimed AS (
+                DELETE FROM post_schema.post_search_queue
+                WHERE post_id IN (
+                    SELECT post_id
+                    FROM post_schema.post_search_queue
+                    ORDER BY enqueued_at
+                    LIMIT ?
+                    FOR UPDATE SKIP LOCKED)
+                RETURNING post_id)
+            INSERT INTO post_schema.post_search_documents (post_id, search_vector)
+            SELECT p.id,
+                   setweight(to_tsvector(CAST(? AS REGCONFIG), p.author), 'A')
+                       || setweight(to_tsvector(CAST(? AS REGCONFIG), p.text), 'B')
+            FROM post_schema.posts p
+            JOIN claimed c ON c.post_id = p.id
+            ON CONFLICT (post_id) DO UPDATE SET search_vector = EXCLUDED.search_vector""";
+
+    private static final String SELECT_PAGE_SQL = """
+            SELECT p.id, %s AS text, p.author, p.author_id, p.number_of_likes, p.number_of_comments, p.created_at,
+                   p.updated_at, p.attachment_status
+            FROM post_schema.post_search_documents d
+            JOIN post_schema.posts p ON p.id = d.post_id,
+                 websearch_to_tsquery(CAST(? AS REGCONFIG), ?) query
+            WHERE d.search_vector @@ query
+            ORDER BY ts_rank(d.search_vector, query) DESC, p.created_at DESC, p.id DESC
+            LIMIT ? OFFSET ?""";
+
+    private static final String SELECT_VIEWS_SQL = SELECT_PAGE_SQL.formatted("p.text");
+
+    /**
+     * {@link #SELECT_VIEWS_SQL} without the text.
+     */
+    private static final String SELECT_SUMMARIES_SQL = SELECT_PAGE_SQL.formatted("NULL");
+
+    private static final String COUNT_SQL = """
+            SELECT count(*)
+            FROM post_schema.post_search_documents d
+            JOIN post_schema.posts p ON p.id = d.post_id
+            WHERE d.search_vector @@ websearch_to_tsquery(CAST(? AS REGCONFIG), ?)""";
+
+    private static final RowMapper<PostView> POST_VIEW_MAPPER = (resultSet, row) -> new PostView(
+            resultSet.getObject("id", UUID.class),
+            resultSet.getString("text"),
+            resultSet.getString("author"),
+            resultSet.getObject("author_id", UUID.class),
+            resultSet.getInt("number_of_likes"),
+            resultSet.getInt("number_of_comments"),
+            resultSet.getObject("created_at", LocalDateTime.class),
+            resultSet.getObject("updated_at", LocalDateTime.class),
+            AttachmentStatus.valueOf(resultSet.getString("attachment_status")));
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public void enqueue(UUID postId) {
+        jdbcTemplate.update(ENQUEUE_SQL, postId, LocalDateTime.now());
+    }
+
+    public void delete(UUID postId) {
+        jdbcTemplate.update(DEQUEUE_SQL, postId);
+        jdbcTemplate.update(DELETE_SQL, postId);
+    }
+
+    /**
+     * @return number of documents written
+     */
+    public int indexQueued(String textSearchConfig, int batchSize) {
+        return jdbcTemplate.update(INDEX_SQL, batchSize, textSearchConfig, textSearchConfig);
+    }
+
+    /**
+     * @return matching posts, best ranked first
+     */
+    public List<PostView> find(String textSearchConfig, String query, long offset, int limit, boolean includeText) {
+        return jdbcTemplate.query(includeText ? SELECT_VIEWS_SQL : SELECT_SUMMARIES_SQL, POST_VIEW_MAPPER,
+                textSearchConfig, query, limit, offset);
+    }
+
+    public long count(String textSearchConfig, String query) {
+        Long count = jdbcTemplate.queryForObject(COUNT_SQL, Long.class, textSearchConfig, query);
+        return count == null ? 0 : count;
+    }
+
+}
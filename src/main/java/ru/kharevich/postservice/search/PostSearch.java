@@ -0,0 +1,62 @@
+package ru.kharevich.postservice.search;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import ru.kharevich.postservice.config.properties.SearchProperties;
+import ru.kharevich.postservice.dto.transferObject.PostView;
+import ru.kharevich.postservice.exception.PostServiceInternalError;
+import ru.kharevich.postservice.repository.PostSearchRepository;
+
+import java.util.List;
+import java.util.UUID;
+
+import static ru.kharevich.postservice.util.constants.PostServiceResponseMessages.SEARCH_DISABLED_MESSAGE;
+
+/**
+ * Full-text search over the author and text of posts. Writes only queue the post in the caller's
+ * transaction; {@link PostSearchIndexer} builds the documents off the request path, so a post becomes
+ * searchable shortly after it was written. Deleted posts drop out of the results right away.
+ * <p>
+ * With search disabled nothing is queued and queries are refused, which lets the service run on databases
+ * without PostgreSQL text search.
+ */
+@Component
+@RequiredArgsConstructor
+public class PostSearch {
+
+    private final SearchProperties properties;
+    private final PostSearchRepository postSearchRepository;
+
+    public void enqueue(UUID postId) {
+        if (properties.enabled()) {
+            postSearchRepository.enqueue(postId);
+        }
+    }
+
+    public void remove(UUID postId) {
+        if (properties.enabled()) {
+            postSearchRepository.delete(postId);
+        }
+    }
+
+    /**
+     * @param query Query in web search syntax: quoted phrases, {@code or} and {@code -} for exclusion
+     * @return matching posts, best ranked first
+     */
+    public List<PostView> find(String query, long offset, int limit, boolean includeText) {
+        requireEnabled();
+        return postSearchRepository.find(properties.textSearchConfig(), query, offset, limit, includeText);
+    }
+
+    public long count(String query) {
+        requireEnabled();
+        return postSearchRepository.count(properties.textSearchConfig(), query);
+    }
+
+    private void requireEnabled() {
+        if (!properties.enabled()) {
+            throw new PostServiceInternalError(SEARCH_DISABLED_MESSAGE);
+        }
+    }
+
+}
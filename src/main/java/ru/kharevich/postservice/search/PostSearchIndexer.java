@@ -0,0 +1,55 @@
+package ru.kharevich.postservice.search;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import ru.kharevich.postservice.config.properties.SearchProperties;
+import ru.kharevich.postservice.repository.PostSearchRepository;
+
+/**
+ * Drains the search queue every {@code pollInterval}, {@code batchSize} posts per statement, until it is
+ * empty. Every batch commits on its own, and instances skip the batches others have claimed.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "post-service.search.enabled", havingValue = "true", matchIfMissing = true)
+public class PostSearchIndexer {
+
+    private final SearchProperties properties;
+    private final PostSearchRepository postSearchRepository;
+    private final Timer batchTimer;
+    private final Counter indexedPosts;
+
+    public PostSearchIndexer(SearchProperties properties,
+                             PostSearchRepository postSearchRepository,
+                             MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.postSearchRepository = postSearchRepository;
+        this.batchTimer = Timer.builder("search.index.batch")
+                .description("Time spent indexing a batch of queued posts")
+                .register(meterRegistry);
+        this.indexedPosts = Counter.builder("search.index.posts")
+                .description("Posts written to the search index")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${post-service.search.poll-interval:1s}")
+    public void index() {
+        try {
+            int indexed;
+            do {
+                indexed = batchTimer.record(() ->
+                        postSearchRepository.indexQueued(properties.textSearchConfig(), properties.batchSize()));
+                indexedPosts.increment(indexed);
+            } while (indexed >= properties.batchSize());
+        } catch (DataAccessException e) {
+            log.warn("Failed to index queued posts, retrying on the next poll", e);
+        }
+    }
+
+}
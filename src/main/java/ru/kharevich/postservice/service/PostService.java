@@ -1,11 +1,18 @@
 package ru.kharevich.postservice.service;
 
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import ru.kharevich.postservice.dto.request.PostRequest;
 import ru.kharevich.postservice.dto.response.ActivityResponse;
+import ru.kharevich.postservice.dto.response.AttachmentStatusResponse;
+import ru.kharevich.postservice.dto.response.CursorPageableResponse;
 import ru.kharevich.postservice.dto.response.PageableResponse;
+import ru.kharevich.postservice.dto.response.PostBatchResponse;
 import ru.kharevich.postservice.dto.response.PostResponse;
+import ru.kharevich.postservice.dto.transferObject.PostFields;
+import ru.kharevich.postservice.model.ImageMode;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
@@ -17,11 +24,113 @@ public interface PostService {
 
     PostResponse update(PostRequest request, UUID id);
 
-    PageableResponse<PostResponse> getFeed(int pageNumber, int size);
+    default PageableResponse<PostResponse> getFeed(int pageNumber, int size) {
+        return getFeed(pageNumber, size, ImageMode.INLINE);
+    }
 
-    PostResponse getById(UUID id);
+    default PageableResponse<PostResponse> getFeed(int pageNumber, int size, ImageMode imageMode) {
+        return getFeed(pageNumber, size, imageMode, PostFields.ALL);
+    }
 
-    PageableResponse<PostResponse> getPostsByAuthor(int pageNumber, int size, String author);
+    PageableResponse<PostResponse> getFeed(int pageNumber, int size, ImageMode imageMode, PostFields fields);
+
+    /**
+     * Posts ordered by activity and age, see {@link ru.kharevich.postservice.ranking.HotFeed}.
+     */
+    PageableResponse<PostResponse> getHotFeed(int pageNumber, int size, ImageMode imageMode, PostFields fields);
+
+    default PostResponse getById(UUID id) {
+        return getById(id, ImageMode.INLINE);
+    }
+
+    default PostResponse getById(UUID id, ImageMode imageMode) {
+        return getById(id, imageMode, PostFields.ALL);
+    }
+
+    PostResponse getById(UUID id, ImageMode imageMode, PostFields fields);
+
+    PostBatchResponse getByIds(List<UUID> ids, ImageMode imageMode, PostFields fields);
+
+    default PageableResponse<PostResponse> getPostsByAuthor(int pageNumber, int size, String author) {
+        return getPostsByAuthor(pageNumber, size, author, ImageMode.INLINE);
+    }
+
+    default PageableResponse<PostResponse> getPostsByAuthor(int pageNumber, int size, String author,
+                                                            ImageMode imageMode) {
+        return getPostsByAuthor(pageNumber, size, author, imageMode, PostFields.ALL);
+    }
+
+    PageableResponse<PostResponse> getPostsByAuthor(int pageNumber, int size, String author, ImageMode imageMode,
+                                                    PostFields fields);
+
+    /**
+     * Pages within the author's timeline are resolved from it, only older pages query the posts table.
+     */
+    PageableResponse<PostResponse> getPostsByAuthorId(int pageNumber, int size, UUID authorId, ImageMode imageMode,
+                                                      PostFields fields);
+
+    /**
+     * Posts whose author or text match the query, best ranked first. Written posts are found once they are indexed.
+     */
+    PageableResponse<PostResponse> search(String query, int pageNumber, int size, ImageMode imageMode,
+                                          PostFields fields);
+
+    /**
+     * Rewrites the author's timeline from the posts table.
+     *
+     * @return number of posts the timeline holds afterwards
+     */
+    int rebuildAuthorTimeline(UUID authorId);
+
+    /**
+     * The posts of {@link #getFeed(int, int, ImageMode, PostFields)} as newline-delimited JSON, without the totals.
+     */
+    StreamingResponseBody streamFeed(int pageNumber, int size, ImageMode imageMode, PostFields fields);
+
+    StreamingResponseBody streamPostsByAuthor(int pageNumber, int size, String author, ImageMode imageMode,
+                                              PostFields fields);
+
+    default CursorPageableResponse<PostResponse> getFeedByCursor(String cursor, int size) {
+        return getFeedByCursor(cursor, size, ImageMode.INLINE);
+    }
+
+    CursorPageableResponse<PostResponse> getFeedByCursor(String cursor, int size, ImageMode imageMode);
+
+    default CursorPageableResponse<PostResponse> getPostsByAuthorByCursor(String cursor, int size, String author) {
+        return getPostsByAuthorByCursor(cursor, size, author, ImageMode.INLINE);
+    }
+
+    CursorPageableResponse<PostResponse> getPostsByAuthorByCursor(String cursor, int size, String author,
+                                                                  ImageMode imageMode);
+
+    /**
+     * Entity tag of posts already read, equal to the tag the matching {@code get...ETag} method returns for them.
+     * Derived from the posts alone, so it costs no query.
+     */
+    String getETag(List<PostResponse> posts, ImageMode imageMode);
+
+    /**
+     * Entity tag of what {@link #getById(UUID, ImageMode, PostFields)} would return, {@code null} when the post
+     * does not exist. Looks the post up, so it is only worth asking for with a tag to compare against.
+     */
+    String getETag(UUID id, ImageMode imageMode);
+
+    /**
+     * Entity tag of the posts on the page, read without their text or images. Totals are not covered.
+     */
+    String getFeedETag(int pageNumber, int size, ImageMode imageMode);
+
+    String getHotFeedETag(int pageNumber, int size, ImageMode imageMode);
+
+    String getPostsByAuthorETag(int pageNumber, int size, String author, ImageMode imageMode);
+
+    String getPostsByAuthorIdETag(int pageNumber, int size, UUID authorId, ImageMode imageMode);
+
+    AttachmentStatusResponse getAttachmentStatus(UUID id);
+
+    StreamingResponseBody getImageContent(UUID postId, int imageId);
 
     void updateActivity(ActivityResponse activityResponse);
+
+    void updateActivities(Collection<ActivityResponse> activities);
 }
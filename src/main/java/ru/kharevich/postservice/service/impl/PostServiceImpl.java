@@ -1,122 +1,583 @@
 package ru.kharevich.postservice.service.impl;
 
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.support.PageableExecutionUtils;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Isolation;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.kharevich.postservice.activity.ActivityBuffer;
+import ru.kharevich.postservice.cache.PostCache;
 import ru.kharevich.postservice.clients.ImageClient;
+import ru.kharevich.postservice.clients.ImageStreamReader;
+import ru.kharevich.postservice.clients.ImageUploadClient;
+import ru.kharevich.postservice.config.properties.PostBatchProperties;
 import ru.kharevich.postservice.dto.request.PostRequest;
 import ru.kharevich.postservice.dto.response.ActivityResponse;
+import ru.kharevich.postservice.dto.response.AttachmentStatusResponse;
+import ru.kharevich.postservice.dto.response.CursorPageableResponse;
+import ru.kharevich.postservice.dto.response.ImageDescriptor;
 import ru.kharevich.postservice.dto.response.ImageResponse;
 import ru.kharevich.postservice.dto.response.PageableResponse;
+import ru.kharevich.postservice.dto.response.PostBatchResponse;
 import ru.kharevich.postservice.dto.response.PostResponse;
 import ru.kharevich.postservice.dto.transferObject.FileTransferEntity;
+import ru.kharevich.postservice.dto.transferObject.PostCursor;
+import ru.kharevich.postservice.dto.transferObject.PostFields;
+import ru.kharevich.postservice.dto.transferObject.PostView;
+import ru.kharevich.postservice.exception.BatchTooLargeException;
+import ru.kharevich.postservice.exception.ImageServiceInternalError;
 import ru.kharevich.postservice.exception.PostNotFoundException;
-import ru.kharevich.postservice.exception.PostServiceInternalError;
-import ru.kharevich.postservice.model.ImageType;
+import ru.kharevich.postservice.model.AttachmentStatus;
+import ru.kharevich.postservice.model.ImageMode;
 import ru.kharevich.postservice.model.Post;
+import ru.kharevich.postservice.model.PostField;
+import ru.kharevich.postservice.outbox.ImageOutbox;
+import ru.kharevich.postservice.ranking.HotFeed;
+import ru.kharevich.postservice.repository.PostActivityRepository;
 import ru.kharevich.postservice.repository.PostRepository;
+import ru.kharevich.postservice.search.PostSearch;
 import ru.kharevich.postservice.service.PostService;
+import ru.kharevich.postservice.timeline.AuthorTimeline;
+import ru.kharevich.postservice.util.annotations.RetryOnWriteConflict;
+import ru.kharevich.postservice.util.concurrent.ReadFanOut;
 import ru.kharevich.postservice.util.mapper.PageMapper;
+import ru.kharevich.postservice.util.mapper.PostImageJoiner;
 import ru.kharevich.postservice.util.mapper.PostMapper;
+import ru.kharevich.postservice.util.pagination.PostCursorCodec;
+import ru.kharevich.postservice.util.stream.PostStreamWriter;
 import ru.kharevich.postservice.util.validation.PostValidationService;
 
-import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
 
-import static ru.kharevich.postservice.util.constants.PostServiceResponseMessages.IMAGE_PARSE_ERROR_MESSAGE;
+import static ru.kharevich.postservice.util.constants.PostServiceMetrics.COUNT_LEG;
+import static ru.kharevich.postservice.util.constants.PostServiceMetrics.DB_LEG;
+import static ru.kharevich.postservice.util.constants.PostServiceMetrics.GET_BY_AUTHOR;
+import static ru.kharevich.postservice.util.constants.PostServiceMetrics.GET_BY_CURSOR;
+import static ru.kharevich.postservice.util.constants.PostServiceMetrics.GET_BY_ID;
+import static ru.kharevich.postservice.util.constants.PostServiceMetrics.GET_BY_IDS;
+import static ru.kharevich.postservice.util.constants.PostServiceMetrics.GET_FEED;
+import static ru.kharevich.postservice.util.constants.PostServiceMetrics.GET_HOT_FEED;
+import static ru.kharevich.postservice.util.constants.PostServiceMetrics.IMAGES_LEG;
+import static ru.kharevich.postservice.util.constants.PostServiceMetrics.SEARCH;
+import static ru.kharevich.postservice.util.constants.PostServiceResponseMessages.BATCH_TOO_LARGE_MESSAGE;
 import static ru.kharevich.postservice.util.constants.PostServiceResponseMessages.POST_NOT_FOUND_MESSAGE;
 
 @Service
 @RequiredArgsConstructor
+@Timed(value = "post.service", histogram = true)
 public class PostServiceImpl implements PostService {
 
+    /**
+     * Fieldset of the reads behind page tags: no text, no images.
+     */
+    private static final PostFields SUMMARY_FIELDS = new PostFields(EnumSet.of(PostField.ID));
+
     private final PostRepository postRepository;
     private final ImageClient imageClient;
+    private final ImageUploadClient imageUploadClient;
     private final PostMapper postMapper;
     private final PostValidationService postValidationService;
     private final PageMapper pageMapper;
+    private final PostCursorCodec postCursorCodec;
+    private final PostImageJoiner postImageJoiner;
+    private final ImageStreamReader imageStreamReader;
+    private final PostCache postCache;
+    private final PostActivityRepository postActivityRepository;
+    private final ImageOutbox imageOutbox;
+    private final ReadFanOut readFanOut;
+    private final ActivityBuffer activityBuffer;
+    private final PostBatchProperties postBatchProperties;
+    private final PostStreamWriter postStreamWriter;
+    private final AuthorTimeline authorTimeline;
+    private final HotFeed hotFeed;
+    private final PostSearch postSearch;
 
-    @Transactional(isolation = Isolation.SERIALIZABLE)
+    @Transactional
     public PostResponse create(PostRequest request, List<MultipartFile> files) {
 
         Post post = postMapper.toEntity(request);
-        postRepository.saveAndFlush(post);
-        imageClient.uploadImage(ImageType.POST_ATTACHMENT.toString(), post.getId().toString(), files);
-        List<byte[]> bytes = new ArrayList<>();
-        files.forEach(imageFile -> {
-            try {
-                bytes.add(imageFile.getBytes());
-            } catch (IOException e) {
-                throw new PostServiceInternalError(IMAGE_PARSE_ERROR_MESSAGE);
-            }
-        });
-        PostResponse response = postMapper.toResponse(post, bytes);
+        if (imageOutbox.isEnabled()) {
+            post.setAttachmentStatus(AttachmentStatus.PENDING);
+            postRepository.saveAndFlush(post);
+            imageOutbox.enqueue(post.getId(), files);
+        } else {
+            postRepository.saveAndFlush(post);
+            imageUploadClient.upload(post.getId(), files);
+        }
+        authorTimeline.append(post);
+        hotFeed.add(post);
+        postSearch.enqueue(post.getId());
+        List<ImageDescriptor> descriptors = new ArrayList<>(files.size());
+        for (MultipartFile file : files) {
+            String contentType = file.getContentType() == null
+                    ? ImageStreamReader.guessContentType(file.getOriginalFilename())
+                    : file.getContentType();
+            descriptors.add(ImageDescriptor.of(post.getId(), descriptors.size(),
+                    file.getOriginalFilename(), file.getSize(), contentType));
+        }
+        PostResponse response = postMapper.toReferenceResponse(post, descriptors);
         return response;
     }
 
-    @Transactional(isolation = Isolation.SERIALIZABLE)
+    /**
+     * The delete is flushed before the image service is called, so a version conflict is retried
+     * before the images are gone.
+     */
+    @Transactional
+    @RetryOnWriteConflict
     public void delete(UUID id) {
-        postValidationService.findByIdThrowsExceptionIfDoesntExist(id,
+        Post post = postValidationService.findByIdThrowsExceptionIfDoesntExist(id,
                 new PostNotFoundException(POST_NOT_FOUND_MESSAGE));
         postRepository.deleteById(id);
+        postRepository.flush();
+        authorTimeline.remove(post.getAuthorId(), id);
+        hotFeed.remove(id);
+        postSearch.remove(id);
+        imageOutbox.discard(id);
+        postCache.evict(id);
         imageClient.deleteImageByParentId(id);
     }
 
-    @Transactional(isolation = Isolation.SERIALIZABLE)
+    @Transactional
+    @RetryOnWriteConflict
     public PostResponse update(PostRequest request, UUID id) {
         Post post = postValidationService.findByIdThrowsExceptionIfDoesntExist(id,
                 new PostNotFoundException(POST_NOT_FOUND_MESSAGE));
+        UUID authorId = post.getAuthorId();
+        String author = post.getAuthor();
+        String text = post.getText();
         postMapper.updateEntityByRequest(request, post);
+        if (!Objects.equals(authorId, post.getAuthorId())) {
+            postRepository.flush();
+            authorTimeline.remove(authorId, id);
+            authorTimeline.append(post);
+        }
+        if (!Objects.equals(author, post.getAuthor()) || !Objects.equals(text, post.getText())) {
+            postSearch.enqueue(id);
+        }
+        postCache.evict(id);
         return postMapper.toResponse(post, null);
     }
 
-    public PageableResponse<PostResponse> getFeed(int pageNumber, int size) {
-        Page<Post> posts = postRepository.findAll(PageRequest.of(pageNumber, size));
-        return fillPostsWithImages(posts, pageNumber, size);
+    public PageableResponse<PostResponse> getFeed(int pageNumber, int size, ImageMode imageMode, PostFields fields) {
+        PageRequest pageable = PageRequest.of(pageNumber, size);
+        List<PostView> posts = findFeedPage(pageable, fields);
+        return fillPageWithImages(GET_FEED, posts, pageable, postRepository::count, imageMode, fields);
     }
 
-    public PostResponse getById(UUID id) {
-        Post post = postValidationService.findByIdThrowsExceptionIfDoesntExist(id,
-                new PostNotFoundException(POST_NOT_FOUND_MESSAGE));
-        ImageResponse imageResponse = imageClient.getImageByParentId(id);
-        return postMapper.toResponse(post, imageResponse.files().stream().map(FileTransferEntity::file).toList());
+    /**
+     * The page is cut from the in-memory ranking and its posts are read by id, so no sort over the table
+     * is needed. Counters come from the posts themselves and may be ahead of the ranking.
+     */
+    public PageableResponse<PostResponse> getHotFeed(int pageNumber, int size, ImageMode imageMode, PostFields fields) {
+        PageRequest pageable = PageRequest.of(pageNumber, size);
+        List<PostView> posts = readFanOut.call(GET_HOT_FEED, DB_LEG,
+                () -> findInOrder(hotFeed.findPostIds(pageable.getOffset(), size), fields));
+        return fillPageWithImages(GET_HOT_FEED, posts, pageable, hotFeed::size, imageMode, fields);
+    }
+
+    /**
+     * The page is read before the body is returned, so a failing query still results in an error status.
+     * No count query is issued, the stream carries no totals.
+     */
+    public StreamingResponseBody streamFeed(int pageNumber, int size, ImageMode imageMode, PostFields fields) {
+        List<PostView> posts = findFeedPage(PageRequest.of(pageNumber, size), fields);
+        return postStreamWriter.write(posts, fields, chunk -> loadChunk(GET_FEED, chunk, imageMode, fields));
+    }
+
+    /**
+     * A fieldset without images is answered by a single query past the cache, which holds complete posts only.
+     */
+    public PostResponse getById(UUID id, ImageMode imageMode, PostFields fields) {
+        if (!fields.includesImages()) {
+            PostView post = readFanOut.call(GET_BY_ID, DB_LEG, () -> (fields.includes(PostField.TEXT)
+                    ? postRepository.findViewById(id)
+                    : postRepository.findSummaryById(id))
+                    .orElseThrow(() -> new PostNotFoundException(POST_NOT_FOUND_MESSAGE)));
+            return activityBuffer.overlay(postMapper.toResponse(post, null));
+        }
+        return activityBuffer.overlay(postCache.get(id, imageMode, () -> loadById(id, imageMode)));
+    }
+
+    /**
+     * The whole batch costs one query and one image service call. Duplicate ids are answered once, posts come
+     * back in the order their ids were first requested. Batch reads do not go through the post cache.
+     */
+    public PostBatchResponse getByIds(List<UUID> ids, ImageMode imageMode, PostFields fields) {
+        if (ids.size() > postBatchProperties.maxIds()) {
+            throw new BatchTooLargeException(BATCH_TOO_LARGE_MESSAGE.formatted(postBatchProperties.maxIds()));
+        }
+        Set<UUID> requested = new LinkedHashSet<>(ids);
+        Map<UUID, PostView> found = readFanOut.call(GET_BY_IDS, DB_LEG, () -> fields.includes(PostField.TEXT)
+                        ? postRepository.findViewsByIdIn(requested)
+                        : postRepository.findSummariesByIdIn(requested))
+                .stream()
+                .collect(Collectors.toMap(PostView::id, Function.identity()));
+        List<PostView> posts = new ArrayList<>(found.size());
+        List<UUID> missing = new ArrayList<>();
+        for (UUID id : requested) {
+            PostView post = found.get(id);
+            if (post == null) {
+                missing.add(id);
+            } else {
+                posts.add(post);
+            }
+        }
+        List<PostResponse> responses = fields.includesImages()
+                ? readFanOut.call(GET_BY_IDS, IMAGES_LEG, () -> fillPostsWithImages(posts, imageMode))
+                : withoutImages(posts);
+        return new PostBatchResponse(activityBuffer.overlay(responses), missing);
     }
 
     public PageableResponse<PostResponse> getPostsByAuthor(int pageNumber,
                                                            int size,
-                                                           String author) {
-        Page<Post> posts = postRepository.findByAuthor(author, PageRequest.of(pageNumber, size));
-        return fillPostsWithImages(posts, pageNumber, size);
+                                                           String author,
+                                                           ImageMode imageMode,
+                                                           PostFields fields) {
+        PageRequest pageable = PageRequest.of(pageNumber, size);
+        List<PostView> posts = findAuthorPage(author, pageable, fields);
+        return fillPageWithImages(GET_BY_AUTHOR, posts, pageable, () -> postRepository.countByAuthor(author),
+                imageMode, fields);
+    }
+
+    public PageableResponse<PostResponse> getPostsByAuthorId(int pageNumber,
+                                                             int size,
+                                                             UUID authorId,
+                                                             ImageMode imageMode,
+                                                             PostFields fields) {
+        PageRequest pageable = PageRequest.of(pageNumber, size);
+        List<PostView> posts = findAuthorIdPage(authorId, pageable, fields);
+        return fillPageWithImages(GET_BY_AUTHOR, posts, pageable, () -> postRepository.countByAuthorId(authorId),
+                imageMode, fields);
+    }
+
+    @Transactional
+    public int rebuildAuthorTimeline(UUID authorId) {
+        return authorTimeline.rebuild(authorId);
+    }
+
+    /**
+     * Posts are matched by their last indexed author and text, the response carries their current values.
+     */
+    public PageableResponse<PostResponse> search(String query,
+                                                 int pageNumber,
+                                                 int size,
+                                                 ImageMode imageMode,
+                                                 PostFields fields) {
+        PageRequest pageable = PageRequest.of(pageNumber, size);
+        List<PostView> posts = readFanOut.call(SEARCH, DB_LEG,
+                () -> postSearch.find(query, pageable.getOffset(), size, fields.includes(PostField.TEXT)));
+        return fillPageWithImages(SEARCH, posts, pageable, () -> postSearch.count(query), imageMode, fields);
     }
 
+    public StreamingResponseBody streamPostsByAuthor(int pageNumber,
+                                                     int size,
+                                                     String author,
+                                                     ImageMode imageMode,
+                                                     PostFields fields) {
+        List<PostView> posts = findAuthorPage(author, PageRequest.of(pageNumber, size), fields);
+        return postStreamWriter.write(posts, fields, chunk -> loadChunk(GET_BY_AUTHOR, chunk, imageMode, fields));
+    }
+
+    public CursorPageableResponse<PostResponse> getFeedByCursor(String cursor, int size, ImageMode imageMode) {
+        Limit limit = Limit.of(size + 1);
+        List<PostView> posts;
+        if (cursor == null) {
+            posts = postRepository.findFeedFirstPage(limit);
+        } else {
+            PostCursor position = postCursorCodec.decode(cursor);
+            posts = postRepository.findFeedPageAfter(position.createdAt(), position.id(), limit);
+        }
+        return fillCursorPageWithImages(posts, size, imageMode);
+    }
+
+    public CursorPageableResponse<PostResponse> getPostsByAuthorByCursor(String cursor,
+                                                                         int size,
+                                                                         String author,
+                                                                         ImageMode imageMode) {
+        Limit limit = Limit.of(size + 1);
+        List<PostView> posts;
+        if (cursor == null) {
+            posts = postRepository.findByAuthorFirstPage(author, limit);
+        } else {
+            PostCursor position = postCursorCodec.decode(cursor);
+            posts = postRepository.findByAuthorPageAfter(author, position.createdAt(), position.id(), limit);
+        }
+        return fillCursorPageWithImages(posts, size, imageMode);
+    }
+
+    public String getETag(List<PostResponse> posts, ImageMode imageMode) {
+        return eTag(posts.stream().mapToLong(post -> version(post.id(), post.updatedAt())), imageMode);
+    }
+
+    public String getETag(UUID id, ImageMode imageMode) {
+        return postRepository.findSummaryById(id)
+                .map(post -> eTagOfViews(List.of(post), imageMode))
+                .orElse(null);
+    }
+
+    public String getFeedETag(int pageNumber, int size, ImageMode imageMode) {
+        return eTagOfViews(findFeedPage(PageRequest.of(pageNumber, size), SUMMARY_FIELDS), imageMode);
+    }
+
+    public String getHotFeedETag(int pageNumber, int size, ImageMode imageMode) {
+        List<UUID> postIds = hotFeed.findPostIds(PageRequest.of(pageNumber, size).getOffset(), size);
+        return eTagOfViews(readFanOut.call(GET_HOT_FEED, DB_LEG, () -> findInOrder(postIds, SUMMARY_FIELDS)),
+                imageMode);
+    }
+
+    public String getPostsByAuthorETag(int pageNumber, int size, String author, ImageMode imageMode) {
+        return eTagOfViews(findAuthorPage(author, PageRequest.of(pageNumber, size), SUMMARY_FIELDS), imageMode);
+    }
+
+    public String getPostsByAuthorIdETag(int pageNumber, int size, UUID authorId, ImageMode imageMode) {
+        return eTagOfViews(findAuthorIdPage(authorId, PageRequest.of(pageNumber, size), SUMMARY_FIELDS),
+                imageMode);
+    }
+
+    public AttachmentStatusResponse getAttachmentStatus(UUID id) {
+        Post post = postValidationService.findByIdThrowsExceptionIfDoesntExist(id,
+                new PostNotFoundException(POST_NOT_FOUND_MESSAGE));
+        return imageOutbox.getStatus(post);
+    }
+
+    public StreamingResponseBody getImageContent(UUID postId, int imageId) {
+        postValidationService.findByIdThrowsExceptionIfDoesntExist(postId,
+                new PostNotFoundException(POST_NOT_FOUND_MESSAGE));
+        return imageStreamReader.openImage(imageId, imageClient.streamImageByParentId(postId));
+    }
+
+    /**
+     * Only the counter columns are written, so the update cannot overwrite a concurrent edit of the post.
+     * An event older than the applied one is skipped.
+     */
+    @Transactional
     public void updateActivity(ActivityResponse activityResponse) {
-        Post post = postRepository.findById(activityResponse.postId()).orElseThrow(() -> new PostNotFoundException("Post not found"));
-        post.setNumberOfComments(activityResponse.numberOfComments());
-        post.setNumberOfLikes(activityResponse.numberOfLikes());
-        postRepository.save(post);
-    }
-
-    private PageableResponse<PostResponse> fillPostsWithImages(Page<Post> posts,
-                                                               int pageNumber,
-                                                               int size) {
-        List<UUID> ids = posts.map(Post::getId).stream().toList();
-        PageableResponse<ImageResponse> images = imageClient.getImagesByParentId(ids, pageNumber, size);
-        Page<PostResponse> postResponses = posts.map(post -> {
-            List<byte[]> files = images.content()
-                    .stream()
-                    .filter(response -> response.parentId().equals(post.getId()))
-                    .findFirst()
-                    .get().files()
-                    .stream().map(FileTransferEntity::file).toList();
-            return postMapper.toResponse(post, files);
+        if (postActivityRepository.updateCounters(List.of(activityResponse)) == 0) {
+            if (!postRepository.existsById(activityResponse.postId())) {
+                throw new PostNotFoundException(POST_NOT_FOUND_MESSAGE);
+            }
+            return;
+        }
+        postCache.evict(activityResponse.postId());
+        hotFeed.record(List.of(activityResponse));
+    }
+
+    @Transactional
+    public void updateActivities(Collection<ActivityResponse> activities) {
+        if (activities.isEmpty()) {
+            return;
+        }
+        List<ActivityResponse> applied = postActivityRepository.applyCounters(activities);
+        activities.forEach(activity -> postCache.evict(activity.postId()));
+        hotFeed.record(applied);
+    }
+
+    /**
+     * The images are requested by the id the caller supplied, so the image service and the database
+     * are queried concurrently. The image leg is cancelled when the post does not exist.
+     */
+    private PostResponse loadById(UUID id, ImageMode imageMode) {
+        if (imageMode == ImageMode.REFERENCE) {
+            Future<List<ImageDescriptor>> descriptors = readFanOut.fork(GET_BY_ID, IMAGES_LEG,
+                    () -> imageStreamReader.readDescriptors(id, imageClient.streamImageByParentId(id)));
+            PostView post = findByIdOrCancel(id, descriptors);
+            try {
+                return postMapper.toReferenceResponse(post, readFanOut.join(descriptors));
+            } catch (ImageServiceInternalError e) {
+                return postMapper.toDegradedResponse(post);
+            }
+        }
+        Future<ImageResponse> images = readFanOut.fork(GET_BY_ID, IMAGES_LEG, () -> imageClient.getImageByParentId(id));
+        PostView post = findByIdOrCancel(id, images);
+        ImageResponse imageResponse;
+        try {
+            imageResponse = readFanOut.join(images);
+        } catch (ImageServiceInternalError e) {
+            return postMapper.toDegradedResponse(post);
+        }
+        return postMapper.toResponse(post, imageResponse.files().stream().map(FileTransferEntity::file).toList());
+    }
+
+    private PostView findByIdOrCancel(UUID id, Future<?> images) {
+        try {
+            return readFanOut.call(GET_BY_ID, DB_LEG, () -> postRepository.findViewById(id)
+                    .orElseThrow(() -> new PostNotFoundException(POST_NOT_FOUND_MESSAGE)));
+        } catch (RuntimeException e) {
+            readFanOut.cancel(images);
+            throw e;
+        }
+    }
+
+    private List<PostView> findFeedPage(Pageable pageable, PostFields fields) {
+        return readFanOut.call(GET_FEED, DB_LEG, () -> fields.includes(PostField.TEXT)
+                ? postRepository.findViewsBy(pageable)
+                : postRepository.findSummariesBy(pageable));
+    }
+
+    private List<PostView> findAuthorPage(String author, Pageable pageable, PostFields fields) {
+        return readFanOut.call(GET_BY_AUTHOR, DB_LEG, () -> fields.includes(PostField.TEXT)
+                ? postRepository.findViewsByAuthor(author, pageable)
+                : postRepository.findSummariesByAuthor(author, pageable));
+    }
+
+    /**
+     * Posts the timeline lists are read by id and put back in its order; a post deleted in the meantime is
+     * left out. Pages past the timeline bound are read from the posts table.
+     */
+    private List<PostView> findAuthorIdPage(UUID authorId, Pageable pageable, PostFields fields) {
+        return readFanOut.call(GET_BY_AUTHOR, DB_LEG, () -> {
+            Optional<List<UUID>> postIds = authorTimeline.findPostIds(authorId, pageable.getOffset(),
+                    pageable.getPageSize());
+            if (postIds.isEmpty()) {
+                return fields.includes(PostField.TEXT)
+                        ? postRepository.findViewsByAuthorId(authorId, pageable)
+                        : postRepository.findSummariesByAuthorId(authorId, pageable);
+            }
+            return findInOrder(postIds.get(), fields);
         });
-        return pageMapper.toResponse(postResponses);
+    }
+
+    /**
+     * Posts of the ids in the order of the ids; a post deleted in the meantime is left out.
+     */
+    private List<PostView> findInOrder(List<UUID> ids, PostFields fields) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<UUID, PostView> found = (fields.includes(PostField.TEXT)
+                ? postRepository.findViewsByIdIn(ids)
+                : postRepository.findSummariesByIdIn(ids))
+                .stream()
+                .collect(Collectors.toMap(PostView::id, Function.identity()));
+        return ids.stream().map(found::get).filter(Objects::nonNull).toList();
+    }
+
+    /**
+     * Images of the page are fetched while the total is counted; the count is skipped altogether
+     * when the page content already determines it. The image service is not called when the fieldset
+     * has no image field.
+     */
+    private PageableResponse<PostResponse> fillPageWithImages(String operation,
+                                                              List<PostView> posts,
+                                                              Pageable pageable,
+                                                              LongSupplier count,
+                                                              ImageMode imageMode,
+                                                              PostFields fields) {
+        Future<List<PostResponse>> responses = fields.includesImages()
+                ? readFanOut.fork(operation, IMAGES_LEG, () -> fillPostsWithImages(posts, imageMode))
+                : CompletableFuture.completedFuture(withoutImages(posts));
+        Page<PostView> page;
+        try {
+            page = PageableExecutionUtils.getPage(posts, pageable,
+                    () -> readFanOut.call(operation, COUNT_LEG, count::getAsLong));
+        } catch (RuntimeException e) {
+            readFanOut.cancel(responses);
+            throw e;
+        }
+        return pageMapper.toResponse(new PageImpl<>(activityBuffer.overlay(readFanOut.join(responses)), pageable,
+                page.getTotalElements()));
+    }
+
+    /**
+     * Posts are fetched with one extra row, so the presence of that row tells whether
+     * a next page exists without issuing a count query.
+     */
+    private CursorPageableResponse<PostResponse> fillCursorPageWithImages(List<PostView> posts,
+                                                                          int size,
+                                                                          ImageMode imageMode) {
+        boolean hasNext = posts.size() > size;
+        List<PostView> page = hasNext ? posts.subList(0, size) : posts;
+        String nextCursor = hasNext ? postCursorCodec.encode(page.getLast()) : null;
+        return new CursorPageableResponse<>(size, nextCursor, activityBuffer.overlay(
+                readFanOut.call(GET_BY_CURSOR, IMAGES_LEG, () -> fillPostsWithImages(page, imageMode))));
+    }
+
+    /**
+     * Every write moves {@code updated_at} forward, and the posts are hashed in the order they are served, so a
+     * tag changes with any post of the read and with posts entering, leaving or moving within it. Pages and
+     * fieldsets are part of the url; the image mode is not, since it may come from the {@code Accept} header.
+     * Buffered counters are covered by the buffer's stamp. The tag is weak: it stays the same whether the body is
+     * compressed or not, and the container only compresses weakly tagged bodies.
+     */
+    private String eTag(LongStream versions, ImageMode imageMode) {
+        long hash = versions.reduce(1, (result, version) -> 31 * result + version);
+        return "W/\"" + Long.toHexString(hash) + "-" + Long.toHexString(activityBuffer.stamp()) + "-"
+                + imageMode.name().toLowerCase() + "\"";
+    }
+
+    private String eTagOfViews(List<PostView> posts, ImageMode imageMode) {
+        return eTag(posts.stream().mapToLong(post -> version(post.id(), post.updatedAt())), imageMode);
+    }
+
+    private static long version(UUID id, LocalDateTime updatedAt) {
+        long updatedAtMicros = updatedAt == null ? 0
+                : updatedAt.toEpochSecond(ZoneOffset.UTC) * 1_000_000 + updatedAt.getNano() / 1_000;
+        return (31 * id.getMostSignificantBits() + id.getLeastSignificantBits()) * 31 + updatedAtMicros;
+    }
+
+    private List<PostResponse> loadChunk(String operation, List<PostView> posts, ImageMode imageMode, PostFields fields) {
+        return activityBuffer.overlay(fields.includesImages()
+                ? readFanOut.call(operation, IMAGES_LEG, () -> fillPostsWithImages(posts, imageMode))
+                : withoutImages(posts));
+    }
+
+    private List<PostResponse> withoutImages(List<PostView> posts) {
+        return posts.stream().map(post -> postMapper.toResponse(post, null)).toList();
+    }
+
+    /**
+     * The image service pages over images, not posts, so a single page sized to the
+     * number of requested parents is asked for regardless of the posts page. When the
+     * image service is unavailable the posts are returned without images.
+     */
+    private List<PostResponse> fillPostsWithImages(List<PostView> posts, ImageMode imageMode) {
+        if (posts.isEmpty()) {
+            return List.of();
+        }
+        List<UUID> ids = posts.stream().map(PostView::id).toList();
+        if (imageMode == ImageMode.REFERENCE) {
+            Map<UUID, List<ImageDescriptor>> descriptors;
+            try {
+                descriptors = imageStreamReader.readDescriptors(imageClient.streamImagesByParentId(ids, 0, ids.size()));
+            } catch (ImageServiceInternalError e) {
+                return posts.stream().map(postMapper::toDegradedResponse).toList();
+            }
+            return posts.stream()
+                    .map(post -> postMapper.toReferenceResponse(post, descriptors.getOrDefault(post.id(), List.of())))
+                    .toList();
+        }
+        PageableResponse<ImageResponse> images;
+        try {
+            images = imageClient.getImagesByParentId(ids, 0, ids.size());
+        } catch (ImageServiceInternalError e) {
+            return posts.stream().map(postMapper::toDegradedResponse).toList();
+        }
+        return postImageJoiner.join(posts, images == null ? null : images.content(), postMapper::toResponse);
     }
 
 }
@@ -0,0 +1,128 @@
+package ru.kharevich.postservice.timeline;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.kharevich.postservice.config.properties.TimelineProperties;
+import ru.kharevich.postservice.model.Post;
+import ru.kharevich.postservice.repository.AuthorTimelineRepository;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Newest post ids of every author, written when posts are created and deleted so that reading an author's
+ * page does not scan the posts table. Timelines are bounded by {@link TimelineProperties#maxSize()}; pages
+ * past the bound are not answered and fall back to the posts table.
+ * <p>
+ * Whole timelines are optionally kept in memory. A miss installs a placeholder and loads outside of the map
+ * lock, like the post cache does. Writes invalidate the author right away and again after commit; the second
+ * invalidation also drops a placeholder whose load read the timeline before the write committed.
+ */
+@Component
+public class AuthorTimeline {
+
+    private final TimelineProperties properties;
+    private final AuthorTimelineRepository authorTimelineRepository;
+    private final AsyncCache<UUID, List<UUID>> hotTier;
+
+    public AuthorTimeline(TimelineProperties properties,
+                          AuthorTimelineRepository authorTimelineRepository,
+                          MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.authorTimelineRepository = authorTimelineRepository;
+        this.hotTier = Caffeine.newBuilder()
+                .expireAfterWrite(properties.hotTtl())
+                .maximumWeight(properties.hotMaximumPosts())
+                .<UUID, List<UUID>>weigher((authorId, postIds) -> Math.max(1, postIds.size()))
+                .recordStats()
+                .buildAsync();
+        CaffeineCacheMetrics.monitor(meterRegistry, hotTier, "timelines.hot");
+    }
+
+    public void append(Post post) {
+        authorTimelineRepository.append(post.getAuthorId(), post.getId(), post.getCreatedAt(), properties.maxSize());
+        invalidate(post.getAuthorId());
+    }
+
+    public void remove(UUID authorId, UUID postId) {
+        if (authorTimelineRepository.remove(authorId, postId, properties.maxSize())) {
+            invalidate(authorId);
+        }
+    }
+
+    /**
+     * Replaces the timeline of the author with the newest posts of the posts table.
+     *
+     * @return number of posts the timeline holds afterwards
+     */
+    public int rebuild(UUID authorId) {
+        int size = authorTimelineRepository.rebuild(authorId, properties.maxSize());
+        invalidate(authorId);
+        return size;
+    }
+
+    /**
+     * @return post ids of the page newest first, or nothing when the page reaches past the timeline bound
+     */
+    public Optional<List<UUID>> findPostIds(UUID authorId, long offset, int limit) {
+        if (offset + limit > properties.maxSize()) {
+            return Optional.empty();
+        }
+        if (!properties.hotEnabled()) {
+            return Optional.of(authorTimelineRepository.findPostIds(authorId, offset, limit));
+        }
+        List<UUID> postIds = findAllPostIds(authorId);
+        int from = (int) Math.min(offset, postIds.size());
+        int to = (int) Math.min(offset + limit, postIds.size());
+        return Optional.of(postIds.subList(from, to));
+    }
+
+    private List<UUID> findAllPostIds(UUID authorId) {
+        CompletableFuture<List<UUID>> placeholder = new CompletableFuture<>();
+        CompletableFuture<List<UUID>> existing = hotTier.asMap().putIfAbsent(authorId, placeholder);
+        if (existing != null) {
+            return await(existing);
+        }
+        List<UUID> postIds;
+        try {
+            postIds = List.copyOf(authorTimelineRepository.findPostIds(authorId, 0, properties.maxSize()));
+        } catch (RuntimeException | Error e) {
+            placeholder.completeExceptionally(e);
+            throw e;
+        }
+        placeholder.complete(postIds);
+        return postIds;
+    }
+
+    private List<UUID> await(CompletableFuture<List<UUID>> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private void invalidate(UUID authorId) {
+        hotTier.synchronous().invalidate(authorId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    hotTier.synchronous().invalidate(authorId);
+                }
+            });
+        }
+    }
+
+}
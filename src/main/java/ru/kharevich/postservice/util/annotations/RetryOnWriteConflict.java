@@ -0,0 +1,27 @@
+package ru.kharevich.postservice.util.annotations;
+
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.retry.annotation.Backoff;
+import org.springframework.retry.annotation.Retryable;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Reruns a write whose optimistic version check failed. The retry advice is applied outside the
+ * transaction, so every attempt reloads the post in a fresh transaction. The jittered backoff keeps
+ * writers that collided from colliding again on the next attempt.
+ */
+@Target({ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+@Retryable(
+        retryFor = ObjectOptimisticLockingFailureException.class,
+        maxAttempts = 3,
+        backoff = @Backoff(delay = 10, multiplier = 2, maxDelay = 100, random = true)
+)
+@Documented
+public @interface RetryOnWriteConflict {
+}
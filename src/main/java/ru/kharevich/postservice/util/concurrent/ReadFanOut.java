@@ -0,0 +1,96 @@
+package ru.kharevich.postservice.util.concurrent;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.stereotype.Component;
+import ru.kharevich.postservice.exception.PostServiceInternalError;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Supplier;
+
+import static ru.kharevich.postservice.util.constants.PostServiceResponseMessages.READ_INTERRUPTED_MESSAGE;
+
+/**
+ * Runs independent legs of a read concurrently and records each leg in the {@code post.read.leg} timer.
+ * Forked legs run on the application task executor, which uses virtual threads when they are enabled;
+ * when the executor is saturated the leg runs on the caller instead, i.e. sequentially.
+ */
+@Component
+public class ReadFanOut {
+
+    private static final String LEG_TIMER = "post.read.leg";
+
+    private final Executor executor;
+    private final MeterRegistry meterRegistry;
+
+    public ReadFanOut(@Qualifier(TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME) Executor executor,
+                      MeterRegistry meterRegistry) {
+        this.executor = executor;
+        this.meterRegistry = meterRegistry;
+    }
+
+    public <T> Future<T> fork(String operation, String leg, Supplier<T> supplier) {
+        return fork(() -> call(operation, leg, supplier));
+    }
+
+    public <T> Future<T> fork(Supplier<T> supplier) {
+        FutureTask<T> task = new FutureTask<>(supplier::get);
+        try {
+            executor.execute(task);
+        } catch (RejectedExecutionException e) {
+            task.run();
+        }
+        return task;
+    }
+
+    public <T> T call(String operation, String leg, Supplier<T> supplier) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "error";
+        try {
+            T result = supplier.get();
+            outcome = "success";
+            return result;
+        } finally {
+            sample.stop(Timer.builder(LEG_TIMER)
+                    .tag("operation", operation)
+                    .tag("leg", leg)
+                    .tag("outcome", outcome)
+                    .register(meterRegistry));
+        }
+    }
+
+    /**
+     * Waits for a forked leg and rethrows its exception unchanged.
+     */
+    public <T> T join(Future<T> future) {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new PostServiceInternalError(READ_INTERRUPTED_MESSAGE);
+        }
+    }
+
+    /**
+     * Abandons a forked leg whose result is no longer needed, interrupting it if it is still running.
+     */
+    public void cancel(Future<?> future) {
+        future.cancel(true);
+    }
+
+}
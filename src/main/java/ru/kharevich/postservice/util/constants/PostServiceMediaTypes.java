@@ -0,0 +1,11 @@
+package ru.kharevich.postservice.util.constants;
+
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public final class PostServiceMediaTypes {
+
+    public static final String IMAGE_REFERENCE_JSON_VALUE = "application/vnd.post-service.image-ref+json";
+
+}
@@ -0,0 +1,32 @@
+package ru.kharevich.postservice.util.constants;
+
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+/**
+ * Tag values of the {@code post.read.leg} timer.
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public final class PostServiceMetrics {
+
+    public static final String GET_BY_ID = "getById";
+
+    public static final String GET_BY_IDS = "getByIds";
+
+    public static final String GET_FEED = "getFeed";
+
+    public static final String GET_HOT_FEED = "getHotFeed";
+
+    public static final String GET_BY_AUTHOR = "getPostsByAuthor";
+
+    public static final String GET_BY_CURSOR = "getByCursor";
+
+    public static final String SEARCH = "search";
+
+    public static final String DB_LEG = "db";
+
+    public static final String COUNT_LEG = "count";
+
+    public static final String IMAGES_LEG = "images";
+
+}
@@ -16,4 +16,20 @@ public final class PostServiceResponseMessages {
 
     public static final String NO_FILES_UPLOADED_MESSAGE = "Must contain at least one valid file";
 
+    public static final String INVALID_CURSOR_MESSAGE = "invalid page cursor";
+
+    public static final String INVALID_FIELDS_MESSAGE = "unknown post field requested";
+
+    public static final String INVALID_IMAGE_MODE_MESSAGE = "unknown image mode requested";
+
+    public static final String BATCH_TOO_LARGE_MESSAGE = "too many post ids requested, at most %d are allowed";
+
+    public static final String READ_INTERRUPTED_MESSAGE = "read was interrupted";
+
+    public static final String POST_WRITE_CONFLICT_MESSAGE = "post was modified concurrently, retry the request";
+
+    public static final String SEARCH_DISABLED_MESSAGE = "post search is disabled";
+
+    public static final String OUTBOX_PAYLOAD_MISSING_MESSAGE = "outbox entry has no stored image";
+
 }
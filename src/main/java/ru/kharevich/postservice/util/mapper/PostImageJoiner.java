@@ -0,0 +1,55 @@
+package ru.kharevich.postservice.util.mapper;
+
+import org.springframework.stereotype.Component;
+import ru.kharevich.postservice.dto.response.ImageResponse;
+import ru.kharevich.postservice.dto.transferObject.FileTransferEntity;
+import ru.kharevich.postservice.dto.transferObject.PostView;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.BiFunction;
+
+/**
+ * Joins posts with the images returned by the image service.
+ * The images are indexed by parent id once, so attaching them costs O(posts + images)
+ * instead of scanning the whole image page for every post.
+ */
+@Component
+public class PostImageJoiner {
+
+    public Map<UUID, List<byte[]>> indexByParentId(Collection<ImageResponse> images) {
+        if (images == null || images.isEmpty()) {
+            return Map.of();
+        }
+        Map<UUID, List<byte[]>> index = HashMap.newHashMap(images.size());
+        for (ImageResponse image : images) {
+            if (image == null || image.parentId() == null || image.files() == null) {
+                continue;
+            }
+            List<byte[]> files = index.computeIfAbsent(image.parentId(), id -> new ArrayList<>(image.files().size()));
+            for (FileTransferEntity file : image.files()) {
+                files.add(file.file());
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Posts without any images are combined with an empty list.
+     */
+    public <R> List<R> join(List<PostView> posts,
+                                Collection<ImageResponse> images,
+                                BiFunction<PostView, List<byte[]>, R> combiner) {
+        Map<UUID, List<byte[]>> index = indexByParentId(images);
+        List<R> result = new ArrayList<>(posts.size());
+        for (PostView post : posts) {
+            result.add(combiner.apply(post, index.getOrDefault(post.id(), List.of())));
+        }
+        return result;
+    }
+
+}
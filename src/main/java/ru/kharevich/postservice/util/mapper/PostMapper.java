@@ -2,10 +2,13 @@ package ru.kharevich.postservice.util.mapper;
 
 import org.mapstruct.InjectionStrategy;
 import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
 import org.mapstruct.MappingConstants;
 import org.mapstruct.MappingTarget;
 import ru.kharevich.postservice.dto.request.PostRequest;
+import ru.kharevich.postservice.dto.response.ImageDescriptor;
 import ru.kharevich.postservice.dto.response.PostResponse;
+import ru.kharevich.postservice.dto.transferObject.PostView;
 import ru.kharevich.postservice.model.Post;
 
 import java.util.List;
@@ -16,8 +19,35 @@ import java.util.List;
 )
 public interface PostMapper {
 
+    @Mapping(target = "images", ignore = true)
+    @Mapping(target = "imagesUnavailable", ignore = true)
     PostResponse toResponse(Post post, List<byte[]> files);
 
+    @Mapping(target = "files", ignore = true)
+    @Mapping(target = "imagesUnavailable", ignore = true)
+    PostResponse toReferenceResponse(Post post, List<ImageDescriptor> images);
+
+    /**
+     * Post text and counters only, used when the image service cannot be reached.
+     */
+    @Mapping(target = "files", ignore = true)
+    @Mapping(target = "images", ignore = true)
+    @Mapping(target = "imagesUnavailable", constant = "true")
+    PostResponse toDegradedResponse(Post post);
+
+    @Mapping(target = "images", ignore = true)
+    @Mapping(target = "imagesUnavailable", ignore = true)
+    PostResponse toResponse(PostView post, List<byte[]> files);
+
+    @Mapping(target = "files", ignore = true)
+    @Mapping(target = "imagesUnavailable", ignore = true)
+    PostResponse toReferenceResponse(PostView post, List<ImageDescriptor> images);
+
+    @Mapping(target = "files", ignore = true)
+    @Mapping(target = "images", ignore = true)
+    @Mapping(target = "imagesUnavailable", constant = "true")
+    PostResponse toDegradedResponse(PostView post);
+
     Post toEntity(PostRequest postRequest);
 
     void updateEntityByRequest(PostRequest driverRequest, @MappingTarget Post post);
@@ -0,0 +1,48 @@
+package ru.kharevich.postservice.util.pagination;
+
+import org.springframework.stereotype.Component;
+import ru.kharevich.postservice.dto.transferObject.PostCursor;
+import ru.kharevich.postservice.dto.transferObject.PostView;
+import ru.kharevich.postservice.exception.InvalidCursorException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.UUID;
+
+import static ru.kharevich.postservice.util.constants.PostServiceResponseMessages.INVALID_CURSOR_MESSAGE;
+
+/**
+ * Encodes the keyset position {@code (created_at, id)} of the last returned post
+ * into an opaque url-safe token and back.
+ */
+@Component
+public class PostCursorCodec {
+
+    private static final String SEPARATOR = "|";
+
+    public String encode(PostView post) {
+        String raw = post.createdAt() + SEPARATOR + post.id();
+        return Base64.getUrlEncoder()
+                .withoutPadding()
+                .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public PostCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separatorIndex = raw.indexOf(SEPARATOR);
+            if (separatorIndex < 0) {
+                throw new InvalidCursorException(INVALID_CURSOR_MESSAGE);
+            }
+            return new PostCursor(
+                    LocalDateTime.parse(raw.substring(0, separatorIndex)),
+                    UUID.fromString(raw.substring(separatorIndex + 1))
+            );
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new InvalidCursorException(INVALID_CURSOR_MESSAGE);
+        }
+    }
+
+}
@@ -0,0 +1,101 @@
+package ru.kharevich.postservice.util.stream;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.kharevich.postservice.config.properties.PostStreamProperties;
+import ru.kharevich.postservice.dto.response.PostResponse;
+import ru.kharevich.postservice.dto.transferObject.PostFields;
+import ru.kharevich.postservice.dto.transferObject.PostView;
+import ru.kharevich.postservice.util.concurrent.ReadFanOut;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+
+import static ru.kharevich.postservice.config.JacksonConfig.POST_FIELDS_FILTER;
+
+/**
+ * Writes posts as newline-delimited JSON, one post per line, chunk by chunk. A few chunks are loaded ahead
+ * of the one being written, so only those chunks' images are held at a time instead of the whole page's.
+ */
+@Component
+@RequiredArgsConstructor
+public class PostStreamWriter {
+
+    private static final String LINE_SEPARATOR = "\n";
+
+    private final ObjectMapper objectMapper;
+    private final ReadFanOut readFanOut;
+    private final PostStreamProperties postStreamProperties;
+
+    /**
+     * The first chunks are requested before the body is returned, i.e. while the request is handed over to
+     * the async executor. A failure after the first flush can only abort the response, the status is sent.
+     */
+    public StreamingResponseBody write(List<PostView> posts,
+                                       PostFields fields,
+                                       Function<List<PostView>, List<PostResponse>> loader) {
+        ObjectWriter writer = objectMapper.writer(filters(fields))
+                .withRootValueSeparator(LINE_SEPARATOR)
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        Iterator<List<PostView>> chunks = chunks(posts).iterator();
+        Deque<Future<List<PostResponse>>> loading = new ArrayDeque<>();
+        prefetch(chunks, loading, loader);
+        return outputStream -> {
+            try (SequenceWriter lines = writer.writeValues(outputStream)) {
+                while (!loading.isEmpty()) {
+                    List<PostResponse> responses = readFanOut.join(loading.poll());
+                    prefetch(chunks, loading, loader);
+                    lines.writeAll(responses);
+                    lines.flush();
+                }
+            } finally {
+                loading.forEach(readFanOut::cancel);
+            }
+            if (!posts.isEmpty()) {
+                outputStream.write('\n');
+            }
+        };
+    }
+
+    /**
+     * Refills after the chunk to be written has left {@code loading}, so at most {@code prefetch} chunks are
+     * loaded ahead of it and {@code prefetch + 1} are held in total.
+     */
+    private void prefetch(Iterator<List<PostView>> chunks,
+                          Deque<Future<List<PostResponse>>> loading,
+                          Function<List<PostView>, List<PostResponse>> loader) {
+        int ahead = Math.max(1, postStreamProperties.prefetch());
+        while (chunks.hasNext() && loading.size() < ahead) {
+            List<PostView> chunk = chunks.next();
+            loading.add(readFanOut.fork(() -> loader.apply(chunk)));
+        }
+    }
+
+    private List<List<PostView>> chunks(List<PostView> posts) {
+        int chunkSize = Math.max(1, postStreamProperties.chunkSize());
+        List<List<PostView>> chunks = new ArrayList<>((posts.size() + chunkSize - 1) / chunkSize);
+        for (int from = 0; from < posts.size(); from += chunkSize) {
+            chunks.add(posts.subList(from, Math.min(from + chunkSize, posts.size())));
+        }
+        return chunks;
+    }
+
+    private static SimpleFilterProvider filters(PostFields fields) {
+        return new SimpleFilterProvider().addFilter(POST_FIELDS_FILTER, PostFields.ALL.equals(fields)
+                ? SimpleBeanPropertyFilter.serializeAll()
+                : SimpleBeanPropertyFilter.filterOutAllExcept(fields.properties()));
+    }
+
+}
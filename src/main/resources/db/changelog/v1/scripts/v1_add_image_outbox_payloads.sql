@@ -0,0 +1,17 @@
+ALTER TABLE post_schema.image_outbox
+    ADD COLUMN file_name VARCHAR(255);
+
+UPDATE post_schema.image_outbox
+SET file_name = regexp_replace(file_path, '^.*/[0-9]+-', '');
+
+ALTER TABLE post_schema.image_outbox
+    ALTER COLUMN file_name SET NOT NULL;
+
+ALTER TABLE post_schema.image_outbox
+    DROP COLUMN file_path;
+
+CREATE TABLE post_schema.image_outbox_payloads
+(
+    entry_id UUID PRIMARY KEY REFERENCES post_schema.image_outbox (id) ON DELETE CASCADE,
+    content  BYTEA NOT NULL
+);
\ No newline at end of file
@@ -0,0 +1,3 @@
+CREATE INDEX idx_posts_created_at_id ON post_schema.posts (created_at DESC, id DESC);
+
+CREATE INDEX idx_posts_author_created_at_id ON post_schema.posts (author, created_at DESC, id DESC);
\ No newline at end of file
@@ -0,0 +1,2 @@
+ALTER TABLE post_schema.posts
+    ADD COLUMN activity_version BIGINT NOT NULL DEFAULT 0;
\ No newline at end of file
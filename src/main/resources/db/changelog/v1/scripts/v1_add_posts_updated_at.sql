@@ -0,0 +1,2 @@
+ALTER TABLE post_schema.posts
+    ADD COLUMN updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP NOT NULL;
\ No newline at end of file
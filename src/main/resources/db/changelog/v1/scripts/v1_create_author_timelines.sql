@@ -0,0 +1,21 @@
+CREATE INDEX idx_posts_author_id_created_at_id ON post_schema.posts (author_id, created_at DESC, id DESC);
+
+CREATE TABLE post_schema.author_timelines
+(
+    author_id  UUID      NOT NULL,
+    post_id    UUID      NOT NULL,
+    created_at TIMESTAMP NOT NULL,
+    PRIMARY KEY (author_id, post_id)
+);
+
+CREATE INDEX idx_author_timelines_author_id_created_at_post_id
+    ON post_schema.author_timelines (author_id, created_at DESC, post_id DESC);
+
+INSERT INTO post_schema.author_timelines (author_id, post_id, created_at)
+SELECT author_id, id, created_at
+FROM (SELECT author_id,
+             id,
+             created_at,
+             ROW_NUMBER() OVER (PARTITION BY author_id ORDER BY created_at DESC, id DESC) AS position
+      FROM post_schema.posts) ranked
+WHERE position <= 1000;
\ No newline at end of file
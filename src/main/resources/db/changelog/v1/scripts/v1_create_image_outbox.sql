@@ -0,0 +1,19 @@
+ALTER TABLE post_schema.posts
+    ADD COLUMN attachment_status VARCHAR(16) NOT NULL DEFAULT 'ATTACHED';
+
+CREATE TABLE post_schema.image_outbox
+(
+    id              UUID PRIMARY KEY,
+    post_id         UUID         NOT NULL,
+    file_path       VARCHAR(1024) NOT NULL,
+    content_type    VARCHAR(255),
+    status          VARCHAR(16)  NOT NULL,
+    attempts        INTEGER      NOT NULL DEFAULT 0,
+    next_attempt_at TIMESTAMP    NOT NULL,
+    last_error      VARCHAR(255),
+    created_at      TIMESTAMP    NOT NULL
+);
+
+CREATE INDEX idx_image_outbox_status_next_attempt_at ON post_schema.image_outbox (status, next_attempt_at);
+
+CREATE INDEX idx_image_outbox_post_id ON post_schema.image_outbox (post_id);
\ No newline at end of file
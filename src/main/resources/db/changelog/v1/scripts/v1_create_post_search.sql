@@ -0,0 +1,20 @@
+CREATE TABLE post_schema.post_search_documents
+(
+    post_id       UUID PRIMARY KEY,
+    search_vector TSVECTOR NOT NULL
+);
+
+CREATE INDEX idx_post_search_documents_search_vector
+    ON post_schema.post_search_documents USING GIN (search_vector);
+
+CREATE TABLE post_schema.post_search_queue
+(
+    post_id     UUID PRIMARY KEY,
+    enqueued_at TIMESTAMP NOT NULL
+);
+
+CREATE INDEX idx_post_search_queue_enqueued_at ON post_schema.post_search_queue (enqueued_at);
+
+INSERT INTO post_schema.post_search_queue (post_id, enqueued_at)
+SELECT id, created_at
+FROM post_schema.posts;
\ No newline at end of file
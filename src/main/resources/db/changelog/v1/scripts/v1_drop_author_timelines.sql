@@ -0,0 +1,3 @@
+DROP TABLE post_schema.author_timelines;
+
+DROP INDEX post_schema.idx_posts_author_id_created_at_id;
\ No newline at end of file
@@ -0,0 +1,4 @@
+DROP TABLE post_schema.image_outbox;
+
+ALTER TABLE post_schema.posts
+    DROP COLUMN attachment_status;
\ No newline at end of file
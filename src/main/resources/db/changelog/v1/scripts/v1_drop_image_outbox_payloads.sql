@@ -0,0 +1,7 @@
+DROP TABLE post_schema.image_outbox_payloads;
+
+ALTER TABLE post_schema.image_outbox
+    ADD COLUMN file_path VARCHAR(1024) NOT NULL DEFAULT '';
+
+ALTER TABLE post_schema.image_outbox
+    DROP COLUMN file_name;
\ No newline at end of file
@@ -0,0 +1,3 @@
+DROP INDEX post_schema.idx_posts_author_created_at_id;
+
+DROP INDEX post_schema.idx_posts_created_at_id;
\ No newline at end of file
@@ -0,0 +1,3 @@
+DROP TABLE post_schema.post_search_queue;
+
+DROP TABLE post_schema.post_search_documents;
\ No newline at end of file
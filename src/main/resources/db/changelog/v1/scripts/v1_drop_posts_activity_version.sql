@@ -0,0 +1,2 @@
+ALTER TABLE post_schema.posts
+    DROP COLUMN activity_version;
\ No newline at end of file
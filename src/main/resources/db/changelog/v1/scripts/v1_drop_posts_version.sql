@@ -0,0 +1,2 @@
+ALTER TABLE post_schema.posts
+    DROP COLUMN version;
\ No newline at end of file
@@ -0,0 +1,75 @@
+package ru.kharevich.postservice.activity;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.kafka.support.Acknowledgment;
+import ru.kharevich.postservice.config.properties.ActivityConsumerProperties;
+import ru.kharevich.postservice.dto.response.ActivityResponse;
+import ru.kharevich.postservice.model.ActivityConsumerMode;
+import ru.kharevich.postservice.service.PostService;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class ActivityBufferFlusherTest {
+
+    @Mock
+    private PostService postService;
+
+    @Mock
+    private Acknowledgment acknowledgment;
+
+    private ActivityBuffer activityBuffer;
+    private ActivityBufferFlusher flusher;
+
+    @BeforeEach
+    void setUp() {
+        activityBuffer = new ActivityBuffer(new SimpleMeterRegistry());
+        flusher = new ActivityBufferFlusher(activityBuffer, postService,
+                new ActivityConsumerProperties(ActivityConsumerMode.BUFFERED, Duration.ofSeconds(1), 2, 0),
+                new SimpleMeterRegistry());
+    }
+
+    @Test
+    void flush_ShouldWriteNewestCountersPerPostAndThenAcknowledge() {
+        UUID post = UUID.randomUUID();
+        activityBuffer.add(List.of(new ActivityResponse(post, 2, 0, 2L), new ActivityResponse(post, 1, 0, 1L)),
+                acknowledgment);
+
+        flusher.flush();
+
+        ArgumentCaptor<Collection<ActivityResponse>> captor = ArgumentCaptor.captor();
+        verify(postService).updateActivities(captor.capture());
+        assertEquals(List.of(new ActivityResponse(post, 2, 0, 2L)), List.copyOf(captor.getValue()));
+        verify(acknowledgment).acknowledge();
+        assertEquals(0, activityBuffer.size());
+    }
+
+    @Test
+    void flush_ShouldKeepCountersAndOffsets_WhenWriteFails() {
+        UUID post = UUID.randomUUID();
+        activityBuffer.add(List.of(new ActivityResponse(post, 2, 0, 2L)), acknowledgment);
+        doThrow(new IllegalStateException("database is down")).when(postService).updateActivities(any());
+
+        flusher.flush();
+
+        verify(acknowledgment, never()).acknowledge();
+        assertEquals(1, activityBuffer.size());
+        assertEquals(2, activityBuffer.drain().activities().get(post).numberOfLikes());
+    }
+
+}
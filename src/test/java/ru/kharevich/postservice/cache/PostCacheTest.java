@@ -0,0 +1,86 @@
+package ru.kharevich.postservice.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+import ru.kharevich.postservice.config.properties.PostCacheProperties;
+import ru.kharevich.postservice.dto.response.PostResponse;
+import ru.kharevich.postservice.exception.PostNotFoundException;
+import ru.kharevich.postservice.model.ImageMode;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class PostCacheTest {
+
+    private final PostCache postCache = new PostCache(
+            new PostCacheProperties(true, Duration.ofSeconds(30), 100, DataSize.ofMegabytes(1)),
+            new NoOpPostCacheTier(),
+            new SimpleMeterRegistry());
+
+    @Test
+    void get_ShouldLoadOnce_WhenConcurrentCallersMissTheSameKey() throws Exception {
+        UUID id = UUID.randomUUID();
+        PostResponse response = postResponse(id);
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<PostResponse> first = executor.submit(() -> postCache.get(id, ImageMode.INLINE, () -> {
+                loads.incrementAndGet();
+                loading.countDown();
+                await(release);
+                return response;
+            }));
+            loading.await(5, TimeUnit.SECONDS);
+            Future<PostResponse> second = executor.submit(() -> postCache.get(id, ImageMode.INLINE, () -> {
+                loads.incrementAndGet();
+                return response;
+            }));
+            release.countDown();
+
+            assertSame(response, first.get(5, TimeUnit.SECONDS));
+            assertSame(response, second.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void get_ShouldRethrowLoaderExceptionAndNotCacheIt() {
+        UUID id = UUID.randomUUID();
+        PostResponse response = postResponse(id);
+
+        assertThrows(PostNotFoundException.class, () -> postCache.get(id, ImageMode.INLINE, () -> {
+            throw new PostNotFoundException("Post not found");
+        }));
+
+        assertSame(response, postCache.get(id, ImageMode.INLINE, () -> response));
+    }
+
+    private static PostResponse postResponse(UUID id) {
+        return new PostResponse(id, "text", "author", UUID.randomUUID(), 0, 0, LocalDateTime.now(),
+                LocalDateTime.now(), null, List.of(), null, null);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+}
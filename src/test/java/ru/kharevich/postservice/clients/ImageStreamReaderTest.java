@@ -0,0 +1,93 @@
+package ru.kharevich.postservice.clients;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import feign.Request;
+import feign.Response;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.kharevich.postservice.dto.response.ImageDescriptor;
+import ru.kharevich.postservice.dto.response.ImageResponse;
+import ru.kharevich.postservice.dto.response.PageableResponse;
+import ru.kharevich.postservice.dto.transferObject.FileTransferEntity;
+import ru.kharevich.postservice.exception.ImageNotFoundException;
+import ru.kharevich.postservice.model.ImageType;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ImageStreamReaderTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final ImageStreamReader imageStreamReader = new ImageStreamReader(objectMapper);
+
+    @Test
+    void readDescriptors_ShouldGroupImagesByParentWithoutBytes() throws IOException {
+        UUID parent1 = UUID.randomUUID();
+        UUID parent2 = UUID.randomUUID();
+        PageableResponse<ImageResponse> page = new PageableResponse<>(2L, 1, 0, 2, List.of(
+                new ImageResponse(ImageType.POST_ATTACHMENT,
+                        List.of(new FileTransferEntity(new byte[10], "a.png"), new FileTransferEntity(new byte[3], "b.jpg")),
+                        parent1),
+                new ImageResponse(ImageType.POST_ATTACHMENT,
+                        List.of(new FileTransferEntity(new byte[7], "c")), parent2)));
+
+        Map<UUID, List<ImageDescriptor>> result = imageStreamReader.readDescriptors(response(200, page));
+
+        assertEquals(2, result.get(parent1).size());
+        assertEquals(new ImageDescriptor(1, "b.jpg", 3, "image/jpeg", "/api/v1/posts/" + parent1 + "/images/1"),
+                result.get(parent1).get(1));
+        assertEquals(10, result.get(parent1).getFirst().size());
+        assertEquals("application/octet-stream", result.get(parent2).getFirst().contentType());
+    }
+
+    @Test
+    void readDescriptors_ShouldReturnEmpty_WhenImageServiceReturnsNotFound() {
+        assertTrue(imageStreamReader.readDescriptors(UUID.randomUUID(), response(404, new HashMap<>())).isEmpty());
+    }
+
+    @Test
+    void openImage_ShouldCopyRequestedImageBytes() throws IOException {
+        byte[] second = "second image".getBytes(StandardCharsets.UTF_8);
+        ImageResponse image = new ImageResponse(ImageType.POST_ATTACHMENT,
+                List.of(new FileTransferEntity("first".getBytes(), "1"), new FileTransferEntity(second, "2")),
+                UUID.randomUUID());
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        StreamingResponseBody body = imageStreamReader.openImage(1, response(200, image));
+        body.writeTo(out);
+
+        assertArrayEquals(second, out.toByteArray());
+    }
+
+    @Test
+    void openImage_ShouldThrowException_WhenImageIndexIsMissing() {
+        ImageResponse image = new ImageResponse(ImageType.POST_ATTACHMENT,
+                List.of(new FileTransferEntity("first".getBytes(), "1")), UUID.randomUUID());
+
+        assertThrows(ImageNotFoundException.class, () -> imageStreamReader.openImage(3, response(200, image)));
+    }
+
+    private Response response(int status, Object body) {
+        try {
+            return Response.builder()
+                    .status(status)
+                    .request(Request.create(Request.HttpMethod.GET, "/parent", Map.of(), null, StandardCharsets.UTF_8, null))
+                    .body(objectMapper.writeValueAsBytes(body))
+                    .build();
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+}
@@ -0,0 +1,204 @@
+package ru.kharevich.postservice.clients;
+
+import feign.Request;
+import feign.Response;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.bulkhead.ThreadPoolBulkheadConfig;
+import io.github.resilience4j.bulkhead.ThreadPoolBulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.retry.RetryConfig;
+import io.github.resilience4j.retry.RetryRegistry;
+import io.github.resilience4j.timelimiter.TimeLimiterConfig;
+import io.github.resilience4j.timelimiter.TimeLimiterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.kharevich.postservice.exception.ImageServiceInternalError;
+import ru.kharevich.postservice.exception.ImageServiceTimeoutException;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ResilientImageClientTest {
+
+    @Mock
+    private ImageClient delegate;
+
+    private CircuitBreakerRegistry circuitBreakerRegistry;
+    private RetryRegistry retryRegistry;
+    private SimpleMeterRegistry meterRegistry;
+    private ResilientImageClient resilientImageClient;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        circuitBreakerRegistry = CircuitBreakerRegistry.of(CircuitBreakerConfig.custom()
+                .slidingWindowSize(2)
+                .minimumNumberOfCalls(2)
+                .waitDurationInOpenState(Duration.ofMinutes(1))
+                .build());
+        retryRegistry = RetryRegistry.of(RetryConfig.custom()
+                .maxAttempts(2)
+                .waitDuration(Duration.ofMillis(1))
+                .retryExceptions(ImageServiceInternalError.class)
+                .build());
+        resilientImageClient = new ResilientImageClient(delegate, circuitBreakerRegistry, BulkheadRegistry.ofDefaults(),
+                retryRegistry, TimeLimiterRegistry.ofDefaults(), ThreadPoolBulkheadRegistry.ofDefaults(), meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        resilientImageClient.destroy();
+    }
+
+    @Test
+    void getImageByParentId_ShouldRetryOnce_WhenImageServiceFails() {
+        UUID id = UUID.randomUUID();
+        when(delegate.getImageByParentId(id)).thenThrow(new ImageServiceInternalError("error"));
+
+        assertThrows(ImageServiceInternalError.class, () -> resilientImageClient.getImageByParentId(id));
+
+        verify(delegate, times(2)).getImageByParentId(id);
+    }
+
+    @Test
+    void getImageByParentId_ShouldFailFast_WhenCircuitIsOpen() {
+        UUID id = UUID.randomUUID();
+        when(delegate.getImageByParentId(any())).thenThrow(new ImageServiceInternalError("error"));
+        assertThrows(ImageServiceInternalError.class, () -> resilientImageClient.getImageByParentId(id));
+
+        assertThrows(ImageServiceInternalError.class, () -> resilientImageClient.getImageByParentId(id));
+
+        verify(delegate, times(2)).getImageByParentId(id);
+    }
+
+    @Test
+    void streamImageByParentId_ShouldCloseAndRetry_WhenImageServiceAnswersWithServerError() throws IOException {
+        UUID id = UUID.randomUUID();
+        Response.Body body = mock(Response.Body.class);
+        when(delegate.streamImageByParentId(id)).thenReturn(Response.builder()
+                .status(503)
+                .request(Request.create(Request.HttpMethod.GET, "/images", Map.of(), null, StandardCharsets.UTF_8, null))
+                .body(body)
+                .build());
+
+        assertThrows(ImageServiceInternalError.class, () -> resilientImageClient.streamImageByParentId(id));
+
+        verify(delegate, times(2)).streamImageByParentId(id);
+        verify(body, times(2)).close();
+    }
+
+    @Test
+    void streamImageByParentId_ShouldCloseResponse_WhenItArrivesAfterTimeout() throws Exception {
+        UUID id = UUID.randomUUID();
+        CountDownLatch release = new CountDownLatch(1);
+        Response.Body body = mock(Response.Body.class);
+        when(delegate.streamImageByParentId(id)).thenAnswer(invocation -> {
+            release.await();
+            return Response.builder()
+                    .status(200)
+                    .request(Request.create(Request.HttpMethod.GET, "/images", Map.of(), null, StandardCharsets.UTF_8,
+                            null))
+                    .body(body)
+                    .build();
+        });
+        ResilientImageClient client = new ResilientImageClient(delegate, CircuitBreakerRegistry.ofDefaults(),
+                BulkheadRegistry.ofDefaults(), retryRegistry,
+                TimeLimiterRegistry.of(TimeLimiterConfig.custom().timeoutDuration(Duration.ofMillis(50)).build()),
+                ThreadPoolBulkheadRegistry.ofDefaults(), meterRegistry);
+        try {
+            assertThrows(ImageServiceTimeoutException.class, () -> client.streamImageByParentId(id));
+
+            release.countDown();
+
+            verify(body, timeout(1_000).times(2)).close();
+        } finally {
+            release.countDown();
+            client.destroy();
+        }
+    }
+
+    @Test
+    void executeOnce_ShouldNotRetry() {
+        UUID id = UUID.randomUUID();
+        when(delegate.getImageByParentId(id)).thenThrow(new ImageServiceInternalError("error"));
+
+        assertThrows(ImageServiceInternalError.class,
+                () -> resilientImageClient.executeOnce(() -> delegate.getImageByParentId(id)));
+
+        verify(delegate, times(1)).getImageByParentId(id);
+    }
+
+    @Test
+    void getImageByParentId_ShouldTimeCallsByOutcome() {
+        UUID id = UUID.randomUUID();
+        when(delegate.getImageByParentId(any())).thenThrow(new ImageServiceInternalError("error"));
+        assertThrows(ImageServiceInternalError.class, () -> resilientImageClient.getImageByParentId(id));
+
+        assertThrows(ImageServiceInternalError.class, () -> resilientImageClient.getImageByParentId(id));
+
+        assertEquals(1, requests("error").count());
+        assertEquals(1, requests("rejected").count());
+    }
+
+    @Test
+    void getImageByParentId_ShouldRejectWithoutRunningOnCaller_WhenLimiterPoolIsFull() throws Exception {
+        UUID id = UUID.randomUUID();
+        CountDownLatch release = new CountDownLatch(1);
+        when(delegate.getImageByParentId(id)).thenAnswer(invocation -> {
+            release.await();
+            return null;
+        });
+        ResilientImageClient client = new ResilientImageClient(delegate, CircuitBreakerRegistry.ofDefaults(),
+                BulkheadRegistry.ofDefaults(), retryRegistry,
+                TimeLimiterRegistry.of(TimeLimiterConfig.custom().timeoutDuration(Duration.ofMillis(50)).build()),
+                ThreadPoolBulkheadRegistry.of(ThreadPoolBulkheadConfig.custom()
+                        .coreThreadPoolSize(1)
+                        .maxThreadPoolSize(1)
+                        .queueCapacity(1)
+                        .build()),
+                meterRegistry);
+        try {
+            assertThrows(ImageServiceTimeoutException.class, () -> client.getImageByParentId(id));
+
+            ImageServiceInternalError rejected = assertThrows(ImageServiceInternalError.class,
+                    () -> client.getImageByParentId(id));
+
+            assertNotEquals(ImageServiceTimeoutException.class, rejected.getClass());
+            assertEquals(1, requests("rejected").count());
+            verify(delegate, times(1)).getImageByParentId(id);
+        } finally {
+            release.countDown();
+            client.destroy();
+        }
+    }
+
+    private Timer requests(String outcome) {
+        return meterRegistry.get("image.client.requests")
+                .tag("method", "getImageByParentId")
+                .tag("outcome", outcome)
+                .timer();
+    }
+
+}
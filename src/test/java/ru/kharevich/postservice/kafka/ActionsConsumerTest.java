@@ -0,0 +1,40 @@
+package ru.kharevich.postservice.kafka;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.kharevich.postservice.config.properties.ActivityConsumerProperties;
+import ru.kharevich.postservice.dto.response.ActivityResponse;
+import ru.kharevich.postservice.model.ActivityConsumerMode;
+import ru.kharevich.postservice.service.PostService;
+
+import java.time.Duration;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class ActionsConsumerTest {
+
+    @Mock
+    private PostService postService;
+
+    @Test
+    void consumeSupplyRequests_ShouldApplyActivityAndRecordTimers() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        ActionsConsumer consumer = new ActionsConsumer(postService, meterRegistry,
+                new ActivityConsumerProperties(ActivityConsumerMode.SINGLE, Duration.ofSeconds(1), 5000, 1.0));
+        ActivityResponse activity = new ActivityResponse(UUID.randomUUID(), 3, 1, 1L);
+
+        consumer.consumeSupplyRequests(new ConsumerRecord<>("activity-topic", 0, 0, activity.postId().toString(), activity));
+
+        verify(postService).updateActivity(activity);
+        assertEquals(1, meterRegistry.get("activity.processing").timer().count());
+        assertEquals(1, meterRegistry.get("activity.lag").timer().count());
+    }
+
+}
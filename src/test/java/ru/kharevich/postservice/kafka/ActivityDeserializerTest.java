@@ -0,0 +1,67 @@
+package ru.kharevich.postservice.kafka;
+
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+import org.springframework.messaging.MessageHeaders;
+import ru.kharevich.postservice.dto.response.ActivityResponse;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ActivityDeserializerTest {
+
+    private static final String TOPIC = "activity-topic";
+
+    private static final String TYPE_MAPPING = "activityResponse:" + ActivityResponse.class.getName();
+
+    private final ActivityResponse activity = new ActivityResponse(UUID.randomUUID(), 12, 4, 7L);
+
+    private ActivityDeserializer deserializer;
+
+    @BeforeEach
+    void setUp() {
+        deserializer = new ActivityDeserializer();
+        deserializer.configure(Map.of(
+                JsonDeserializer.TRUSTED_PACKAGES, "*",
+                JsonDeserializer.TYPE_MAPPINGS, TYPE_MAPPING), false);
+    }
+
+    @AfterEach
+    void tearDown() {
+        deserializer.close();
+    }
+
+    @Test
+    void deserialize_ShouldReadCbor_WhenContentTypeIsCbor() throws Exception {
+        RecordHeaders headers = new RecordHeaders();
+        headers.add(MessageHeaders.CONTENT_TYPE, MediaType.APPLICATION_CBOR_VALUE.getBytes(StandardCharsets.US_ASCII));
+
+        Object result = deserializer.deserialize(TOPIC, headers, new CBORMapper().writeValueAsBytes(activity));
+
+        assertEquals(activity, result);
+    }
+
+    @Test
+    void deserialize_ShouldReadJson_WhenContentTypeIsMissing() {
+        RecordHeaders headers = new RecordHeaders();
+        byte[] payload;
+        try (JsonSerializer<Object> serializer = new JsonSerializer<>()) {
+            serializer.configure(Map.of(JsonSerializer.TYPE_MAPPINGS, TYPE_MAPPING), false);
+            payload = serializer.serialize(TOPIC, headers, activity);
+        }
+
+        Object result = deserializer.deserialize(TOPIC, headers, payload);
+
+        assertEquals(activity, result);
+    }
+
+}
@@ -0,0 +1,76 @@
+package ru.kharevich.postservice.kafka;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.kharevich.postservice.dto.response.ActivityResponse;
+import ru.kharevich.postservice.service.PostService;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class BatchActionsConsumerTest {
+
+    @Mock
+    private PostService postService;
+
+    @Test
+    void consumeSupplyRequests_ShouldKeepOnlyLatestCountersPerPost() {
+        BatchActionsConsumer consumer = new BatchActionsConsumer(postService, new SimpleMeterRegistry());
+        UUID hotPost = UUID.randomUUID();
+        UUID otherPost = UUID.randomUUID();
+        List<ConsumerRecord<String, ActivityResponse>> records = List.of(
+                record(0, new ActivityResponse(hotPost, 1, 0, null)),
+                record(1, new ActivityResponse(otherPost, 7, 1, null)),
+                record(2, new ActivityResponse(hotPost, 2, 0, null)),
+                record(3, new ActivityResponse(hotPost, 3, 1, null)));
+
+        consumer.consumeSupplyRequests(records);
+
+        ArgumentCaptor<Collection<ActivityResponse>> captor = ArgumentCaptor.captor();
+        verify(postService).updateActivities(captor.capture());
+        assertEquals(List.of(new ActivityResponse(hotPost, 3, 1, null), new ActivityResponse(otherPost, 7, 1, null)),
+                List.copyOf(captor.getValue()));
+    }
+
+    @Test
+    void consumeSupplyRequests_ShouldKeepHighestVersionPerPost_WhenEventsAreReordered() {
+        BatchActionsConsumer consumer = new BatchActionsConsumer(postService, new SimpleMeterRegistry());
+        UUID post = UUID.randomUUID();
+        List<ConsumerRecord<String, ActivityResponse>> records = List.of(
+                record(0, new ActivityResponse(post, 1, 0, 1L)),
+                record(1, new ActivityResponse(post, 3, 1, 3L)),
+                record(2, new ActivityResponse(post, 2, 0, 2L)));
+
+        consumer.consumeSupplyRequests(records);
+
+        ArgumentCaptor<Collection<ActivityResponse>> captor = ArgumentCaptor.captor();
+        verify(postService).updateActivities(captor.capture());
+        assertEquals(List.of(new ActivityResponse(post, 3, 1, 3L)), List.copyOf(captor.getValue()));
+    }
+
+    @Test
+    void consumeSupplyRequests_ShouldSkipEmptyBatch() {
+        BatchActionsConsumer consumer = new BatchActionsConsumer(postService, new SimpleMeterRegistry());
+
+        consumer.consumeSupplyRequests(List.of());
+
+        verify(postService, never()).updateActivities(any());
+    }
+
+    private ConsumerRecord<String, ActivityResponse> record(long offset, ActivityResponse activity) {
+        return new ConsumerRecord<>("activity-topic", 0, offset, activity.postId().toString(), activity);
+    }
+
+}
@@ -0,0 +1,95 @@
+package ru.kharevich.postservice.ranking;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.kharevich.postservice.config.properties.HotFeedProperties;
+import ru.kharevich.postservice.dto.response.ActivityResponse;
+import ru.kharevich.postservice.dto.transferObject.PostView;
+import ru.kharevich.postservice.repository.PostRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class HotFeedTest {
+
+    private static final int CAPACITY = 2;
+
+    private final LocalDateTime now = LocalDateTime.now();
+
+    @Mock
+    private PostRepository postRepository;
+
+    @Test
+    void record_ShouldReorderRankedPosts_WhenCountersChange() {
+        HotFeed hotFeed = createHotFeed();
+        PostView first = postView(10, now);
+        PostView second = postView(5, now);
+        when(postRepository.findHottest(anyDouble(), anyDouble(), any())).thenReturn(List.of(first, second));
+        hotFeed.refresh();
+
+        hotFeed.record(List.of(new ActivityResponse(second.id(), 1000, null, 1L)));
+
+        assertEquals(List.of(second.id(), first.id()), hotFeed.findPostIds(0, CAPACITY));
+        verify(postRepository, never()).findSummariesByIdIn(any());
+    }
+
+    @Test
+    void record_ShouldRankUnrankedPost_AndDropLowest_WhenItBeatsTheRanking() {
+        HotFeed hotFeed = createHotFeed();
+        PostView first = postView(10, now);
+        PostView second = postView(5, now);
+        PostView rising = postView(100, now);
+        when(postRepository.findHottest(anyDouble(), anyDouble(), any())).thenReturn(List.of(first, second));
+        when(postRepository.findSummariesByIdIn(List.of(rising.id()))).thenReturn(List.of(rising));
+        hotFeed.refresh();
+
+        hotFeed.record(List.of(new ActivityResponse(rising.id(), 100, 0, 1L)));
+
+        assertEquals(List.of(rising.id(), first.id()), hotFeed.findPostIds(0, CAPACITY));
+        assertEquals(CAPACITY, hotFeed.size());
+    }
+
+    @Test
+    void record_ShouldNotReadPost_WhenItCannotBeatTheRanking() {
+        HotFeed hotFeed = createHotFeed();
+        when(postRepository.findHottest(anyDouble(), anyDouble(), any()))
+                .thenReturn(List.of(postView(1000, now.plusDays(1)), postView(1000, now.plusDays(1))));
+        hotFeed.refresh();
+
+        hotFeed.record(List.of(new ActivityResponse(UUID.randomUUID(), 1, 0, 1L)));
+
+        verify(postRepository, never()).findSummariesByIdIn(any());
+    }
+
+    @Test
+    void score_ShouldDecayWithAge() {
+        HotFeed hotFeed = createHotFeed();
+
+        assertEquals(hotFeed.score(1, 0, now), hotFeed.score(10, 0, now.minusHours(1)), 1e-6);
+        assertTrue(hotFeed.score(0, 0, now) > hotFeed.score(5, 0, now.minusHours(1)));
+    }
+
+    private HotFeed createHotFeed() {
+        return new HotFeed(new HotFeedProperties(CAPACITY, 2, Duration.ofHours(1), Duration.ofMinutes(1)),
+                postRepository, new SimpleMeterRegistry());
+    }
+
+    private static PostView postView(int likes, LocalDateTime createdAt) {
+        return new PostView(UUID.randomUUID(), null, "author", UUID.randomUUID(), likes, 0, createdAt, createdAt, null);
+    }
+
+}
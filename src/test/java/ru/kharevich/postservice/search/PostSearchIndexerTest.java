@@ -0,0 +1,50 @@
+package ru.kharevich.postservice.search;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.QueryTimeoutException;
+import ru.kharevich.postservice.config.properties.SearchProperties;
+import ru.kharevich.postservice.repository.PostSearchRepository;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class PostSearchIndexerTest {
+
+    private static final int BATCH_SIZE = 100;
+
+    @Mock
+    private PostSearchRepository postSearchRepository;
+
+    @Test
+    void index_ShouldDrainQueue_UntilABatchComesBackShort() {
+        PostSearchIndexer indexer = createIndexer();
+        when(postSearchRepository.indexQueued("simple", BATCH_SIZE)).thenReturn(BATCH_SIZE, BATCH_SIZE, 3);
+
+        indexer.index();
+
+        verify(postSearchRepository, times(3)).indexQueued("simple", BATCH_SIZE);
+    }
+
+    @Test
+    void index_ShouldLeaveQueueForNextPoll_WhenDatabaseFails() {
+        PostSearchIndexer indexer = createIndexer();
+        when(postSearchRepository.indexQueued("simple", BATCH_SIZE)).thenThrow(new QueryTimeoutException("timeout"));
+
+        assertDoesNotThrow(indexer::index);
+    }
+
+    private PostSearchIndexer createIndexer() {
+        return new PostSearchIndexer(new SearchProperties(true, "simple", BATCH_SIZE, Duration.ofSeconds(1)),
+                postSearchRepository, new SimpleMeterRegistry());
+    }
+
+}
@@ -1,47 +1,97 @@
 package ru.kharevich.postservice.service.impl;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.kafka.support.Acknowledgment;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.TestPropertySource;
 import org.springframework.web.multipart.MultipartFile;
+import ru.kharevich.postservice.activity.ActivityBuffer;
+import ru.kharevich.postservice.cache.PostCache;
+import ru.kharevich.postservice.clients.ImageStreamReader;
+import ru.kharevich.postservice.clients.ImageUploadClient;
+import ru.kharevich.postservice.config.JacksonConfig;
+import ru.kharevich.postservice.config.properties.PostBatchProperties;
+import ru.kharevich.postservice.config.properties.PostStreamProperties;
 import ru.kharevich.postservice.dto.request.PostRequest;
+import ru.kharevich.postservice.dto.response.ActivityResponse;
+import ru.kharevich.postservice.dto.response.AttachmentStatusResponse;
+import ru.kharevich.postservice.dto.response.CursorPageableResponse;
+import ru.kharevich.postservice.dto.response.ImageDescriptor;
 import ru.kharevich.postservice.dto.response.ImageResponse;
 import ru.kharevich.postservice.dto.response.PageableResponse;
+import ru.kharevich.postservice.dto.response.PostBatchResponse;
 import ru.kharevich.postservice.dto.response.PostResponse;
 import ru.kharevich.postservice.dto.transferObject.FileTransferEntity;
+import ru.kharevich.postservice.dto.transferObject.PostCursor;
+import ru.kharevich.postservice.dto.transferObject.PostFields;
+import ru.kharevich.postservice.dto.transferObject.PostView;
+import ru.kharevich.postservice.exception.BatchTooLargeException;
+import ru.kharevich.postservice.exception.InvalidCursorException;
+import ru.kharevich.postservice.exception.InvalidFieldsException;
 import ru.kharevich.postservice.exception.PostNotFoundException;
-import ru.kharevich.postservice.exception.PostServiceInternalError;
+import ru.kharevich.postservice.exception.ImageServiceInternalError;
+import ru.kharevich.postservice.model.AttachmentStatus;
+import ru.kharevich.postservice.model.ImageMode;
 import ru.kharevich.postservice.model.ImageType;
 import ru.kharevich.postservice.model.Post;
+import ru.kharevich.postservice.outbox.ImageOutbox;
+import ru.kharevich.postservice.ranking.HotFeed;
+import ru.kharevich.postservice.repository.PostActivityRepository;
 import ru.kharevich.postservice.repository.PostRepository;
+import ru.kharevich.postservice.search.PostSearch;
+import ru.kharevich.postservice.timeline.AuthorTimeline;
+import ru.kharevich.postservice.util.concurrent.ReadFanOut;
 import ru.kharevich.postservice.util.mapper.PageMapper;
+import ru.kharevich.postservice.util.mapper.PostImageJoiner;
 import ru.kharevich.postservice.util.mapper.PostMapper;
+import ru.kharevich.postservice.util.pagination.PostCursorCodec;
+import ru.kharevich.postservice.util.stream.PostStreamWriter;
 import ru.kharevich.postservice.util.validation.PostValidationService;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.lenient;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -70,21 +120,73 @@ class PostServiceImplTest {
     @Mock
     private MultipartFile multipartFile;
 
+    @Mock
+    private ImageStreamReader imageStreamReader;
+
+    @Mock
+    private ImageUploadClient imageUploadClient;
+
+    @Mock
+    private PostCache postCache;
+
+    @Mock
+    private PostActivityRepository postActivityRepository;
+
+    @Mock
+    private ImageOutbox imageOutbox;
+
+    @Mock
+    private AuthorTimeline authorTimeline;
+
+    @Mock
+    private HotFeed hotFeed;
+
+    @Mock
+    private PostSearch postSearch;
+
+    @Spy
+    private PostCursorCodec postCursorCodec = new PostCursorCodec();
+
+    @Spy
+    private PostImageJoiner postImageJoiner = new PostImageJoiner();
+
+    @Spy
+    private ReadFanOut readFanOut = new ReadFanOut(Runnable::run, new SimpleMeterRegistry());
+
+    @Spy
+    private ActivityBuffer activityBuffer = new ActivityBuffer(new SimpleMeterRegistry());
+
+    @Spy
+    private PostBatchProperties postBatchProperties = new PostBatchProperties(4);
+
+    private final ObjectMapper objectMapper = createObjectMapper();
+
+    @Spy
+    private PostStreamWriter postStreamWriter = new PostStreamWriter(objectMapper, readFanOut, new PostStreamProperties(2, 1));
+
     @InjectMocks
     private PostServiceImpl postService;
 
+    @BeforeEach
+    void setUp() {
+        lenient().when(postCache.get(any(UUID.class), any(ImageMode.class), any()))
+                .thenAnswer(invocation -> invocation.<Supplier<PostResponse>>getArgument(2).get());
+    }
+
     @Test
-    void create_ShouldReturnPostResponse_WhenValidRequest() throws IOException {
+    void create_ShouldReturnPostResponse_WhenValidRequest() {
         PostRequest request = new PostRequest("text", "author", UUID.randomUUID());
         List<MultipartFile> files = List.of(multipartFile);
         Post post = createTestPost();
-        byte[] fileBytes = "file content".getBytes();
         PostResponse expectedResponse = createTestPostResponse();
+        List<ImageDescriptor> descriptors = List.of(ImageDescriptor.of(post.getId(), 0, "cat.png", 12L, "image/png"));
 
         when(postMapper.toEntity(request)).thenReturn(post);
         when(postRepository.saveAndFlush(post)).thenReturn(post);
-        when(multipartFile.getBytes()).thenReturn(fileBytes);
-        when(postMapper.toResponse(post, List.of(fileBytes))).thenReturn(expectedResponse);
+        when(multipartFile.getOriginalFilename()).thenReturn("cat.png");
+        when(multipartFile.getSize()).thenReturn(12L);
+        when(multipartFile.getContentType()).thenReturn("image/png");
+        when(postMapper.toReferenceResponse(post, descriptors)).thenReturn(expectedResponse);
 
         PostResponse result = postService.create(request, files);
 
@@ -92,47 +194,65 @@ class PostServiceImplTest {
         assertEquals(expectedResponse, result);
         verify(postMapper).toEntity(request);
         verify(postRepository).saveAndFlush(post);
-        verify(imageClient).uploadImage(ImageType.POST_ATTACHMENT.toString(), post.getId().toString(), files);
-        verify(postMapper).toResponse(post, List.of(fileBytes));
+        verify(imageUploadClient).upload(post.getId(), files);
+        verify(authorTimeline).append(post);
+        verify(postSearch).enqueue(post.getId());
+        verify(postMapper).toReferenceResponse(post, descriptors);
     }
 
     @Test
-    void create_ShouldThrowPostServiceInternalError_WhenFileParsingFails() throws IOException {
+    void create_ShouldNotReadFileContent() throws IOException {
         PostRequest request = new PostRequest("text", "author", UUID.randomUUID());
         List<MultipartFile> files = List.of(multipartFile);
         Post post = createTestPost();
 
         when(postMapper.toEntity(request)).thenReturn(post);
         when(postRepository.saveAndFlush(post)).thenReturn(post);
-        when(multipartFile.getBytes()).thenThrow(new IOException());
+        when(postMapper.toReferenceResponse(eq(post), anyList())).thenReturn(createTestPostResponse());
 
-        assertThrows(PostServiceInternalError.class, () -> postService.create(request, files));
+        postService.create(request, files);
+
+        verify(multipartFile, never()).getBytes();
+        verify(multipartFile, never()).getInputStream();
+    }
+
+    @Test
+    void create_ShouldThrowImageServiceInternalError_WhenUploadFails() {
+        PostRequest request = new PostRequest("text", "author", UUID.randomUUID());
+        List<MultipartFile> files = List.of(multipartFile);
+        Post post = createTestPost();
+
+        when(postMapper.toEntity(request)).thenReturn(post);
+        when(postRepository.saveAndFlush(post)).thenReturn(post);
+        doThrow(new ImageServiceInternalError("error")).when(imageUploadClient).upload(post.getId(), files);
+
+        assertThrows(ImageServiceInternalError.class, () -> postService.create(request, files));
 
         verify(postMapper).toEntity(request);
         verify(postRepository).saveAndFlush(post);
-        verify(imageClient).uploadImage(ImageType.POST_ATTACHMENT.toString(), post.getId().toString(), files);
+        verify(postMapper, never()).toReferenceResponse(any(Post.class), any());
     }
 
     @Test
-    void create_ShouldHandleMultipleFiles() throws IOException {
+    void create_ShouldHandleMultipleFiles() {
         PostRequest request = new PostRequest("text", "author", UUID.randomUUID());
         MultipartFile file2 = mock(MultipartFile.class);
         List<MultipartFile> files = List.of(multipartFile, file2);
         Post post = createTestPost();
-        byte[] fileBytes1 = "file1 content".getBytes();
-        byte[] fileBytes2 = "file2 content".getBytes();
         PostResponse expectedResponse = createTestPostResponse();
 
         when(postMapper.toEntity(request)).thenReturn(post);
         when(postRepository.saveAndFlush(post)).thenReturn(post);
-        when(multipartFile.getBytes()).thenReturn(fileBytes1);
-        when(file2.getBytes()).thenReturn(fileBytes2);
-        when(postMapper.toResponse(post, List.of(fileBytes1, fileBytes2))).thenReturn(expectedResponse);
+        when(multipartFile.getOriginalFilename()).thenReturn("first.png");
+        when(file2.getOriginalFilename()).thenReturn("second.jpg");
+        when(postMapper.toReferenceResponse(eq(post), anyList())).thenReturn(expectedResponse);
 
         PostResponse result = postService.create(request, files);
 
         assertNotNull(result);
-        verify(postMapper).toResponse(post, List.of(fileBytes1, fileBytes2));
+        verify(postMapper).toReferenceResponse(post, List.of(
+                ImageDescriptor.of(post.getId(), 0, "first.png", 0L, "image/png"),
+                ImageDescriptor.of(post.getId(), 1, "second.jpg", 0L, "image/jpeg")));
     }
 
     @Test
@@ -144,13 +264,44 @@ class PostServiceImplTest {
 
         when(postMapper.toEntity(request)).thenReturn(post);
         when(postRepository.saveAndFlush(post)).thenReturn(post);
-        when(postMapper.toResponse(post, new ArrayList<>())).thenReturn(expectedResponse);
+        when(postMapper.toReferenceResponse(post, new ArrayList<>())).thenReturn(expectedResponse);
 
         PostResponse result = postService.create(request, files);
 
         assertNotNull(result);
-        verify(postMapper).toResponse(post, new ArrayList<>());
-        verify(imageClient).uploadImage(ImageType.POST_ATTACHMENT.toString(), post.getId().toString(), files);
+        verify(postMapper).toReferenceResponse(post, new ArrayList<>());
+        verify(imageUploadClient).upload(post.getId(), files);
+    }
+
+    @Test
+    void create_ShouldEnqueueFilesInsteadOfUploading_WhenOutboxEnabled() {
+        PostRequest request = new PostRequest("text", "author", UUID.randomUUID());
+        List<MultipartFile> files = List.of(multipartFile);
+        Post post = createTestPost();
+
+        when(imageOutbox.isEnabled()).thenReturn(true);
+        when(postMapper.toEntity(request)).thenReturn(post);
+        when(postRepository.saveAndFlush(post)).thenReturn(post);
+        when(postMapper.toReferenceResponse(eq(post), anyList())).thenReturn(createTestPostResponse());
+
+        postService.create(request, files);
+
+        assertEquals(AttachmentStatus.PENDING, post.getAttachmentStatus());
+        verify(imageOutbox).enqueue(post.getId(), files);
+        verify(imageUploadClient, never()).upload(any(), anyList());
+    }
+
+    @Test
+    void getAttachmentStatus_ShouldReturnOutboxStatus_WhenPostExists() {
+        UUID postId = UUID.randomUUID();
+        Post post = createTestPost();
+        AttachmentStatusResponse expected = new AttachmentStatusResponse(postId, AttachmentStatus.PENDING, 1, 0);
+
+        when(postValidationService.findByIdThrowsExceptionIfDoesntExist(eq(postId), any(PostNotFoundException.class)))
+                .thenReturn(post);
+        when(imageOutbox.getStatus(post)).thenReturn(expected);
+
+        assertEquals(expected, postService.getAttachmentStatus(postId));
     }
 
     @Test
@@ -167,6 +318,9 @@ class PostServiceImplTest {
 
         verify(postValidationService).findByIdThrowsExceptionIfDoesntExist(eq(postId), any(PostNotFoundException.class));
         verify(postRepository).deleteById(postId);
+        verify(authorTimeline).remove(post.getAuthorId(), postId);
+        verify(postSearch).remove(postId);
+        verify(postCache).evict(postId);
         verify(imageClient).deleteImageByParentId(postId);
     }
 
@@ -203,6 +357,7 @@ class PostServiceImplTest {
         verify(postValidationService).findByIdThrowsExceptionIfDoesntExist(eq(postId), any(PostNotFoundException.class));
         verify(postMapper).updateEntityByRequest(request, post);
         verify(postMapper).toResponse(post, null);
+        verify(postCache).evict(postId);
     }
 
     @Test
@@ -217,18 +372,17 @@ class PostServiceImplTest {
 
         verify(postValidationService).findByIdThrowsExceptionIfDoesntExist(eq(postId), any(PostNotFoundException.class));
         verify(postMapper, never()).updateEntityByRequest(any(), any());
-        verify(postMapper, never()).toResponse(any(), any());
+        verify(postMapper, never()).toResponse(any(Post.class), any());
     }
 
     @Test
     void getById_ShouldHandleEmptyImageResponse() {
         UUID postId = UUID.randomUUID();
-        Post post = createTestPost();
+        PostView post = createTestPostView();
         ImageResponse imageResponse = new ImageResponse(ImageType.POST_ATTACHMENT, new ArrayList<>(), postId);
         PostResponse expectedResponse = createTestPostResponse();
 
-        when(postValidationService.findByIdThrowsExceptionIfDoesntExist(eq(postId), any(PostNotFoundException.class)))
-                .thenReturn(post);
+        when(postRepository.findViewById(postId)).thenReturn(Optional.of(post));
         when(imageClient.getImageByParentId(postId)).thenReturn(imageResponse);
         when(postMapper.toResponse(post, new ArrayList<>())).thenReturn(expectedResponse);
 
@@ -242,27 +396,77 @@ class PostServiceImplTest {
     void getById_ShouldThrowException_WhenPostNotFound() {
         UUID postId = UUID.randomUUID();
 
-        when(postValidationService.findByIdThrowsExceptionIfDoesntExist(eq(postId), any(PostNotFoundException.class)))
-                .thenThrow(new PostNotFoundException("Post not found"));
+        when(postRepository.findViewById(postId)).thenReturn(Optional.empty());
 
         assertThrows(PostNotFoundException.class, () -> postService.getById(postId));
 
-        verify(postValidationService).findByIdThrowsExceptionIfDoesntExist(eq(postId), any(PostNotFoundException.class));
-        verify(imageClient, never()).getImageByParentId(any());
-        verify(postMapper, never()).toResponse(any(), any());
+        verify(postRepository).findViewById(postId);
+        verify(postMapper, never()).toResponse(any(PostView.class), any());
     }
 
+    @Test
+    void getById_ShouldRequestImagesWithoutWaitingForPostLookup() {
+        UUID postId = UUID.randomUUID();
+        PostView post = createTestPostView();
+        ImageResponse imageResponse = new ImageResponse(ImageType.POST_ATTACHMENT, List.of(), postId);
+        List<String> calls = new ArrayList<>();
+
+        when(imageClient.getImageByParentId(postId)).thenAnswer(invocation -> {
+            calls.add("images");
+            return imageResponse;
+        });
+        when(postRepository.findViewById(postId))
+                .thenAnswer(invocation -> {
+                    calls.add("db");
+                    return Optional.of(post);
+                });
+        when(postMapper.toResponse(post, List.of())).thenReturn(createTestPostResponse());
+
+        postService.getById(postId);
+
+        assertEquals(List.of("images", "db"), calls);
+    }
+
+
+    @Test
+    void getById_ShouldReturnDegradedResponse_WhenImageServiceUnavailable() {
+        UUID postId = UUID.randomUUID();
+        PostView post = createTestPostView();
+        PostResponse degradedResponse = createTestPostResponse();
+
+        when(postRepository.findViewById(postId)).thenReturn(Optional.of(post));
+        when(imageClient.getImageByParentId(postId)).thenThrow(new ImageServiceInternalError("error"));
+        when(postMapper.toDegradedResponse(post)).thenReturn(degradedResponse);
+
+        assertEquals(degradedResponse, postService.getById(postId));
+        verify(postMapper, never()).toResponse(any(PostView.class), any());
+    }
+
+    @Test
+    void getFeed_ShouldReturnPostsWithoutImages_WhenImageServiceUnavailable() {
+        int pageNumber = 0;
+        int size = 10;
+        List<PostView> posts = List.of(createTestPostView(), createTestPostView());
+        PageableResponse<PostResponse> expectedResponse = createTestPageableResponse();
+
+        when(postRepository.findViewsBy(PageRequest.of(pageNumber, size))).thenReturn(posts);
+        when(imageClient.getImagesByParentId(anyList(), anyInt(), anyInt()))
+                .thenThrow(new ImageServiceInternalError("error"));
+        when(postMapper.toDegradedResponse(any(PostView.class))).thenReturn(createTestPostResponse());
+        when(pageMapper.toResponse(any(Page.class))).thenReturn(expectedResponse);
+
+        assertEquals(expectedResponse, postService.getFeed(pageNumber, size));
+        verify(postMapper, times(2)).toDegradedResponse(any(PostView.class));
+    }
 
     @Test
     void getFeed_ShouldHandleEmptyPostPage() {
         int pageNumber = 0;
         int size = 10;
-        Page<Post> emptyPostPage = Page.empty();
-        PageableResponse<ImageResponse> emptyImageResponse = new PageableResponse<>(0L, 0, 0, 10, new ArrayList<>());
+        Page<PostView> emptyPostPage = Page.empty();
         PageableResponse<PostResponse> expectedResponse = new PageableResponse<>(0L, 0, 0, 10, new ArrayList<>());
 
-        when(postRepository.findAll(PageRequest.of(pageNumber, size))).thenReturn(emptyPostPage);
-        when(imageClient.getImagesByParentId(anyList(), eq(pageNumber), eq(size))).thenReturn(emptyImageResponse);
+        when(postRepository.findViewsBy(PageRequest.of(pageNumber, size))).thenReturn(emptyPostPage.getContent());
         when(pageMapper.toResponse(any(Page.class))).thenReturn(expectedResponse);
 
         PageableResponse<PostResponse> result = postService.getFeed(pageNumber, size);
@@ -270,6 +474,7 @@ class PostServiceImplTest {
         assertNotNull(result);
         assertEquals(0L, result.totalElements());
         assertEquals(0, result.content().size());
+        verify(imageClient, never()).getImagesByParentId(anyList(), anyInt(), anyInt());
     }
 
 
@@ -278,12 +483,10 @@ class PostServiceImplTest {
         int pageNumber = 0;
         int size = 10;
         String author = "nonExistentAuthor";
-        Page<Post> emptyPostPage = Page.empty();
-        PageableResponse<ImageResponse> emptyImageResponse = new PageableResponse<>(0L, 0, 0, 10, new ArrayList<>());
+        Page<PostView> emptyPostPage = Page.empty();
         PageableResponse<PostResponse> expectedResponse = new PageableResponse<>(0L, 0, 0, 10, new ArrayList<>());
 
-        when(postRepository.findByAuthor(author, PageRequest.of(pageNumber, size))).thenReturn(emptyPostPage);
-        when(imageClient.getImagesByParentId(anyList(), eq(pageNumber), eq(size))).thenReturn(emptyImageResponse);
+        when(postRepository.findViewsByAuthor(author, PageRequest.of(pageNumber, size))).thenReturn(emptyPostPage.getContent());
         when(pageMapper.toResponse(any(Page.class))).thenReturn(expectedResponse);
 
         PageableResponse<PostResponse> result = postService.getPostsByAuthor(pageNumber, size, author);
@@ -316,11 +519,10 @@ class PostServiceImplTest {
         int pageNumber = 0;
         int size = 10;
         String author = "";
-        Page<Post> emptyPostPage = Page.empty();
+        Page<PostView> emptyPostPage = Page.empty();
         PageableResponse<PostResponse> expectedResponse = new PageableResponse<>(0L, 0, 0, 10, new ArrayList<>());
 
-        when(postRepository.findByAuthor(author, PageRequest.of(pageNumber, size))).thenReturn(emptyPostPage);
-        when(imageClient.getImagesByParentId(anyList(), eq(pageNumber), eq(size))).thenReturn(new PageableResponse<>(0L, 0, 0, 10, new ArrayList<>()));
+        when(postRepository.findViewsByAuthor(author, PageRequest.of(pageNumber, size))).thenReturn(emptyPostPage.getContent());
         when(pageMapper.toResponse(any(Page.class))).thenReturn(expectedResponse);
 
         PageableResponse<PostResponse> result = postService.getPostsByAuthor(pageNumber, size, author);
@@ -354,23 +556,21 @@ class PostServiceImplTest {
     void getById_ShouldHandleMultipleCalls() {
         UUID postId1 = UUID.randomUUID();
         UUID postId2 = UUID.randomUUID();
-        Post post1 = createTestPost();
-        Post post2 = createTestPost();
+        PostView post1 = createTestPostView();
+        PostView post2 = createTestPostView();
         ImageResponse imageResponse = new ImageResponse(ImageType.POST_ATTACHMENT,
                 List.of(new FileTransferEntity("file".getBytes(), "name")), postId1);
 
-        when(postValidationService.findByIdThrowsExceptionIfDoesntExist(eq(postId1), any(PostNotFoundException.class)))
-                .thenReturn(post1);
-        when(postValidationService.findByIdThrowsExceptionIfDoesntExist(eq(postId2), any(PostNotFoundException.class)))
-                .thenReturn(post2);
+        when(postRepository.findViewById(postId1)).thenReturn(Optional.of(post1));
+        when(postRepository.findViewById(postId2)).thenReturn(Optional.of(post2));
         when(imageClient.getImageByParentId(any(UUID.class))).thenReturn(imageResponse);
-        when(postMapper.toResponse(any(Post.class), anyList())).thenReturn(createTestPostResponse());
+        when(postMapper.toResponse(any(PostView.class), anyList())).thenReturn(createTestPostResponse());
 
         postService.getById(postId1);
         postService.getById(postId2);
 
         verify(imageClient, times(2)).getImageByParentId(any(UUID.class));
-        verify(postMapper, times(2)).toResponse(any(Post.class), anyList());
+        verify(postMapper, times(2)).toResponse(any(PostView.class), anyList());
     }
 
     private Post createTestPost() {
@@ -385,6 +585,15 @@ class PostServiceImplTest {
                 .build();
     }
 
+    private PostView createTestPostView() {
+        return createTestPostView(UUID.randomUUID(), "Test author");
+    }
+
+    private PostView createTestPostView(UUID id, String author) {
+        return new PostView(id, "Test text", author, UUID.randomUUID(), 0, 0, LocalDateTime.now(), LocalDateTime.now(),
+                null);
+    }
+
     private PostResponse createTestPostResponse() {
         return new PostResponse(
                 UUID.randomUUID(),
@@ -394,7 +603,11 @@ class PostServiceImplTest {
                 0,
                 0,
                 LocalDateTime.now(),
-                new ArrayList<>()
+                LocalDateTime.now(),
+                null,
+                new ArrayList<>(),
+                null,
+                null
         );
     }
 
@@ -419,13 +632,12 @@ class PostServiceImplTest {
     @Test
     void getById_ShouldReturnPostResponse_WhenPostExists() {
         UUID postId = UUID.randomUUID();
-        Post post = createTestPost();
+        PostView post = createTestPostView();
         ImageResponse imageResponse = new ImageResponse(ImageType.POST_ATTACHMENT,
                 List.of(new FileTransferEntity("file".getBytes(), "name")), postId);
         PostResponse expectedResponse = createTestPostResponse();
 
-        when(postValidationService.findByIdThrowsExceptionIfDoesntExist(eq(postId), any(PostNotFoundException.class)))
-                .thenReturn(post);
+        when(postRepository.findViewById(postId)).thenReturn(Optional.of(post));
         when(imageClient.getImageByParentId(postId)).thenReturn(imageResponse);
         when(postMapper.toResponse(eq(post), anyList())).thenReturn(expectedResponse);
 
@@ -433,7 +645,7 @@ class PostServiceImplTest {
 
         assertNotNull(result);
         assertEquals(expectedResponse, result);
-        verify(postValidationService).findByIdThrowsExceptionIfDoesntExist(eq(postId), any(PostNotFoundException.class));
+        verify(postRepository).findViewById(postId);
         verify(imageClient).getImageByParentId(postId);
         verify(postMapper).toResponse(eq(post), anyList());
     }
@@ -445,12 +657,10 @@ class PostServiceImplTest {
         UUID postId1 = UUID.randomUUID();
         UUID postId2 = UUID.randomUUID();
 
-        Post post1 = createTestPost();
-        post1.setId(postId1);
-        Post post2 = createTestPost();
-        post2.setId(postId2);
+        PostView post1 = createTestPostView(postId1, "Test author");
+        PostView post2 = createTestPostView(postId2, "Test author");
 
-        Page<Post> postPage = new PageImpl<>(List.of(post1, post2));
+        Page<PostView> postPage = new PageImpl<>(List.of(post1, post2));
 
         ImageResponse imageResponse1 = new ImageResponse(ImageType.POST_ATTACHMENT,
                 List.of(new FileTransferEntity("file1".getBytes(), "name1")), postId1);
@@ -462,16 +672,16 @@ class PostServiceImplTest {
 
         PageableResponse<PostResponse> expectedResponse = createTestPageableResponse();
 
-        when(postRepository.findAll(PageRequest.of(pageNumber, size))).thenReturn(postPage);
-        when(imageClient.getImagesByParentId(List.of(postId1, postId2), pageNumber, size)).thenReturn(imagesResponse);
+        when(postRepository.findViewsBy(PageRequest.of(pageNumber, size))).thenReturn(postPage.getContent());
+        when(imageClient.getImagesByParentId(List.of(postId1, postId2), 0, 2)).thenReturn(imagesResponse);
         when(pageMapper.toResponse(any(Page.class))).thenReturn(expectedResponse);
 
         PageableResponse<PostResponse> result = postService.getFeed(pageNumber, size);
 
         assertNotNull(result);
         assertEquals(expectedResponse, result);
-        verify(postRepository).findAll(PageRequest.of(pageNumber, size));
-        verify(imageClient).getImagesByParentId(List.of(postId1, postId2), pageNumber, size);
+        verify(postRepository).findViewsBy(PageRequest.of(pageNumber, size));
+        verify(imageClient).getImagesByParentId(List.of(postId1, postId2), 0, 2);
         verify(pageMapper).toResponse(any(Page.class));
     }
 
@@ -482,12 +692,10 @@ class PostServiceImplTest {
         UUID postId1 = UUID.randomUUID();
         UUID postId2 = UUID.randomUUID();
 
-        Post post1 = createTestPost();
-        post1.setId(postId1);
-        Post post2 = createTestPost();
-        post2.setId(postId2);
+        PostView post1 = createTestPostView(postId1, "Test author");
+        PostView post2 = createTestPostView(postId2, "Test author");
 
-        Page<Post> postPage = new PageImpl<>(List.of(post1, post2));
+        Page<PostView> postPage = new PageImpl<>(List.of(post1, post2));
 
         ImageResponse imageResponse1 = new ImageResponse(ImageType.POST_ATTACHMENT,
                 List.of(new FileTransferEntity("file1".getBytes(), "name1")), postId1);
@@ -499,27 +707,25 @@ class PostServiceImplTest {
 
         PageableResponse<PostResponse> expectedResponse = createTestPageableResponse();
 
-        when(postRepository.findAll(PageRequest.of(pageNumber, size))).thenReturn(postPage);
-        when(imageClient.getImagesByParentId(anyList(), eq(pageNumber), eq(size))).thenReturn(imagesResponse);
+        when(postRepository.findViewsBy(PageRequest.of(pageNumber, size))).thenReturn(postPage.getContent());
+        when(imageClient.getImagesByParentId(anyList(), eq(0), eq(2))).thenReturn(imagesResponse);
         when(pageMapper.toResponse(any(Page.class))).thenReturn(expectedResponse);
 
         PageableResponse<PostResponse> result = postService.getFeed(pageNumber, size);
 
         assertNotNull(result);
-        verify(postRepository).findAll(PageRequest.of(pageNumber, size));
+        verify(postRepository).findViewsBy(PageRequest.of(pageNumber, size));
     }
 
     @Test
-    void create_ShouldHandleNullAuthorId() throws IOException {
+    void create_ShouldHandleNullAuthorId() {
         PostRequest request = new PostRequest("text", "author", null);
         List<MultipartFile> files = List.of(multipartFile);
         Post post = createTestPost();
-        byte[] fileBytes = "file".getBytes();
 
         when(postMapper.toEntity(request)).thenReturn(post);
         when(postRepository.saveAndFlush(post)).thenReturn(post);
-        when(multipartFile.getBytes()).thenReturn(fileBytes);
-        when(postMapper.toResponse(eq(post), anyList())).thenReturn(createTestPostResponse());
+        when(postMapper.toReferenceResponse(eq(post), anyList())).thenReturn(createTestPostResponse());
 
         PostResponse result = postService.create(request, files);
 
@@ -535,14 +741,10 @@ class PostServiceImplTest {
         UUID postId1 = UUID.randomUUID();
         UUID postId2 = UUID.randomUUID();
 
-        Post post1 = createTestPost();
-        post1.setId(postId1);
-        post1.setAuthor(author);
-        Post post2 = createTestPost();
-        post2.setId(postId2);
-        post2.setAuthor(author);
+        PostView post1 = createTestPostView(postId1, author);
+        PostView post2 = createTestPostView(postId2, author);
 
-        Page<Post> postPage = new PageImpl<>(List.of(post1, post2));
+        Page<PostView> postPage = new PageImpl<>(List.of(post1, post2));
 
         ImageResponse imageResponse1 = new ImageResponse(ImageType.POST_ATTACHMENT,
                 List.of(new FileTransferEntity("file1".getBytes(), "name1")), postId1);
@@ -554,16 +756,16 @@ class PostServiceImplTest {
 
         PageableResponse<PostResponse> expectedResponse = createTestPageableResponse();
 
-        when(postRepository.findByAuthor(author, PageRequest.of(pageNumber, size))).thenReturn(postPage);
-        when(imageClient.getImagesByParentId(List.of(postId1, postId2), pageNumber, size)).thenReturn(imagesResponse);
+        when(postRepository.findViewsByAuthor(author, PageRequest.of(pageNumber, size))).thenReturn(postPage.getContent());
+        when(imageClient.getImagesByParentId(List.of(postId1, postId2), 0, 2)).thenReturn(imagesResponse);
         when(pageMapper.toResponse(any(Page.class))).thenReturn(expectedResponse);
 
         PageableResponse<PostResponse> result = postService.getPostsByAuthor(pageNumber, size, author);
 
         assertNotNull(result);
         assertEquals(expectedResponse, result);
-        verify(postRepository).findByAuthor(author, PageRequest.of(pageNumber, size));
-        verify(imageClient).getImagesByParentId(List.of(postId1, postId2), pageNumber, size);
+        verify(postRepository).findViewsByAuthor(author, PageRequest.of(pageNumber, size));
+        verify(imageClient).getImagesByParentId(List.of(postId1, postId2), 0, 2);
         verify(pageMapper).toResponse(any(Page.class));
     }
 
@@ -574,11 +776,9 @@ class PostServiceImplTest {
         String author = "test@author#123";
         UUID postId1 = UUID.randomUUID();
 
-        Post post1 = createTestPost();
-        post1.setId(postId1);
-        post1.setAuthor(author);
+        PostView post1 = createTestPostView(postId1, author);
 
-        Page<Post> postPage = new PageImpl<>(List.of(post1));
+        Page<PostView> postPage = new PageImpl<>(List.of(post1));
 
         ImageResponse imageResponse1 = new ImageResponse(ImageType.POST_ATTACHMENT,
                 List.of(new FileTransferEntity("file1".getBytes(), "name1")), postId1);
@@ -589,13 +789,508 @@ class PostServiceImplTest {
         PageableResponse<PostResponse> expectedResponse = new PageableResponse<>(1L, 1, 0, 10,
                 List.of(createTestPostResponse()));
 
-        when(postRepository.findByAuthor(author, PageRequest.of(pageNumber, size))).thenReturn(postPage);
-        when(imageClient.getImagesByParentId(List.of(postId1), pageNumber, size)).thenReturn(imagesResponse);
+        when(postRepository.findViewsByAuthor(author, PageRequest.of(pageNumber, size))).thenReturn(postPage.getContent());
+        when(imageClient.getImagesByParentId(List.of(postId1), 0, 1)).thenReturn(imagesResponse);
         when(pageMapper.toResponse(any(Page.class))).thenReturn(expectedResponse);
 
         PageableResponse<PostResponse> result = postService.getPostsByAuthor(pageNumber, size, author);
 
         assertNotNull(result);
-        verify(postRepository).findByAuthor(author, PageRequest.of(pageNumber, size));
+        verify(postRepository).findViewsByAuthor(author, PageRequest.of(pageNumber, size));
+    }
+
+    @Test
+    void getFeedByCursor_ShouldReturnNextCursor_WhenMorePostsExist() {
+        int size = 2;
+        PostView post1 = createTestPostView();
+        PostView post2 = createTestPostView();
+        PostView post3 = createTestPostView();
+        ImageResponse imageResponse1 = new ImageResponse(ImageType.POST_ATTACHMENT,
+                List.of(new FileTransferEntity("file1".getBytes(), "name1")), post1.id());
+        ImageResponse imageResponse2 = new ImageResponse(ImageType.POST_ATTACHMENT,
+                List.of(new FileTransferEntity("file2".getBytes(), "name2")), post2.id());
+
+        when(postRepository.findFeedFirstPage(Limit.of(size + 1))).thenReturn(List.of(post1, post2, post3));
+        when(imageClient.getImagesByParentId(List.of(post1.id(), post2.id()), 0, 2))
+                .thenReturn(new PageableResponse<>(2L, 1, 0, size, List.of(imageResponse1, imageResponse2)));
+        when(postMapper.toResponse(any(PostView.class), anyList())).thenReturn(createTestPostResponse());
+
+        CursorPageableResponse<PostResponse> result = postService.getFeedByCursor(null, size);
+
+        assertEquals(size, result.content().size());
+        PostCursor nextCursor = postCursorCodec.decode(result.nextCursor());
+        assertEquals(post2.id(), nextCursor.id());
+        assertEquals(post2.createdAt(), nextCursor.createdAt());
+    }
+
+    @Test
+    void getPostsByAuthorByCursor_ShouldContinueAfterCursor_WhenLastPage() {
+        int size = 10;
+        String author = "testAuthor";
+        PostView previous = createTestPostView();
+        PostView post = createTestPostView();
+        String cursor = postCursorCodec.encode(previous);
+        ImageResponse imageResponse = new ImageResponse(ImageType.POST_ATTACHMENT,
+                List.of(new FileTransferEntity("file".getBytes(), "name")), post.id());
+
+        when(postRepository.findByAuthorPageAfter(author, previous.createdAt(), previous.id(), Limit.of(size + 1)))
+                .thenReturn(List.of(post));
+        when(imageClient.getImagesByParentId(List.of(post.id()), 0, 1))
+                .thenReturn(new PageableResponse<>(1L, 1, 0, size, List.of(imageResponse)));
+        when(postMapper.toResponse(eq(post), anyList())).thenReturn(createTestPostResponse());
+
+        CursorPageableResponse<PostResponse> result = postService.getPostsByAuthorByCursor(cursor, size, author);
+
+        assertEquals(1, result.content().size());
+        assertNull(result.nextCursor());
+    }
+
+    @Test
+    void getFeedByCursor_ShouldThrowException_WhenCursorIsMalformed() {
+        assertThrows(InvalidCursorException.class, () -> postService.getFeedByCursor("not-a-cursor", 10));
+
+        verify(postRepository, never()).findFeedPageAfter(any(), any(), any());
+    }
+
+    @Test
+    void getFeed_ShouldAttachEmptyFiles_WhenPostHasNoImages() {
+        int pageNumber = 0;
+        int size = 10;
+        PostView post1 = createTestPostView();
+        PostView post2 = createTestPostView();
+        byte[] fileBytes = "file1".getBytes();
+        ImageResponse imageResponse1 = new ImageResponse(ImageType.POST_ATTACHMENT,
+                List.of(new FileTransferEntity(fileBytes, "name1")), post1.id());
+
+        when(postRepository.findViewsBy(PageRequest.of(pageNumber, size))).thenReturn(new PageImpl<>(List.of(post1, post2)).getContent());
+        when(imageClient.getImagesByParentId(List.of(post1.id(), post2.id()), 0, 2))
+                .thenReturn(new PageableResponse<>(1L, 1, 0, 2, List.of(imageResponse1)));
+        when(postMapper.toResponse(any(PostView.class), anyList())).thenReturn(createTestPostResponse());
+        when(pageMapper.toResponse(any(Page.class))).thenReturn(createTestPageableResponse());
+
+        postService.getFeed(pageNumber, size);
+
+        verify(postMapper).toResponse(post1, List.of(fileBytes));
+        verify(postMapper).toResponse(post2, List.of());
+    }
+
+    @Test
+    void getById_ShouldReturnDescriptors_WhenReferenceModeRequested() {
+        UUID postId = UUID.randomUUID();
+        PostView post = createTestPostView();
+        feign.Response rawResponse = mock(feign.Response.class);
+        List<ImageDescriptor> descriptors = List.of(
+                new ImageDescriptor(0, "cat.png", 42L, "image/png", "/api/v1/posts/" + postId + "/images/0"));
+
+        when(postRepository.findViewById(postId)).thenReturn(Optional.of(post));
+        when(imageClient.streamImageByParentId(postId)).thenReturn(rawResponse);
+        when(imageStreamReader.readDescriptors(postId, rawResponse)).thenReturn(descriptors);
+        when(postMapper.toReferenceResponse(post, descriptors)).thenReturn(createTestPostResponse());
+
+        PostResponse result = postService.getById(postId, ImageMode.REFERENCE);
+
+        assertNotNull(result);
+        verify(imageClient, never()).getImageByParentId(any());
+        verify(postMapper).toReferenceResponse(post, descriptors);
+    }
+
+    @Test
+    void updateActivity_ShouldWriteOnlyCountersAndEvictCachedPost() {
+        ActivityResponse activity = new ActivityResponse(UUID.randomUUID(), 5, 2, 4L);
+
+        when(postActivityRepository.updateCounters(List.of(activity))).thenReturn(1);
+
+        postService.updateActivity(activity);
+
+        verify(postRepository, never()).findById(any());
+        verify(postRepository, never()).save(any());
+        verify(postCache).evict(activity.postId());
+    }
+
+    @Test
+    void updateActivity_ShouldThrowException_WhenPostNotFound() {
+        ActivityResponse activity = new ActivityResponse(UUID.randomUUID(), 5, 2, 4L);
+
+        when(postActivityRepository.updateCounters(List.of(activity))).thenReturn(0);
+        when(postRepository.existsById(activity.postId())).thenReturn(false);
+
+        assertThrows(PostNotFoundException.class, () -> postService.updateActivity(activity));
+        verify(postCache, never()).evict(any());
+    }
+
+    @Test
+    void updateActivity_ShouldSkipOutdatedEvent() {
+        ActivityResponse activity = new ActivityResponse(UUID.randomUUID(), 5, 2, 4L);
+
+        when(postActivityRepository.updateCounters(List.of(activity))).thenReturn(0);
+        when(postRepository.existsById(activity.postId())).thenReturn(true);
+
+        postService.updateActivity(activity);
+
+        verify(postCache, never()).evict(any());
+    }
+
+    @Test
+    void getById_ShouldReturnBufferedCounters_WhenActivityIsNotWrittenYet() {
+        UUID id = UUID.randomUUID();
+        PostResponse cached = new PostResponse(id, "text", "author", UUID.randomUUID(), 1, 0,
+                LocalDateTime.now(), LocalDateTime.now(), null, List.of(), null, null);
+        when(postCache.get(eq(id), eq(ImageMode.INLINE), any())).thenReturn(cached);
+        activityBuffer.add(List.of(new ActivityResponse(id, 42, 7, 3L)), mock(Acknowledgment.class));
+
+        PostResponse result = postService.getById(id);
+
+        assertEquals(42, result.numberOfLikes());
+        assertEquals(7, result.numberOfComments());
+        assertEquals("text", result.text());
+    }
+
+    @Test
+    void updateActivities_ShouldWriteCountersInOneBatchWithoutLoadingEntities() {
+        ActivityResponse activity1 = new ActivityResponse(UUID.randomUUID(), 1, 0, 1L);
+        ActivityResponse activity2 = new ActivityResponse(UUID.randomUUID(), 3, 4, 2L);
+        List<ActivityResponse> activities = List.of(activity1, activity2);
+
+        when(postActivityRepository.applyCounters(activities)).thenReturn(List.of(activity2));
+
+        postService.updateActivities(activities);
+
+        verify(postActivityRepository).applyCounters(activities);
+        verify(postRepository, never()).findById(any());
+        verify(postCache).evict(activity1.postId());
+        verify(postCache).evict(activity2.postId());
+        verify(hotFeed).record(List.of(activity2));
+    }
+
+    @Test
+    void update_ShouldQueuePostForSearch_OnlyWhenTextChanges() {
+        UUID postId = UUID.randomUUID();
+        Post post = createTestPost();
+        PostRequest request = new PostRequest("new text", null, null);
+
+        when(postValidationService.findByIdThrowsExceptionIfDoesntExist(eq(postId), any(PostNotFoundException.class)))
+                .thenReturn(post);
+        doAnswer(invocation -> {
+            post.setText(request.text());
+            return null;
+        }).when(postMapper).updateEntityByRequest(request, post);
+
+        postService.update(request, postId);
+        postService.update(request, postId);
+
+        verify(postSearch).enqueue(postId);
+    }
+
+    @Test
+    void search_ShouldReturnMatchesInRankOrder_WithTheirTotal() {
+        PostView best = createTestPostView(UUID.randomUUID(), "author");
+        PostView second = createTestPostView(UUID.randomUUID(), "author");
+
+        when(postSearch.find("some words", 0, 2, false)).thenReturn(List.of(best, second));
+        when(postSearch.count("some words")).thenReturn(7L);
+        when(postMapper.toResponse(any(PostView.class), eq(null)))
+                .thenAnswer(invocation -> createTestPostResponse(invocation.<PostView>getArgument(0).id()));
+        when(pageMapper.toResponse(any(Page.class))).thenAnswer(invocation -> {
+            Page<PostResponse> page = invocation.getArgument(0);
+            return new PageableResponse<>(page.getTotalElements(), page.getTotalPages(), page.getNumber(),
+                    page.getSize(), page.getContent());
+        });
+
+        PageableResponse<PostResponse> result = postService.search("some words", 0, 2, ImageMode.INLINE,
+                PostFields.of("id,author"));
+
+        assertEquals(List.of(best.id(), second.id()), result.content().stream().map(PostResponse::id).toList());
+        assertEquals(7L, result.totalElements());
+        verify(imageClient, never()).getImagesByParentId(anyList(), anyInt(), anyInt());
+    }
+
+    @Test
+    void getHotFeed_ShouldReadRankedPostsById_InRankOrder() {
+        PostView hottest = createTestPostView(UUID.randomUUID(), "author");
+        PostView second = createTestPostView(UUID.randomUUID(), "author");
+        List<UUID> ranked = List.of(hottest.id(), second.id());
+
+        when(hotFeed.findPostIds(0, 2)).thenReturn(ranked);
+        when(postRepository.findSummariesByIdIn(ranked)).thenReturn(List.of(second, hottest));
+        when(postMapper.toResponse(any(PostView.class), eq(null)))
+                .thenAnswer(invocation -> createTestPostResponse(invocation.<PostView>getArgument(0).id()));
+        when(pageMapper.toResponse(any(Page.class))).thenAnswer(invocation -> {
+            Page<PostResponse> page = invocation.getArgument(0);
+            return new PageableResponse<>(page.getTotalElements(), page.getTotalPages(), page.getNumber(),
+                    page.getSize(), page.getContent());
+        });
+        when(hotFeed.size()).thenReturn(50);
+
+        PageableResponse<PostResponse> result = postService.getHotFeed(0, 2, ImageMode.INLINE, PostFields.of("id"));
+
+        assertEquals(ranked, result.content().stream().map(PostResponse::id).toList());
+        assertEquals(50L, result.totalElements());
+        verify(postRepository, never()).findSummariesBy(any());
+    }
+
+    @Test
+    void getFeed_ShouldSkipImagesAndText_WhenFieldsetHasNeither() {
+        PostView post = createTestPostView();
+        PostFields fields = PostFields.of("id,author,numberOfLikes");
+
+        when(postRepository.findSummariesBy(PageRequest.of(0, 10))).thenReturn(List.of(post));
+        when(pageMapper.toResponse(any(Page.class))).thenReturn(createTestPageableResponse());
+
+        postService.getFeed(0, 10, ImageMode.INLINE, fields);
+
+        verify(postRepository, never()).findViewsBy(any());
+        verify(imageClient, never()).getImagesByParentId(anyList(), anyInt(), anyInt());
+        verify(postMapper).toResponse(post, null);
+    }
+
+    @Test
+    void getById_ShouldBypassCacheAndImages_WhenFieldsetHasNoImages() {
+        PostView post = createTestPostView();
+        PostFields fields = PostFields.of("id,text");
+
+        when(postRepository.findViewById(post.id())).thenReturn(Optional.of(post));
+        when(postMapper.toResponse(post, null)).thenReturn(createTestPostResponse());
+
+        postService.getById(post.id(), ImageMode.INLINE, fields);
+
+        verify(postCache, never()).get(any(), any(), any());
+        verify(imageClient, never()).getImageByParentId(any());
+    }
+
+    @Test
+    void postFields_ShouldRejectUnknownField() {
+        assertThrows(InvalidFieldsException.class, () -> PostFields.of("id,password"));
+    }
+
+    @Test
+    void imageMode_ShouldParseParameterInAnyCase_AndRejectUnknownMode() {
+        assertEquals(ImageMode.REFERENCE, ImageMode.fromParameter("Reference"));
+        assertNull(ImageMode.fromParameter("thumbnail"));
+    }
+
+    @Test
+    void getByIds_ShouldLoadPostsAndImagesOnceAndKeepRequestOrder() {
+        PostView post1 = createTestPostView();
+        PostView post2 = createTestPostView();
+        UUID missingId = UUID.randomUUID();
+        PostResponse response1 = createTestPostResponse();
+        PostResponse response2 = createTestPostResponse();
+
+        when(postRepository.findViewsByIdIn(any())).thenReturn(List.of(post1, post2));
+        when(imageClient.getImagesByParentId(List.of(post2.id(), post1.id()), 0, 2))
+                .thenReturn(new PageableResponse<>(0L, 0, 0, 2, List.of()));
+        when(postMapper.toResponse(post1, List.of())).thenReturn(response1);
+        when(postMapper.toResponse(post2, List.of())).thenReturn(response2);
+
+        PostBatchResponse result = postService.getByIds(List.of(post2.id(), missingId, post1.id(), post2.id()),
+                ImageMode.INLINE, PostFields.ALL);
+
+        assertEquals(List.of(response2, response1), result.posts());
+        assertEquals(List.of(missingId), result.missing());
+        verify(postRepository).findViewsByIdIn(any());
+        verify(imageClient).getImagesByParentId(anyList(), anyInt(), anyInt());
+        verify(imageClient, never()).getImageByParentId(any());
+    }
+
+    @Test
+    void getByIds_ShouldRejectBatchAboveConfiguredLimit() {
+        List<UUID> ids = List.of(UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID(),
+                UUID.randomUUID());
+
+        assertThrows(BatchTooLargeException.class, () -> postService.getByIds(ids, ImageMode.INLINE, PostFields.ALL));
+        verify(postRepository, never()).findViewsByIdIn(any());
+    }
+
+    @Test
+    void getETag_ShouldReturnNull_WhenPostDoesNotExist() {
+        UUID postId = UUID.randomUUID();
+
+        when(postRepository.findSummaryById(postId)).thenReturn(Optional.empty());
+
+        assertNull(postService.getETag(postId, ImageMode.INLINE));
+    }
+
+    @Test
+    void getETag_ShouldChangeWithUpdateImageModeAndBufferedActivity() {
+        UUID postId = UUID.randomUUID();
+        PostView post = createTestPostView(postId, "Test author");
+        PostView updated = new PostView(postId, null, post.author(), post.authorId(), 0, 0, post.createdAt(),
+                post.updatedAt().plusNanos(1_000), null);
+
+        when(postRepository.findSummaryById(postId)).thenReturn(
+                Optional.of(post),
+                Optional.of(post),
+                Optional.of(updated),
+                Optional.of(post));
+
+        String eTag = postService.getETag(postId, ImageMode.INLINE);
+        assertNotEquals(eTag, postService.getETag(postId, ImageMode.REFERENCE));
+        assertNotEquals(eTag, postService.getETag(postId, ImageMode.INLINE));
+        activityBuffer.add(List.of(new ActivityResponse(postId, 1, 0, 1L)), mock(Acknowledgment.class));
+        assertNotEquals(eTag, postService.getETag(postId, ImageMode.INLINE));
+    }
+
+    @Test
+    void getFeedETag_ShouldMatchTagOfServedPage_WithoutReadingTextOrImages() {
+        PostView post1 = createTestPostView();
+        PostView post2 = createTestPostView();
+        PageRequest pageable = PageRequest.of(0, 2);
+
+        when(postRepository.findSummariesBy(pageable)).thenReturn(List.of(post1, post2));
+
+        String eTag = postService.getFeedETag(0, 2, ImageMode.INLINE);
+
+        List<PostResponse> served = Stream.of(post1, post2)
+                .map(post -> new PostResponse(post.id(), post.text(), post.author(), post.authorId(), 0, 0,
+                        post.createdAt(), post.updatedAt(), null, List.of(), null, null))
+                .toList();
+        assertEquals(eTag, postService.getETag(served, ImageMode.INLINE));
+        assertNotEquals(eTag, postService.getETag(served.reversed(), ImageMode.INLINE));
+        assertNotEquals(eTag, postService.getETag(served.subList(0, 1), ImageMode.INLINE));
+        verify(postRepository, never()).findViewsBy(any());
+        verifyNoInteractions(imageClient);
+    }
+
+    @Test
+    void getFeedETag_ShouldMatchTagOfPageServedByGetFeed() {
+        PostView post1 = createTestPostView();
+        PostView post2 = createTestPostView();
+        PageRequest pageable = PageRequest.of(0, 2);
+
+        when(postRepository.findSummariesBy(pageable)).thenReturn(List.of(post1, post2));
+        when(postRepository.findViewsBy(pageable)).thenReturn(List.of(post1, post2));
+        when(imageClient.getImagesByParentId(List.of(post1.id(), post2.id()), 0, 2))
+                .thenReturn(new PageableResponse<>(0L, 0, 0, 0, List.of()));
+        when(postMapper.toResponse(any(PostView.class), any())).thenAnswer(invocation -> {
+            PostView post = invocation.getArgument(0);
+            return new PostResponse(post.id(), post.text(), post.author(), post.authorId(), 0, 0, post.createdAt(),
+                    post.updatedAt(), null, List.of(), null, null);
+        });
+        when(pageMapper.toResponse(any(Page.class))).thenAnswer(invocation -> {
+            Page<PostResponse> page = invocation.getArgument(0);
+            return new PageableResponse<>(page.getTotalElements(), page.getTotalPages(), page.getNumber(),
+                    page.getSize(), page.getContent());
+        });
+
+        String eTag = postService.getFeedETag(0, 2, ImageMode.INLINE);
+        PageableResponse<PostResponse> served = postService.getFeed(0, 2, ImageMode.INLINE, PostFields.ALL);
+
+        assertEquals(eTag, postService.getETag(served.content(), ImageMode.INLINE));
+    }
+
+    @Test
+    void streamFeed_ShouldWriteOnePostPerLine_WithOneImageCallPerChunk() throws IOException {
+        PostView post1 = createTestPostView();
+        PostView post2 = createTestPostView();
+        PostView post3 = createTestPostView();
+
+        when(postRepository.findViewsBy(PageRequest.of(0, 3))).thenReturn(List.of(post1, post2, post3));
+        when(imageClient.getImagesByParentId(anyList(), eq(0), anyInt()))
+                .thenReturn(new PageableResponse<>(0L, 0, 0, 0, List.of()));
+        when(postMapper.toResponse(any(PostView.class), anyList())).thenAnswer(invocation ->
+                createTestPostResponse(invocation.<PostView>getArgument(0).id()));
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        postService.streamFeed(0, 3, ImageMode.INLINE, PostFields.ALL).writeTo(output);
+
+        String body = output.toString(StandardCharsets.UTF_8);
+        String[] lines = body.split("\n");
+        assertTrue(body.endsWith("\n"));
+        assertEquals(3, lines.length);
+        assertEquals(post1.id().toString(), objectMapper.readTree(lines[0]).get("id").asText());
+        assertEquals(post3.id().toString(), objectMapper.readTree(lines[2]).get("id").asText());
+        verify(imageClient).getImagesByParentId(List.of(post1.id(), post2.id()), 0, 2);
+        verify(imageClient).getImagesByParentId(List.of(post3.id()), 0, 1);
+        verify(postRepository, never()).count();
+    }
+
+    @Test
+    void streamPostsByAuthor_ShouldWriteRequestedFieldsOnly_WithoutImages() throws IOException {
+        PostView post = createTestPostView(UUID.randomUUID(), "author");
+
+        when(postRepository.findViewsByAuthor("author", PageRequest.of(0, 10))).thenReturn(List.of(post));
+        when(postMapper.toResponse(post, null)).thenReturn(createTestPostResponse(post.id()));
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        postService.streamPostsByAuthor(0, 10, "author", ImageMode.INLINE, PostFields.of("id,text")).writeTo(output);
+
+        JsonNode line = objectMapper.readTree(output.toString(StandardCharsets.UTF_8).trim());
+        assertEquals(2, line.size());
+        assertEquals(post.id().toString(), line.get("id").asText());
+        verify(imageClient, never()).getImagesByParentId(anyList(), anyInt(), anyInt());
+    }
+
+    @Test
+    void getPostsByAuthorId_ShouldReadTimelinePostsById_InTimelineOrder() {
+        UUID authorId = UUID.randomUUID();
+        PostView newer = createTestPostView(UUID.randomUUID(), "author");
+        PostView older = createTestPostView(UUID.randomUUID(), "author");
+        UUID deleted = UUID.randomUUID();
+        List<UUID> timeline = List.of(newer.id(), deleted, older.id());
+
+        when(authorTimeline.findPostIds(authorId, 0, 3)).thenReturn(Optional.of(timeline));
+        when(postRepository.findViewsByIdIn(timeline)).thenReturn(List.of(older, newer));
+        when(postMapper.toResponse(any(PostView.class), eq(null)))
+                .thenAnswer(invocation -> createTestPostResponse(invocation.<PostView>getArgument(0).id()));
+        when(pageMapper.toResponse(any(Page.class))).thenAnswer(invocation -> {
+            Page<PostResponse> page = invocation.getArgument(0);
+            return new PageableResponse<>(page.getTotalElements(), page.getTotalPages(), page.getNumber(),
+                    page.getSize(), page.getContent());
+        });
+
+        PageableResponse<PostResponse> result = postService.getPostsByAuthorId(0, 3, authorId, ImageMode.INLINE,
+                PostFields.of("id,text"));
+
+        assertEquals(List.of(newer.id(), older.id()), result.content().stream().map(PostResponse::id).toList());
+        assertEquals(2L, result.totalElements());
+        verify(postRepository, never()).findViewsByAuthorId(any(), any());
+        verify(imageClient, never()).getImagesByParentId(anyList(), anyInt(), anyInt());
+    }
+
+    @Test
+    void getPostsByAuthorId_ShouldQueryPostsTable_WhenPageIsPastTimeline() {
+        UUID authorId = UUID.randomUUID();
+        PageRequest pageable = PageRequest.of(100, 10);
+
+        when(authorTimeline.findPostIds(authorId, pageable.getOffset(), 10)).thenReturn(Optional.empty());
+        when(postRepository.findSummariesByAuthorId(authorId, pageable)).thenReturn(List.of());
+        when(postRepository.countByAuthorId(authorId)).thenReturn(1000L);
+        when(pageMapper.toResponse(any(Page.class))).thenReturn(createTestPageableResponse());
+
+        postService.getPostsByAuthorId(100, 10, authorId, ImageMode.INLINE, PostFields.of("id"));
+
+        verify(postRepository).findSummariesByAuthorId(authorId, pageable);
+        verify(postRepository, never()).findSummariesByIdIn(any());
+    }
+
+    @Test
+    void update_ShouldMovePostToNewAuthorTimeline_WhenAuthorIdChanges() {
+        UUID postId = UUID.randomUUID();
+        Post post = createTestPost();
+        UUID previousAuthorId = post.getAuthorId();
+        PostRequest request = new PostRequest("text", "author", UUID.randomUUID());
+
+        when(postValidationService.findByIdThrowsExceptionIfDoesntExist(eq(postId), any(PostNotFoundException.class)))
+                .thenReturn(post);
+        doAnswer(invocation -> {
+            post.setAuthorId(request.authorId());
+            return null;
+        }).when(postMapper).updateEntityByRequest(request, post);
+
+        postService.update(request, postId);
+
+        verify(authorTimeline).remove(previousAuthorId, postId);
+        verify(authorTimeline).append(post);
+    }
+
+    private static ObjectMapper createObjectMapper() {
+        Jackson2ObjectMapperBuilder builder = Jackson2ObjectMapperBuilder.json();
+        new JacksonConfig().postFieldsFilterCustomizer().customize(builder);
+        return builder.build();
+    }
+
+    private PostResponse createTestPostResponse(UUID id) {
+        return new PostResponse(id, "Test text", "Test author", UUID.randomUUID(), 0, 0, LocalDateTime.now(),
+                LocalDateTime.now(), null, List.of(), null, null);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,91 @@
+package ru.kharevich.postservice.timeline;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.kharevich.postservice.config.properties.TimelineProperties;
+import ru.kharevich.postservice.model.Post;
+import ru.kharevich.postservice.repository.AuthorTimelineRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class AuthorTimelineTest {
+
+    private static final int MAX_SIZE = 4;
+
+    private final UUID authorId = UUID.randomUUID();
+
+    @Mock
+    private AuthorTimelineRepository authorTimelineRepository;
+
+    @Test
+    void findPostIds_ShouldServePagesFromMemory_UntilAuthorIsWritten() {
+        AuthorTimeline timeline = createTimeline(true);
+        List<UUID> postIds = List.of(UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID());
+        when(authorTimelineRepository.findPostIds(authorId, 0, MAX_SIZE)).thenReturn(postIds);
+
+        assertEquals(Optional.of(postIds.subList(0, 2)), timeline.findPostIds(authorId, 0, 2));
+        assertEquals(Optional.of(postIds.subList(2, 3)), timeline.findPostIds(authorId, 2, 2));
+        verify(authorTimelineRepository, times(1)).findPostIds(authorId, 0, MAX_SIZE);
+
+        Post post = Post.builder()
+                .id(UUID.randomUUID())
+                .authorId(authorId)
+                .createdAt(LocalDateTime.now())
+                .build();
+        timeline.append(post);
+        timeline.findPostIds(authorId, 0, 2);
+
+        verify(authorTimelineRepository).append(authorId, post.getId(), post.getCreatedAt(), MAX_SIZE);
+        verify(authorTimelineRepository, times(2)).findPostIds(authorId, 0, MAX_SIZE);
+    }
+
+    @Test
+    void findPostIds_ShouldNotKeepLoadedTimeline_WhenAuthorIsWrittenWhileItLoads() {
+        AuthorTimeline timeline = createTimeline(true);
+        Post post = Post.builder()
+                .id(UUID.randomUUID())
+                .authorId(authorId)
+                .createdAt(LocalDateTime.now())
+                .build();
+        List<UUID> stale = List.of(UUID.randomUUID());
+        List<UUID> fresh = List.of(post.getId(), stale.getFirst());
+        when(authorTimelineRepository.findPostIds(authorId, 0, MAX_SIZE)).thenAnswer(invocation -> {
+            timeline.append(post);
+            return stale;
+        }).thenReturn(fresh);
+
+        assertEquals(Optional.of(stale), timeline.findPostIds(authorId, 0, 2));
+        assertEquals(Optional.of(fresh), timeline.findPostIds(authorId, 0, 2));
+    }
+
+    @Test
+    void findPostIds_ShouldReturnNothing_WhenPageReachesPastBound() {
+        AuthorTimeline timeline = createTimeline(false);
+
+        assertEquals(Optional.empty(), timeline.findPostIds(authorId, 2, 3));
+        verify(authorTimelineRepository, never()).findPostIds(any(), anyLong(), anyInt());
+    }
+
+    private AuthorTimeline createTimeline(boolean hotEnabled) {
+        return new AuthorTimeline(new TimelineProperties(MAX_SIZE, hotEnabled, Duration.ofMinutes(1), 100),
+                authorTimelineRepository, new SimpleMeterRegistry());
+    }
+
+}
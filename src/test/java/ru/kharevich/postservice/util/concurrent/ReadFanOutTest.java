@@ -0,0 +1,61 @@
+package ru.kharevich.postservice.util.concurrent;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import ru.kharevich.postservice.exception.PostNotFoundException;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ReadFanOutTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void join_ShouldRethrowLegExceptionAndRecordErrorOutcome() {
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            ReadFanOut readFanOut = new ReadFanOut(executor, meterRegistry);
+
+            Future<Object> leg = readFanOut.fork("getById", "images", () -> {
+                throw new PostNotFoundException("Post not found");
+            });
+
+            assertThrows(PostNotFoundException.class, () -> readFanOut.join(leg));
+        }
+        assertEquals(1, meterRegistry.get("post.read.leg")
+                .tags("operation", "getById", "leg", "images", "outcome", "error")
+                .timer()
+                .count());
+    }
+
+    @Test
+    void cancel_ShouldInterruptRunningLeg() throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch interrupted = new CountDownLatch(1);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            ReadFanOut readFanOut = new ReadFanOut(executor, meterRegistry);
+
+            Future<Object> leg = readFanOut.fork("getById", "images", () -> {
+                started.countDown();
+                try {
+                    Thread.sleep(TimeUnit.SECONDS.toMillis(30));
+                } catch (InterruptedException e) {
+                    interrupted.countDown();
+                }
+                return null;
+            });
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            readFanOut.cancel(leg);
+
+            assertTrue(interrupted.await(5, TimeUnit.SECONDS));
+        }
+    }
+
+}